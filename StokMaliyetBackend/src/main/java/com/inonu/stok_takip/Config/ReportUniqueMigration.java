@@ -0,0 +1,42 @@
+package com.inonu.stok_takip.Config;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// report tablosunda (tür, tarih) başına tek satır olmalı; raporlar bu kısıta göre upsert ile yazılır.
+// ddl-auto mükerrer satırı olan tabloya kısıtı ekleyemez, bu yüzden açılışta her tür ve tarih için en son
+// yazılan satır bırakılıp diğerleri silinir ve kısıt yoksa eklenir. Schema güncellemesinden sonra çalışır
+@Component
+@DependsOn("entityManagerFactory")
+public class ReportUniqueMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportUniqueMigration.class);
+
+    private static final String CONSTRAINT_NAME = "uk_report_type_report_create_date";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ReportUniqueMigration(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void migrate() {
+        int removed = jdbcTemplate.update("DELETE FROM report r USING report d "
+                + "WHERE r.report_type = d.report_type AND r.report_create_date = d.report_create_date AND r.id < d.id");
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_constraint WHERE conname = ?", Integer.class, CONSTRAINT_NAME);
+        if (existing == null || existing == 0) {
+            jdbcTemplate.execute("ALTER TABLE report ADD CONSTRAINT " + CONSTRAINT_NAME
+                    + " UNIQUE (report_type, report_create_date)");
+        }
+        // kısıt varken mükerrer satır oluşamaz; silinen satır varsa kısıt bir şekilde kaldırılmış demektir
+        if (removed > 0) {
+            log.warn("Mükerrer rapor satırları silindi: {}", removed);
+        }
+    }
+}
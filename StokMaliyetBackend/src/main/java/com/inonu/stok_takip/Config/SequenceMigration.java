@@ -0,0 +1,62 @@
+package com.inonu.stok_takip.Config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// id'ler IDENTITY sütunlarından entity sekanslarına taşınır. ddl-auto sekansları 1'den başlatır, mevcut
+// kayıtlarla çakışmaması için her açılışta sekans tablodaki en büyük id'nin ilerisine alınır.
+// Sütunun varsayılanı da sekans olur; id vermeden insert yapan native ve JDBC sorguları aynı sekanstan alır.
+// Schema güncellemesinden sonra, web sunucusu ve zamanlanmış işler başlamadan önce çalışır
+@Component
+public class SequenceMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(SequenceMigration.class);
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbcTemplate;
+
+    public SequenceMigration(EntityManagerFactory entityManagerFactory, JdbcTemplate jdbcTemplate) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void migrate() {
+        List<SequenceTable> tables = new ArrayList<>();
+        entityManagerFactory.unwrap(SessionFactoryImplementor.class).getMappingMetamodel()
+                .forEachEntityDescriptor(persister -> {
+                    if (persister instanceof AbstractEntityPersister entityPersister
+                            && persister.getGenerator() instanceof SequenceStyleGenerator generator) {
+                        tables.add(new SequenceTable(entityPersister.getTableName(),
+                                entityPersister.getIdentifierColumnNames()[0],
+                                generator.getDatabaseStructure().getPhysicalName().render()));
+                    }
+                });
+
+        for (SequenceTable table : tables) {
+            jdbcTemplate.execute("ALTER TABLE " + table.tableName() + " ALTER COLUMN " + table.idColumn()
+                    + " DROP IDENTITY IF EXISTS");
+            jdbcTemplate.execute("ALTER TABLE " + table.tableName() + " ALTER COLUMN " + table.idColumn()
+                    + " SET DEFAULT nextval('" + table.sequenceName() + "')");
+            // Hibernate sekanstan aldığı değerin altındaki 50 id'yi kullanır; sekans en büyük id'ye çekilince
+            // bir sonraki blok mevcut kayıtların üstünden başlar
+            jdbcTemplate.execute("SELECT setval('" + table.sequenceName() + "', x.max_id) FROM (SELECT MAX("
+                    + table.idColumn() + ") AS max_id FROM " + table.tableName() + ") x "
+                    + "WHERE x.max_id >= (SELECT last_value FROM " + table.sequenceName() + ")");
+        }
+        log.info("Id sekansları kontrol edildi: {} tablo", tables.size());
+    }
+
+    private record SequenceTable(String tableName, String idColumn, String sequenceName) {
+    }
+}
@@ -0,0 +1,35 @@
+package com.inonu.stok_takip.Controller;
+
+import com.inonu.stok_takip.Service.ReferenceCacheService;
+import com.inonu.stok_takip.dto.Response.ReferenceCacheStatsResponse;
+import com.inonu.stok_takip.dto.Response.RestResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/v1/cache")
+public class CacheController {
+
+    private final ReferenceCacheService referenceCacheService;
+
+    public CacheController(ReferenceCacheService referenceCacheService) {
+        this.referenceCacheService = referenceCacheService;
+    }
+
+    // referans entity önbelleğinin bölge bazında isabet/ıskalama sayaçları
+    @GetMapping("/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<RestResponse<ReferenceCacheStatsResponse>> getCacheStats() {
+        ReferenceCacheStatsResponse stats = referenceCacheService.getStats();
+        return new ResponseEntity<>(RestResponse.of(stats), HttpStatus.OK);
+    }
+
+    @DeleteMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<RestResponse<String>> evictCache() {
+        referenceCacheService.evictAll();
+        return new ResponseEntity<>(RestResponse.of("Önbellek temizlendi"), HttpStatus.OK);
+    }
+}
@@ -1,12 +1,14 @@
 package com.inonu.stok_takip.Controller;
 
 import com.inonu.stok_takip.Service.DashboardService;
+import com.inonu.stok_takip.dto.Response.DashboardStatsTimingResponse;
 import com.inonu.stok_takip.dto.Response.RestResponse;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -46,6 +48,12 @@ public class DashboardController {
         Map<String, Object> stats = dashboardService.getSatinalmaStats();
         return new ResponseEntity<>(RestResponse.of(stats), HttpStatus.OK);
     }
-}
-
 
+    // panel istatistiklerinin son hesaplanma zamanı ve süresi
+    @GetMapping("/stats/timings")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<RestResponse<List<DashboardStatsTimingResponse>>> getStatsTimings() {
+        List<DashboardStatsTimingResponse> timings = dashboardService.getStatsTimings();
+        return new ResponseEntity<>(RestResponse.of(timings), HttpStatus.OK);
+    }
+}
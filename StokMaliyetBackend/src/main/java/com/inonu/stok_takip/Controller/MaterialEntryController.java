@@ -1,15 +1,25 @@
 package com.inonu.stok_takip.Controller;
 
+import com.inonu.stok_takip.Enum.ExportFormat;
+import com.inonu.stok_takip.Service.CarryOverService;
+import com.inonu.stok_takip.Service.ExportService;
 import com.inonu.stok_takip.Service.MaterialEntryService;
+import com.inonu.stok_takip.dto.Request.HistoryPageRequest;
 import com.inonu.stok_takip.dto.Request.MaterialEntryCreateRequest;
 import com.inonu.stok_takip.dto.Request.MaterialEntryUpdateRequest;
 import com.inonu.stok_takip.dto.Response.*;
 import com.inonu.stok_takip.dto.Response.RestResponse;
+import com.inonu.stok_takip.util.ExportResponses;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -18,9 +28,14 @@ import java.util.List;
 public class MaterialEntryController {
 
     private final MaterialEntryService materialEntryService;
+    private final CarryOverService carryOverService;
+    private final ExportService exportService;
 
-    public MaterialEntryController(MaterialEntryService materialEntryService) {
+    public MaterialEntryController(MaterialEntryService materialEntryService, CarryOverService carryOverService,
+                                   ExportService exportService) {
         this.materialEntryService = materialEntryService;
+        this.carryOverService = carryOverService;
+        this.exportService = exportService;
     }
 
     @PostMapping(value = "/create")
@@ -39,6 +54,28 @@ public class MaterialEntryController {
         return new ResponseEntity<>(RestResponse.of(materialEntryList), HttpStatus.OK);
     }
 
+    // ?productId=&categoryId=&startDate=&endDate=&size=&cursor=
+    @GetMapping("/page")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SATINALMA', 'DEPO')")
+    public ResponseEntity<RestResponse<KeysetPageResponse<MaterialEntryResponse>>> getMaterialEntryPage(HistoryPageRequest request) {
+        KeysetPageResponse<MaterialEntryResponse> page = materialEntryService.getMaterialEntryPage(request);
+        return new ResponseEntity<>(RestResponse.of(page), HttpStatus.OK);
+    }
+
+    // tarih aralığındaki girişler CSV veya NDJSON olarak satır satır indirilir, Accept-Encoding: gzip desteklenir
+    @GetMapping("/export")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SATINALMA', 'DEPO')")
+    public ResponseEntity<StreamingResponseBody> exportMaterialEntries(
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate startDate,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate endDate,
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+        exportService.validateRange(startDate, endDate);
+        return ExportResponses.of("malzeme_girisleri", startDate, endDate, format, acceptEncoding,
+                outputStream -> exportService.writeMaterialEntries(startDate, endDate, format, outputStream));
+    }
+
     @GetMapping("/grouped")
     @PreAuthorize("hasAnyRole('ADMIN', 'SATINALMA', 'DEPO')")
     public ResponseEntity<RestResponse<List<GroupMaterialEntryResponse>>> getGroupedMaterialEntries() {
@@ -55,8 +92,19 @@ public class MaterialEntryController {
 
     @GetMapping("/spend-by-budget")
     @PreAuthorize("hasAnyRole('ADMIN', 'SATINALMA')")
-    public ResponseEntity<RestResponse<List<MaterialEntrySpendResponse>>> getTotalSpentGroupedByBudget() {
-        List<MaterialEntrySpendResponse> spendData = materialEntryService.getTotalSpentGroupedByBudget();
+    public ResponseEntity<RestResponse<List<MaterialEntrySpendResponse>>> getTotalSpentGroupedByBudget(
+            @RequestParam(required = false) Integer year,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate endDate) {
+        // tarih aralığı verilmişse aralık, yıl verilmişse o yıl, hiçbiri yoksa içinde bulunulan yıl
+        List<MaterialEntrySpendResponse> spendData;
+        if (startDate != null || endDate != null) {
+            spendData = materialEntryService.getTotalSpentGroupedByBudget(startDate, endDate);
+        } else if (year != null) {
+            spendData = materialEntryService.getTotalSpentGroupedByBudget(year);
+        } else {
+            spendData = materialEntryService.getTotalSpentGroupedByBudget();
+        }
         return new ResponseEntity<>(RestResponse.of(spendData), HttpStatus.OK);
     }
 
@@ -83,13 +131,34 @@ public class MaterialEntryController {
         return new ResponseEntity<>(RestResponse.of(materialEntryResponse), HttpStatus.OK);
     }
 
+    // dryRun=true ile hiçbir şey yazılmadan devredilecek girişler ve tutarları raporlanır
+    @PostMapping("/carry-over/{year}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<RestResponse<CarryOverResponse>> carryOverEntriesToNextYear(
+            @PathVariable("year") Integer year,
+            @RequestParam(value = "dryRun", defaultValue = "true") boolean dryRun) {
+
+        CarryOverResponse carryOverResponse = carryOverService.carryOverEntriesToNextYear(year, dryRun);
+        return new ResponseEntity<>(RestResponse.of(carryOverResponse), HttpStatus.OK);
+    }
+
     @GetMapping("/getAllProductDetail")
     @PreAuthorize("hasAnyRole('ADMIN', 'SATINALMA', 'DEPO', 'YEMEKHANE')")
-    public ResponseEntity<RestResponse<List<Object>>> getAllProductDetail() {
-        List<Object> productDetails = materialEntryService.getAllProductDetail();
+    public ResponseEntity<RestResponse<List<ProductStockDetailResponse>>> getAllProductDetail() {
+        List<ProductStockDetailResponse> productDetails = materialEntryService.getAllProductDetail();
         return new ResponseEntity<>(RestResponse.of(productDetails), HttpStatus.OK);
     }
 
+    // aynı cevap, liste bellekte kurulmadan satır satır yazılır
+    @GetMapping(value = "/getAllProductDetail", params = "stream=true")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SATINALMA', 'DEPO', 'YEMEKHANE')")
+    public ResponseEntity<StreamingResponseBody> streamAllProductDetail() {
+        StreamingResponseBody body = materialEntryService::writeAllProductDetail;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
     @GetMapping("/getBudgetsGroup")
     @PreAuthorize("hasAnyRole('ADMIN', 'SATINALMA')")
     public ResponseEntity<RestResponse<List<Object>>> getBudgetsGroup() {
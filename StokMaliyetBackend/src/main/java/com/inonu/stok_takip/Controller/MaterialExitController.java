@@ -1,17 +1,25 @@
 package com.inonu.stok_takip.Controller;
 
+import com.inonu.stok_takip.Enum.ExportFormat;
+import com.inonu.stok_takip.Service.ExportService;
 import com.inonu.stok_takip.Service.MaterialExitService;
 import com.inonu.stok_takip.dto.Request.DateRequest;
+import com.inonu.stok_takip.dto.Request.HistoryPageRequest;
 import com.inonu.stok_takip.dto.Request.MaterialExitCreateRequest;
+import com.inonu.stok_takip.dto.Response.KeysetPageResponse;
+import com.inonu.stok_takip.dto.Response.MaterialExitAllocationResponse;
 import com.inonu.stok_takip.dto.Response.MaterialExitDetailResponse;
 import com.inonu.stok_takip.dto.Response.MaterialExitResponse;
 import com.inonu.stok_takip.dto.Response.RestResponse;
 import com.inonu.stok_takip.entitiy.MaterialExit;
+import com.inonu.stok_takip.util.ExportResponses;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -22,9 +30,11 @@ import java.util.List;
 public class MaterialExitController {
 
     private final MaterialExitService materialExitService;
+    private final ExportService exportService;
 
-    public MaterialExitController(MaterialExitService materialExitService) {
+    public MaterialExitController(MaterialExitService materialExitService, ExportService exportService) {
         this.materialExitService = materialExitService;
+        this.exportService = exportService;
     }
 
     @PostMapping("/exit")
@@ -41,6 +51,26 @@ public class MaterialExitController {
         return new ResponseEntity<>(RestResponse.of(materialExitResponses), HttpStatus.OK);
     }
 
+    // ?productId=&categoryId=&startDate=&endDate=&recipient=&size=&cursor=
+    @GetMapping("/page")
+    public ResponseEntity<RestResponse<KeysetPageResponse<MaterialExitResponse>>> getMaterialExitPage(HistoryPageRequest request) {
+        KeysetPageResponse<MaterialExitResponse> page = materialExitService.getMaterialExitPage(request);
+        return new ResponseEntity<>(RestResponse.of(page), HttpStatus.OK);
+    }
+
+    // tarih aralığındaki çıkışlar CSV veya NDJSON olarak satır satır indirilir, Accept-Encoding: gzip desteklenir
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportMaterialExits(
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate startDate,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate endDate,
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+        exportService.validateRange(startDate, endDate);
+        return ExportResponses.of("malzeme_cikislari", startDate, endDate, format, acceptEncoding,
+                outputStream -> exportService.writeMaterialExits(startDate, endDate, format, outputStream));
+    }
+
     @PostMapping("/between-dates")
     public ResponseEntity<RestResponse<List<MaterialExitDetailResponse>>> getMaterialExitBetweenDates(
             @RequestBody DateRequest dateRequest) {
@@ -141,6 +171,12 @@ public class MaterialExitController {
         return new ResponseEntity<>(RestResponse.of(materialExitResponse), HttpStatus.OK);
     }
 
+    @GetMapping("/allocations/{id}")
+    public ResponseEntity<RestResponse<List<MaterialExitAllocationResponse>>> getMaterialExitAllocations(@PathVariable("id") Long id) {
+        List<MaterialExitAllocationResponse> allocations = materialExitService.getMaterialExitAllocations(id);
+        return new ResponseEntity<>(RestResponse.of(allocations), HttpStatus.OK);
+    }
+
     @DeleteMapping("/delete/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<RestResponse<MaterialExitResponse>> deleteMaterialExit(@PathVariable("id") Long id) {
@@ -1,17 +1,27 @@
 package com.inonu.stok_takip.Controller;
 
 import com.inonu.stok_takip.Enum.ReportType;
+import com.inonu.stok_takip.Service.ExportService;
+import com.inonu.stok_takip.Service.ReportBackfillService;
+import com.inonu.stok_takip.Service.ReportRecomputeService;
 import com.inonu.stok_takip.Service.ReportService;
+import com.inonu.stok_takip.dto.Response.ReportBackfillResponse;
+import com.inonu.stok_takip.dto.Response.ReportBundleResponse;
+import com.inonu.stok_takip.dto.Response.ReportRecomputeStatsResponse;
 import com.inonu.stok_takip.dto.Response.ReportResponse;
 import com.inonu.stok_takip.dto.Response.RestResponse;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -21,9 +31,17 @@ import java.util.List;
 public class ReportController {
 
    private final ReportService reportService;
+   private final ExportService exportService;
+   private final ReportRecomputeService reportRecomputeService;
+   private final ReportBackfillService reportBackfillService;
 
-    public ReportController(ReportService reportService) {
+    public ReportController(ReportService reportService, ExportService exportService,
+                            ReportRecomputeService reportRecomputeService,
+                            ReportBackfillService reportBackfillService) {
         this.reportService = reportService;
+        this.exportService = exportService;
+        this.reportRecomputeService = reportRecomputeService;
+        this.reportBackfillService = reportBackfillService;
     }
 
 
@@ -59,6 +77,58 @@ public class ReportController {
         return new ResponseEntity<>(RestResponse.of(reportResponses), HttpStatus.OK);
     }
 
+    // rapor ekranı için günlük, haftalık, aylık ve yıllık rapor ile yemek ve maliyet istatistikleri tek istekte döner
+    @GetMapping("/bundle")
+    @PreAuthorize("hasAnyRole('SATINALMA','ADMIN','DEPO','YEMEKHANE')")
+    public ResponseEntity<RestResponse<ReportBundleResponse>> getReportBundle(@RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate date) {
+        ReportBundleResponse bundle = reportService.getReportBundle(date);
+        return new ResponseEntity<>(RestResponse.of(bundle), HttpStatus.OK);
+    }
+
+    // arka plandaki günlük rapor kuyruğunun derinliği, gecikmesi ve sayaçları
+    @GetMapping("/recompute/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<RestResponse<ReportRecomputeStatsResponse>> getRecomputeStats() {
+        ReportRecomputeStatsResponse stats = reportRecomputeService.getStats();
+        return new ResponseEntity<>(RestResponse.of(stats), HttpStatus.OK);
+    }
+
+    // aralıktaki eksik veya eskimiş günlük raporlar arka planda paralel hesaplanır; force ile tüm günler yeniden hesaplanır
+    @PostMapping("/backfill")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<RestResponse<ReportBackfillResponse>> startBackfill(@RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate startDate,
+                                                                              @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate endDate,
+                                                                              @RequestParam(defaultValue = "false") boolean force) {
+        ReportBackfillResponse backfill = reportBackfillService.startBackfill(startDate, endDate, force);
+        return new ResponseEntity<>(RestResponse.of(backfill), HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping("/backfill/{jobId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<RestResponse<ReportBackfillResponse>> getBackfill(@PathVariable String jobId) {
+        ReportBackfillResponse backfill = reportBackfillService.getBackfill(jobId);
+        return new ResponseEntity<>(RestResponse.of(backfill), HttpStatus.OK);
+    }
+
+    @GetMapping("/backfill")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<RestResponse<List<ReportBackfillResponse>>> getRecentBackfills() {
+        List<ReportBackfillResponse> backfills = reportBackfillService.getRecentBackfills();
+        return new ResponseEntity<>(RestResponse.of(backfills), HttpStatus.OK);
+    }
+
+    // yıl verilmezse içinde bulunulan yılın mali tablosu indirilir
+    @GetMapping("/mali-tablo")
+    @PreAuthorize("hasAnyRole('SATINALMA','ADMIN')")
+    public ResponseEntity<StreamingResponseBody> downloadFinancialStatement(@RequestParam(required = false) Integer year) {
+        int reportYear = year != null ? year : LocalDate.now().getYear();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
+        headers.setContentDisposition(ContentDisposition.attachment().filename("mali_tablo_" + reportYear + ".xlsx").build());
+        StreamingResponseBody body = outputStream -> exportService.writeFinancialStatement(reportYear, outputStream);
+        return ResponseEntity.ok().headers(headers).body(body);
+    }
+
     // Test için manuel rapor oluşturma endpoint'i
     @PostMapping("/create-test")
     @PreAuthorize("hasAnyRole('SATINALMA','ADMIN','DEPO','YEMEKHANE')")
@@ -1,7 +1,9 @@
 package com.inonu.stok_takip.Controller;
 
 import com.inonu.stok_takip.Service.TenderService;
+import com.inonu.stok_takip.dto.Request.HistoryPageRequest;
 import com.inonu.stok_takip.dto.Request.TenderCreateRequest;
+import com.inonu.stok_takip.dto.Response.KeysetPageResponse;
 import com.inonu.stok_takip.dto.Response.RestResponse;
 import com.inonu.stok_takip.dto.Response.TenderResponse;
 import org.springframework.http.HttpStatus;
@@ -36,6 +38,13 @@ public class TenderController {
         return new ResponseEntity<>(RestResponse.of(tenderResponses), HttpStatus.OK);
     }
 
+    // ?productId=&categoryId=&startDate=&endDate=&size=&cursor=
+    @GetMapping("/page")
+    public ResponseEntity<RestResponse<KeysetPageResponse<TenderResponse>>> getTenderPage(HistoryPageRequest request) {
+        KeysetPageResponse<TenderResponse> page = tenderService.getTenderPage(request);
+        return new ResponseEntity<>(RestResponse.of(page), HttpStatus.OK);
+    }
+
     @GetMapping("/activeTender")
     public ResponseEntity<RestResponse<List<TenderResponse>>> getActiveTender() {
         List<TenderResponse> tenderResponses = tenderService.getAllActiveTenders();
@@ -2,7 +2,9 @@ package com.inonu.stok_takip.Controller;
 
 import com.inonu.stok_takip.Service.TicketSalesDetailService;
 import com.inonu.stok_takip.dto.Request.DateRequest;
+import com.inonu.stok_takip.dto.Request.HistoryPageRequest;
 import com.inonu.stok_takip.dto.Request.TicketSalesDetailCreateRequest;
+import com.inonu.stok_takip.dto.Response.KeysetPageResponse;
 import com.inonu.stok_takip.dto.Response.RestResponse;
 import com.inonu.stok_takip.dto.Response.TicketSalesDetailResponse;
 import com.inonu.stok_takip.dto.Response.TicketSalesResponse;
@@ -49,6 +51,13 @@ public class TicketSalesDetailController {
         return new ResponseEntity<>(RestResponse.of(ticketSalesDetailResponseList), HttpStatus.OK);
     }
 
+    // ?startDate=&endDate=&size=&cursor=
+    @GetMapping("/page")
+    public ResponseEntity<RestResponse<KeysetPageResponse<TicketSalesDetailResponse>>> getTicketSalesDetailPage(HistoryPageRequest request) {
+        KeysetPageResponse<TicketSalesDetailResponse> page = ticketSalesDetailService.getTicketSalesDetailPage(request);
+        return new ResponseEntity<>(RestResponse.of(page), HttpStatus.OK);
+    }
+
     @GetMapping("/ticketByDate")
     public ResponseEntity<RestResponse<Integer>> getTicketSalesDetailByDate(@RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate date) {
         Integer count = ticketSalesDetailService.getTicketCountByDay(date);
@@ -0,0 +1,8 @@
+package com.inonu.stok_takip.Enum;
+
+public enum BackfillDateStatus {
+    PENDING,
+    UPDATED, // rapor oluşturuldu veya güncellendi
+    EMPTY, // gün için rapor verisi yok
+    FAILED
+}
@@ -0,0 +1,6 @@
+package com.inonu.stok_takip.Enum;
+
+public enum BackfillStatus {
+    RUNNING,
+    COMPLETED
+}
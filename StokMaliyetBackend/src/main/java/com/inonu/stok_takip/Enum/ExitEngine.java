@@ -0,0 +1,7 @@
+package com.inonu.stok_takip.Enum;
+
+public enum ExitEngine { // malzeme çıkışının hangi yöntemle yapılacağı (material-exit.engine)
+    LEDGER, // ürün ürün FIFO defterinden dağıtım
+    BATCH,  // tüm ürünler için tek sorgu ve JDBC batch yazma
+    SQL     // her ürün için dağıtım ve stok düşümü veritabanında tek sorguda
+}
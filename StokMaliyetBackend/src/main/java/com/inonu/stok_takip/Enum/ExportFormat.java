@@ -0,0 +1,22 @@
+package com.inonu.stok_takip.Enum;
+
+public enum ExportFormat { // dışa aktarım dosya biçimi
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson"); // her satır ayrı bir JSON nesnesi
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
@@ -9,12 +9,16 @@ import com.inonu.stok_takip.Exception.MaterialDemand.DemandAlreadyApprovedExcept
 import com.inonu.stok_takip.Exception.MaterialDemand.InsufficientProductException;
 import com.inonu.stok_takip.Exception.MaterialDemand.InvalidMaterialDemandOperationException;
 import com.inonu.stok_takip.Exception.MaterialDemand.MaterialDemandNotFoundException;
+import com.inonu.stok_takip.Exception.MaterialEntry.InvalidDateRangeException;
+import com.inonu.stok_takip.Exception.MaterialEntry.MaterialEntryInUseException;
 import com.inonu.stok_takip.Exception.MaterialEntry.MaterialEntryNotFoundException;
 import com.inonu.stok_takip.Exception.MaterialEntry.ProductOutOfStockException;
 import com.inonu.stok_takip.Exception.MaterialEntry.StockNotAvailableException;
+import com.inonu.stok_takip.Exception.MaterialExit.ClosedYearExitException;
 import com.inonu.stok_takip.Exception.MaterialExit.InsufficientStockException;
 import com.inonu.stok_takip.Exception.MaterialExit.MaterialExitNotFoundException;
 import com.inonu.stok_takip.Exception.MeasurementType.MeasurementTypeNotFoundException;
+import com.inonu.stok_takip.Exception.Pagination.InvalidPageCursorException;
 import com.inonu.stok_takip.Exception.Product.ProductNotFoundException;
 import com.inonu.stok_takip.Exception.PurchaseType.PurchaseTypeAlreadyExistsException;
 import com.inonu.stok_takip.Exception.PurchaseType.PurchaseTypeNotFoundException;
@@ -22,6 +26,7 @@ import com.inonu.stok_takip.Exception.PurchasedUnit.PurchasedUnitAlreadyExistsEx
 import com.inonu.stok_takip.Exception.PurchasedUnit.PurchasedUnitNotFoundException;
 import com.inonu.stok_takip.Exception.Refectory.RefectoryAlreadyExistsException;
 import com.inonu.stok_takip.Exception.Refectory.RefectoryNotFoundException;
+import com.inonu.stok_takip.Exception.Report.ReportBackfillNotFoundException;
 import com.inonu.stok_takip.Exception.Report.ReportDataNotFoundException;
 import com.inonu.stok_takip.Exception.YemekRecetesi.YemekRecetesiNotFoundException;
 import com.inonu.stok_takip.Exception.YemekRecetesi.YemekRecetesiAlreadyExistsException;
@@ -67,6 +72,21 @@ public class GeneralExceptionHandler extends ResponseEntityExceptionHandler {
         return new ResponseEntity<>(RestResponse.error(exception.getMessage()), HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(MaterialEntryInUseException.class)
+    public ResponseEntity<RestResponse<String>> materialEntryInUseException(MaterialEntryInUseException exception) {
+        return new ResponseEntity<>(RestResponse.error(exception.getMessage()), HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(InvalidDateRangeException.class)
+    public ResponseEntity<RestResponse<String>> invalidDateRangeException(InvalidDateRangeException exception) {
+        return new ResponseEntity<>(RestResponse.error(exception.getMessage()), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InvalidPageCursorException.class)
+    public ResponseEntity<RestResponse<String>> invalidPageCursorException(InvalidPageCursorException exception) {
+        return new ResponseEntity<>(RestResponse.error(exception.getMessage()), HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(ProductOutOfStockException.class)
     public ResponseEntity<RestResponse<String>> productOutOfStockException(ProductOutOfStockException exception) {
         return new ResponseEntity<>(RestResponse.error(exception.getMessage()), HttpStatus.BAD_REQUEST);
@@ -87,6 +107,11 @@ public class GeneralExceptionHandler extends ResponseEntityExceptionHandler {
         return new ResponseEntity<>(RestResponse.error(exception.getMessage()), HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(ClosedYearExitException.class)
+    public ResponseEntity<RestResponse<String>> closedYearExitException(ClosedYearExitException exception) {
+        return new ResponseEntity<>(RestResponse.error(exception.getMessage()), HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(MeasurementTypeNotFoundException.class)
     public ResponseEntity<RestResponse<String>> measurementTypeNotFoundException(MeasurementTypeNotFoundException exception) {
         return new ResponseEntity<>(RestResponse.error(exception.getMessage()), HttpStatus.NOT_FOUND);
@@ -131,6 +156,11 @@ public class GeneralExceptionHandler extends ResponseEntityExceptionHandler {
         return new ResponseEntity<>(RestResponse.error(exception.getMessage()), HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(ReportBackfillNotFoundException.class)
+    public ResponseEntity<RestResponse<String>> reportBackfillNotFoundException(ReportBackfillNotFoundException exception){
+        return new ResponseEntity<>(RestResponse.error(exception.getMessage()), HttpStatus.NOT_FOUND);
+    }
+
     @ExceptionHandler(DirectProcurementNotFoundException.class)
     public ResponseEntity<RestResponse<String>> directProcurementNotFoundException(DirectProcurementNotFoundException exception){
         return new ResponseEntity<>(RestResponse.error(exception.getMessage()), HttpStatus.NOT_FOUND);
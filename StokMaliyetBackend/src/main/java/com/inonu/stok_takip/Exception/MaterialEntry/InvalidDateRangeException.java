@@ -0,0 +1,8 @@
+package com.inonu.stok_takip.Exception.MaterialEntry;
+
+public class InvalidDateRangeException extends RuntimeException{
+
+    public InvalidDateRangeException(String message){
+        super(message);
+    }
+}
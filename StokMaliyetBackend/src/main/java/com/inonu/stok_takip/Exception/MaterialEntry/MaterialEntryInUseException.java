@@ -0,0 +1,7 @@
+package com.inonu.stok_takip.Exception.MaterialEntry;
+
+public class MaterialEntryInUseException extends RuntimeException {
+    public MaterialEntryInUseException(String message) {
+        super(message);
+    }
+}
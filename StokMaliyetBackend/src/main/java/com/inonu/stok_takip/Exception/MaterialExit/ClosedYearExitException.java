@@ -0,0 +1,7 @@
+package com.inonu.stok_takip.Exception.MaterialExit;
+
+public class ClosedYearExitException extends RuntimeException {
+    public ClosedYearExitException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.inonu.stok_takip.Exception.Pagination;
+
+public class InvalidPageCursorException extends RuntimeException{
+
+    public InvalidPageCursorException(String message){
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.inonu.stok_takip.Exception.Report;
+
+public class ReportBackfillNotFoundException extends RuntimeException{
+    public ReportBackfillNotFoundException(String message){
+        super(message);
+    }
+}
@@ -2,7 +2,14 @@ package com.inonu.stok_takip.Repositoriy;
 
 
 import com.inonu.stok_takip.entitiy.Budget;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.List;
 
 public interface BudgetRepository extends JpaRepository<Budget, Long> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Budget> findAll();
 }
@@ -0,0 +1,130 @@
+package com.inonu.stok_takip.Repositoriy;
+
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+// yıl sonu devri için entity yüklemeden, id sırasıyla parça parça çalışan JDBC sorguları
+@Repository
+public class CarryOverBatchRepository {
+
+    private static final String OPEN_LOTS_CHUNK = """
+            SELECT id, product_id, remaining_quantity, unit_price, unit_price_including_vat, total_price_including_vat,
+                   expiry_date, budget_id, company_name, description, purchase_type_id, purchase_unit_id,
+                   tender_id, tender_type
+            FROM material_entry
+            WHERE entry_date BETWEEN :startDate AND :endDate AND remaining_quantity > 0 AND id > :afterId
+            ORDER BY id
+            LIMIT :chunkSize
+            """;
+
+    private static final RowMapper<CarryOverLotRow> LOT_ROW_MAPPER = (rs, rowNum) -> new CarryOverLotRow(
+            rs.getLong("id"),
+            rs.getLong("product_id"),
+            rs.getDouble("remaining_quantity"),
+            rs.getDouble("unit_price"),
+            rs.getDouble("unit_price_including_vat"),
+            rs.getObject("total_price_including_vat", Double.class),
+            rs.getObject("expiry_date", LocalDate.class),
+            rs.getLong("budget_id"),
+            rs.getString("company_name"),
+            rs.getString("description"),
+            rs.getObject("purchase_type_id", Long.class),
+            rs.getObject("purchase_unit_id", Long.class),
+            rs.getObject("tender_id", Long.class),
+            rs.getString("tender_type")
+    );
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public CarryOverBatchRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // devredilecek bir sonraki parça, satırlar parçanın transaction'ı bitene kadar kilitlenir
+    public List<CarryOverLotRow> lockOpenLotsChunk(LocalDate startDate, LocalDate endDate, Long afterId, int chunkSize) {
+        return jdbcTemplate.query(OPEN_LOTS_CHUNK + "FOR UPDATE",
+                chunkParameters(startDate, endDate, afterId, chunkSize), LOT_ROW_MAPPER);
+    }
+
+    // deneme (dry-run) modu için kilitsiz okuma
+    public List<CarryOverLotRow> findOpenLotsChunk(LocalDate startDate, LocalDate endDate, Long afterId, int chunkSize) {
+        return jdbcTemplate.query(OPEN_LOTS_CHUNK,
+                chunkParameters(startDate, endDate, afterId, chunkSize), LOT_ROW_MAPPER);
+    }
+
+    public void insertCarryOverEntries(List<CarryOverLotRow> lots, LocalDate entryDate) {
+        LocalDateTime now = LocalDateTime.now();
+        SqlParameterSource[] batch = lots.stream()
+                .map(lot -> new MapSqlParameterSource()
+                        .addValue("productId", lot.productId())
+                        .addValue("quantity", lot.remainingQuantity())
+                        .addValue("unitPrice", lot.unitPrice())
+                        .addValue("totalPrice", lot.unitPrice() * lot.remainingQuantity())
+                        .addValue("unitPriceIncludingVat", lot.unitPriceIncludingVat())
+                        .addValue("totalPriceIncludingVat", lot.totalPriceIncludingVat())
+                        .addValue("entryDate", entryDate)
+                        .addValue("expiryDate", lot.expiryDate())
+                        .addValue("budgetId", lot.budgetId())
+                        .addValue("companyName", lot.companyName())
+                        .addValue("description", lot.description())
+                        .addValue("purchaseTypeId", lot.purchaseTypeId())
+                        .addValue("purchaseUnitId", lot.purchaseUnitId())
+                        .addValue("tenderId", lot.tenderId())
+                        .addValue("tenderType", lot.tenderType())
+                        .addValue("createDate", now))
+                .toArray(SqlParameterSource[]::new);
+
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO material_entry
+                    (product_id, quantity, remaining_quantity, unit_price, total_price, unit_price_including_vat,
+                     total_price_including_vat, entry_date, expiry_date, budget_id, company_name, description,
+                     purchase_type_id, purchase_unit_id, tender_id, tender_type, entry_source_type, create_date)
+                VALUES
+                    (:productId, :quantity, :quantity, :unitPrice, :totalPrice, :unitPriceIncludingVat,
+                     :totalPriceIncludingVat, :entryDate, :expiryDate, :budgetId, :companyName, :description,
+                     :purchaseTypeId, :purchaseUnitId, :tenderId, :tenderType, 'DEVIR', :createDate)
+                """, batch);
+    }
+
+    // devredilen eski girişlerin kalan miktarı sıfırlanır
+    public void closeLots(Collection<Long> entryIds) {
+        jdbcTemplate.update("""
+                UPDATE material_entry SET remaining_quantity = 0, update_date = now()
+                WHERE id IN (:entryIds)
+                """, new MapSqlParameterSource("entryIds", entryIds));
+    }
+
+    private MapSqlParameterSource chunkParameters(LocalDate startDate, LocalDate endDate, Long afterId, int chunkSize) {
+        return new MapSqlParameterSource()
+                .addValue("startDate", startDate)
+                .addValue("endDate", endDate)
+                .addValue("afterId", afterId)
+                .addValue("chunkSize", chunkSize);
+    }
+
+    public record CarryOverLotRow(
+            Long entryId,
+            Long productId,
+            double remainingQuantity,
+            double unitPrice,
+            double unitPriceIncludingVat,
+            Double totalPriceIncludingVat,
+            LocalDate expiryDate,
+            Long budgetId,
+            String companyName,
+            String description,
+            Long purchaseTypeId,
+            Long purchaseUnitId,
+            Long tenderId,
+            String tenderType
+    ) {
+    }
+}
@@ -0,0 +1,28 @@
+package com.inonu.stok_takip.Repositoriy;
+
+import com.inonu.stok_takip.entitiy.CarryOverCheckpoint;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface CarryOverCheckpointRepository extends JpaRepository<CarryOverCheckpoint, Long> {
+
+    Optional<CarryOverCheckpoint> findByCarryOverYear(Integer carryOverYear);
+    List<CarryOverCheckpoint> findByCompletedFalse();
+
+    // aynı yılın devrini çalıştıran diğer iş (zamanlanmış, açılışta devam veya elle) parça bitene kadar bekler
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM CarryOverCheckpoint c WHERE c.id = :id")
+    Optional<CarryOverCheckpoint> findByIdForUpdate(@Param("id") Long id);
+
+    @Query("SELECT MAX(c.carryOverYear) FROM CarryOverCheckpoint c WHERE c.completed = true")
+    Integer findLastCompletedYear();
+
+    // devri başlamış (yarıda kalmış olsa da) bir yıl; partilerinin bir kısmı sıfırlanıp DEVIR girişine taşınmış olabilir
+    boolean existsByCarryOverYearGreaterThanEqual(Integer carryOverYear);
+}
@@ -1,8 +1,19 @@
 package com.inonu.stok_takip.Repositoriy;
 
 import com.inonu.stok_takip.entitiy.Category;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.List;
 
 public interface CategoryRepository extends JpaRepository<Category, Long> {
+
+    // liste ve isim sorguları sorgu önbelleğinden döner; tablo değişince Hibernate sonuçları geçersiz sayar
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Category> findAll();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Category findByName(String name);
 }
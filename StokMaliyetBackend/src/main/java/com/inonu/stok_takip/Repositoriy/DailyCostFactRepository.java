@@ -0,0 +1,113 @@
+package com.inonu.stok_takip.Repositoriy;
+
+import com.inonu.stok_takip.dto.Response.PeriodCostTotals;
+import com.inonu.stok_takip.entitiy.DailyCostFact;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface DailyCostFactRepository extends JpaRepository<DailyCostFact, Long> {
+
+    // günün satırı yoksa oluşturulur, varsa kilitlenir; aynı günü güncelleyen işlemler commit'e kadar burada sıraya girer
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "daily_cost_fact"))
+    @Query(value = "INSERT INTO daily_cost_fact (fact_date, total_person, ticket_quantity, ticket_revenue, " +
+            "material_cost, cleaning_cost, meal_count, create_date) VALUES (:date, 0, 0, 0, 0, 0, 0, now()) " +
+            "ON CONFLICT (fact_date) DO UPDATE SET update_date = now()", nativeQuery = true)
+    int lockDate(@Param("date") LocalDate date);
+
+    // kilit alındıktan sonra çalıştığı için önceki işlemlerin commit edilmiş kayıtlarını da görür.
+    // Günlük raporun kuralları burada tanımlıdır: yemek sayısı fişlerdeki kişi sayısıdır, malzeme tutarı
+    // kategorisi 'Temizlik' olmayan çıkışlardır (kategori adı boşsa iki tutara da girmez).
+    // meal_count meals-per-* istatistiklerinin kuralıdır: günün kişi sayısı girilmiş ilk çıkışındaki mevcut
+    @Modifying
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "daily_cost_fact"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "material_exit"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "ticket_sales_detail")})
+    @Query(value = """
+            UPDATE daily_cost_fact f SET
+                total_person = t.total_person,
+                ticket_quantity = t.ticket_quantity,
+                ticket_revenue = t.ticket_revenue,
+                material_cost = x.material_cost,
+                cleaning_cost = x.cleaning_cost,
+                meal_count = COALESCE((SELECT e.total_person FROM material_exit e
+                                       WHERE e.exit_date = :date AND e.total_person > 0
+                                       ORDER BY e.id LIMIT 1), 0),
+                update_date = now()
+            FROM (SELECT COALESCE(SUM(quantity), 0) AS ticket_quantity,
+                         COALESCE(SUM(total_price), 0) AS ticket_revenue,
+                         COALESCE(MAX(total_person), 0) AS total_person
+                  FROM ticket_sales_detail WHERE ticket_date = :date) t,
+                 (SELECT COALESCE(SUM(e.total_price) FILTER (WHERE c.name <> 'Temizlik'), 0) AS material_cost,
+                         COALESCE(SUM(e.total_price) FILTER (WHERE c.name = 'Temizlik'), 0) AS cleaning_cost
+                  FROM material_exit e
+                  JOIN product p ON p.id = e.product_id
+                  JOIN category c ON c.id = p.category_id
+                  WHERE e.exit_date = :date) x
+            WHERE f.fact_date = :date
+            """, nativeQuery = true)
+    int recalculateDate(@Param("date") LocalDate date);
+
+    Optional<DailyCostFact> findByFactDate(LocalDate factDate);
+
+    // yemek sayısı sütunu sonradan eklendi; eski satırlar açılışta yeniden oluşturulur
+    boolean existsByMealCountIsNull();
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "daily_cost_fact"))
+    @Query(value = "DELETE FROM daily_cost_fact", nativeQuery = true)
+    int deleteAllRows();
+
+    // çıkış veya fiş kaydı olan her gün için bir satır oluşturulur; kurallar recalculateDate ile aynıdır
+    @Modifying
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "daily_cost_fact"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "material_exit"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "ticket_sales_detail")})
+    @Query(value = """
+            INSERT INTO daily_cost_fact (fact_date, total_person, ticket_quantity, ticket_revenue,
+                                         material_cost, cleaning_cost, meal_count, create_date)
+            SELECT d.fact_date,
+                   COALESCE(t.total_person, 0),
+                   COALESCE(t.ticket_quantity, 0), COALESCE(t.ticket_revenue, 0),
+                   COALESCE(x.material_cost, 0), COALESCE(x.cleaning_cost, 0), COALESCE(m.meal_count, 0), now()
+            FROM (SELECT exit_date AS fact_date FROM material_exit WHERE exit_date IS NOT NULL
+                  UNION
+                  SELECT ticket_date FROM ticket_sales_detail WHERE ticket_date IS NOT NULL) d
+            LEFT JOIN (SELECT ticket_date, SUM(quantity) AS ticket_quantity, SUM(total_price) AS ticket_revenue,
+                              MAX(total_person) AS total_person
+                       FROM ticket_sales_detail GROUP BY ticket_date) t ON t.ticket_date = d.fact_date
+            LEFT JOIN (SELECT e.exit_date,
+                              SUM(e.total_price) FILTER (WHERE c.name <> 'Temizlik') AS material_cost,
+                              SUM(e.total_price) FILTER (WHERE c.name = 'Temizlik') AS cleaning_cost
+                       FROM material_exit e
+                       JOIN product p ON p.id = e.product_id
+                       JOIN category c ON c.id = p.category_id
+                       GROUP BY e.exit_date) x ON x.exit_date = d.fact_date
+            LEFT JOIN (SELECT DISTINCT ON (exit_date) exit_date, total_person AS meal_count
+                       FROM material_exit WHERE total_person > 0
+                       ORDER BY exit_date, id) m ON m.exit_date = d.fact_date
+            """, nativeQuery = true)
+    int insertAllFromRaw();
+
+    // [startDate, endDate) aralığındaki günlük satırların toplamı; yıl için en fazla 366 satır okunur
+    @Query("SELECT new com.inonu.stok_takip.dto.Response.PeriodCostTotals(" +
+            "COALESCE(SUM(f.totalPerson), 0L), COALESCE(SUM(f.ticketQuantity), 0L), " +
+            "COALESCE(SUM(f.ticketRevenue), 0.0), COALESCE(SUM(f.materialCost), 0.0), COALESCE(SUM(f.cleaningCost), 0.0), " +
+            "COALESCE(SUM(f.mealCount), 0L)) " +
+            "FROM DailyCostFact f WHERE f.factDate >= :startDate AND f.factDate < :endDate")
+    PeriodCostTotals sumBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    // [startDate, endDate) aralığındaki günlük satırlar; rapor paketi birden çok dönemi bu satırlardan toplar
+    List<DailyCostFact> findByFactDateGreaterThanEqualAndFactDateLessThanOrderByFactDate(LocalDate startDate, LocalDate endDate);
+}
@@ -2,11 +2,29 @@ package com.inonu.stok_takip.Repositoriy;
 
 import com.inonu.stok_takip.entitiy.DirectProcurement;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
 import java.util.List;
 
 public interface DirectProcurementRepository extends JpaRepository<DirectProcurement, Long> {
 
     List<DirectProcurement> findByRemainingQuantityGreaterThan(Double quantity);
     List<DirectProcurement> findDirectProcurementByActiveTrue();
+
+    boolean existsByActiveTrue();
+
+    // süresi dolan aktif doğrudan teminler tek sorguda pasife çekilir (active, end_date) indeksi kullanılır
+    @Modifying
+    @Query("UPDATE DirectProcurement d SET d.active = false, d.updateDate = LOCAL DATETIME WHERE d.active = true AND d.endDate < :today")
+    int deactivateExpired(@Param("today") LocalDate today);
+
+    @Modifying
+    @Query("UPDATE DirectProcurement d SET d.active = false, d.updateDate = LOCAL DATETIME WHERE d.active = true")
+    int deactivateAllActive();
+
+    @Query("SELECT MIN(d.endDate) FROM DirectProcurement d WHERE d.active = true")
+    LocalDate findEarliestActiveEndDate();
 }
@@ -2,8 +2,14 @@ package com.inonu.stok_takip.Repositoriy;
 
 
 import com.inonu.stok_takip.Enum.EntrySourceType;
+import com.inonu.stok_takip.dto.Response.DashboardStockStats;
+import com.inonu.stok_takip.dto.Response.MaterialEntryDetailResponse;
+import com.inonu.stok_takip.dto.Response.MaterialEntryGroupRow;
+import com.inonu.stok_takip.dto.Response.MaterialEntrySpendResponse;
 import com.inonu.stok_takip.entitiy.MaterialEntry;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -17,8 +23,68 @@ public interface MaterialEntryRepository extends JpaRepository<MaterialEntry, Lo
     @Query("SELECT m FROM MaterialEntry m WHERE m.remainingQuantity > 0")
     List<MaterialEntry> findNonZeroRemainingQuantityEntries();
 
+    // (entryDate, id) üzerinde keyset sayfalama, en yeni giriş ilk gelir; cevapta kullanılan ilişkiler tek sorguda gelir
+    @Query("SELECT m FROM MaterialEntry m " +
+            "JOIN FETCH m.product p " +
+            "LEFT JOIN FETCH p.measurementType " +
+            "LEFT JOIN FETCH p.category " +
+            "LEFT JOIN FETCH m.purchaseType " +
+            "LEFT JOIN FETCH m.purchasedUnit " +
+            "LEFT JOIN FETCH m.budget " +
+            "LEFT JOIN FETCH m.tender " +
+            "LEFT JOIN FETCH m.directProcurement " +
+            "WHERE m.entryDate IS NOT NULL " +
+            "AND (:productId IS NULL OR p.id = :productId) " +
+            "AND (:categoryId IS NULL OR p.category.id = :categoryId) " +
+            "AND (:startDate IS NULL OR m.entryDate >= :startDate) " +
+            "AND (:endDate IS NULL OR m.entryDate < :endDate) " +
+            "AND (:cursorDate IS NULL OR m.entryDate < :cursorDate " +
+            "     OR (m.entryDate = :cursorDate AND m.id < :cursorId)) " +
+            "ORDER BY m.entryDate DESC, m.id DESC")
+    List<MaterialEntry> findPage(@Param("productId") Long productId,
+                                 @Param("categoryId") Long categoryId,
+                                 @Param("startDate") LocalDate startDate,
+                                 @Param("endDate") LocalDate endDate,
+                                 @Param("cursorDate") LocalDate cursorDate,
+                                 @Param("cursorId") Long cursorId,
+                                 Limit limit);
+
+    // stokta kalanı olan girişler ürün bazında kaynak türüne göre koşullu toplamlarla tek sorguda özetlenir
+    @Query("SELECT new com.inonu.stok_takip.dto.Response.MaterialEntryDetailResponse(" +
+            "p.name, p.vatAmount, p.criticalLevel, mt.name, c.name, " +
+            "SUM(CASE WHEN m.entrySourceType = com.inonu.stok_takip.Enum.EntrySourceType.DEVIR THEN m.quantity ELSE 0.0 END), " +
+            "SUM(CASE WHEN m.entrySourceType = com.inonu.stok_takip.Enum.EntrySourceType.IHALE THEN m.quantity ELSE 0.0 END), " +
+            "SUM(CASE WHEN m.entrySourceType = com.inonu.stok_takip.Enum.EntrySourceType.DOGRUDAN_TEMIN THEN m.quantity ELSE 0.0 END), " +
+            "SUM(m.quantity - m.remainingQuantity), " +
+            "SUM(m.remainingQuantity)) " +
+            "FROM MaterialEntry m " +
+            "JOIN m.product p " +
+            "LEFT JOIN p.measurementType mt " +
+            "LEFT JOIN p.category c " +
+            "WHERE m.remainingQuantity > 0 " +
+            "GROUP BY p.id, p.name, p.vatAmount, p.criticalLevel, mt.name, c.name " +
+            "ORDER BY p.name")
+    List<MaterialEntryDetailResponse> summarizeOpenEntriesByProduct();
+
     List<MaterialEntry> findByProductIdOrderByEntryDateAsc(Long productId);
 
+    // FIFO defteri için sadece kalan miktarı olan girişler, en eski önce
+    @Query("SELECT m FROM MaterialEntry m WHERE m.product.id = :productId AND m.remainingQuantity > 0 " +
+            "ORDER BY m.createDate ASC, m.id ASC")
+    List<MaterialEntry> findOpenEntriesByProductId(@Param("productId") Long productId);
+
+    // stok koşullu olarak veritabanında düşülür, kalan miktar yetmiyorsa hiçbir satır güncellenmez.
+    // Aynı partiye gelen eşzamanlı çıkışlar satır kilidinde sıraya girer, farklı partiler birbirini beklemez
+    @Modifying
+    @Query("UPDATE MaterialEntry m SET m.remainingQuantity = m.remainingQuantity - :quantity, m.updateDate = LOCAL DATETIME " +
+            "WHERE m.id = :id AND m.remainingQuantity >= :quantity")
+    int deductRemainingQuantity(@Param("id") Long id, @Param("quantity") Double quantity);
+
+    @Modifying
+    @Query("UPDATE MaterialEntry m SET m.remainingQuantity = m.remainingQuantity + :quantity, m.updateDate = LOCAL DATETIME " +
+            "WHERE m.id = :id")
+    int restoreRemainingQuantity(@Param("id") Long id, @Param("quantity") Double quantity);
+
     // bu stok çıkışı için yazılmış
     @Query("SELECT SUM(m.remainingQuantity) FROM MaterialEntry m WHERE m.product.id = :productId")
     Double sumRemainingQuantityByProductId(@Param("productId") Long productId);
@@ -29,9 +95,39 @@ public interface MaterialEntryRepository extends JpaRepository<MaterialEntry, Lo
 
 
     // dashboard verileri için
-    @Query("SELECT m FROM MaterialEntry m " +
-            "JOIN FETCH m.product p " +
-            "WHERE m.entrySourceType <> :excludedType")
-    List<MaterialEntry> findAllExcludingEntrySourceType(@Param("excludedType") EntrySourceType excludedType);
+    @Query("SELECT new com.inonu.stok_takip.dto.Response.DashboardStockStats(" +
+            "COUNT(m), " +
+            "COALESCE(SUM(CASE WHEN m.remainingQuantity < :lowStockLevel THEN 1 ELSE 0 END), 0L), " +
+            "COALESCE(SUM(CASE WHEN m.remainingQuantity < :criticalLevel THEN 1 ELSE 0 END), 0L), " +
+            "COALESCE(SUM(m.remainingQuantity * m.unitPrice), 0.0)) " +
+            "FROM MaterialEntry m")
+    DashboardStockStats summarizeStock(@Param("lowStockLevel") Double lowStockLevel,
+                                       @Param("criticalLevel") Double criticalLevel);
+
+    // [startDate, endDate) aralığında devir dışındaki girişlerin bütçe bazında toplam tutarı
+    @Query("SELECT new com.inonu.stok_takip.dto.Response.MaterialEntrySpendResponse(" +
+            "b.budgetName, COALESCE(SUM(m.totalPrice), 0.0)) " +
+            "FROM MaterialEntry m " +
+            "JOIN m.budget b " +
+            "WHERE m.entryDate >= :startDate AND m.entryDate < :endDate " +
+            "AND m.entrySourceType <> com.inonu.stok_takip.Enum.EntrySourceType.DEVIR " +
+            "AND b.budgetName IS NOT NULL " +
+            "GROUP BY b.budgetName " +
+            "ORDER BY b.budgetName")
+    List<MaterialEntrySpendResponse> sumSpendByBudgetBetween(@Param("startDate") LocalDate startDate,
+                                                             @Param("endDate") LocalDate endDate);
+
+    // alım şekli ve ürün bazında adet, miktar, tutar ve son giriş tarihi tek sorguda toplanır
+    @Query("SELECT new com.inonu.stok_takip.dto.Response.MaterialEntryGroupRow(" +
+            "m.tenderType, p.id, p.name, c.name, mt.name, p.criticalLevel, p.vatAmount, " +
+            "COUNT(m), COALESCE(SUM(m.quantity), 0.0), COALESCE(SUM(m.totalPrice), 0.0), MAX(m.entryDate)) " +
+            "FROM MaterialEntry m " +
+            "JOIN m.product p " +
+            "LEFT JOIN p.category c " +
+            "LEFT JOIN p.measurementType mt " +
+            "WHERE m.entrySourceType <> :excludedType AND m.tenderType IS NOT NULL " +
+            "GROUP BY m.tenderType, p.id, p.name, c.name, mt.name, p.criticalLevel, p.vatAmount " +
+            "ORDER BY m.tenderType, p.name")
+    List<MaterialEntryGroupRow> findGroupedExcludingEntrySourceType(@Param("excludedType") EntrySourceType excludedType);
 
 }
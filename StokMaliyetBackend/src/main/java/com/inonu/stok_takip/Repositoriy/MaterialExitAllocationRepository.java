@@ -0,0 +1,21 @@
+package com.inonu.stok_takip.Repositoriy;
+
+import com.inonu.stok_takip.entitiy.MaterialExitAllocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface MaterialExitAllocationRepository extends JpaRepository<MaterialExitAllocation, Long> {
+
+    @Query("SELECT a FROM MaterialExitAllocation a JOIN FETCH a.materialEntry WHERE a.materialExit.id = :materialExitId ORDER BY a.id")
+    List<MaterialExitAllocation> findByMaterialExitId(@Param("materialExitId") Long materialExitId);
+
+    @Modifying
+    @Query("DELETE FROM MaterialExitAllocation a WHERE a.materialExit.id = :materialExitId")
+    int deleteByMaterialExitId(@Param("materialExitId") Long materialExitId);
+
+    boolean existsByMaterialEntryId(Long materialEntryId);
+}
@@ -0,0 +1,186 @@
+package com.inonu.stok_takip.Repositoriy;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+// toplu malzeme çıkışı için entity yüklemeden çalışan JDBC sorguları
+@Repository
+public class MaterialExitBatchRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public MaterialExitBatchRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // istenen tüm ürünlerin açık partileri tek IN sorgusuyla, ürün bazında FIFO sırasıyla.
+    // Satırlar transaction sonuna kadar kilitlenir, eşzamanlı bir çıkış commit edilmişse güncel miktar okunur;
+    // sıralı kilitlendiği için aynı ürünlere çıkış yapan iki istek birbirini kilitlemez
+    public List<OpenLotRow> findOpenLotsByProductIds(Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query("""
+                SELECT id, product_id, remaining_quantity, unit_price_including_vat
+                FROM material_entry
+                WHERE product_id IN (:productIds) AND remaining_quantity > 0
+                ORDER BY product_id, create_date NULLS FIRST, id
+                FOR UPDATE
+                """,
+                new MapSqlParameterSource("productIds", productIds),
+                (rs, rowNum) -> new OpenLotRow(
+                        rs.getLong("id"),
+                        rs.getLong("product_id"),
+                        rs.getDouble("remaining_quantity"),
+                        rs.getDouble("unit_price_including_vat")
+                ));
+    }
+
+    // FIFO dağıtımı tek sorguda: açık partiler kilitlenir, kümülatif toplamla ne kadar alınacağı bulunur,
+    // stok düşülür ve tüketilen maliyet katmanları döner. Yetersiz stokta dönen miktar istenenden az olur.
+    public List<ConsumedLayerRow> allocateFifo(Long productId, Double quantity) {
+        return jdbcTemplate.query("""
+                WITH locked AS (
+                    SELECT id, remaining_quantity, unit_price_including_vat, create_date
+                    FROM material_entry
+                    WHERE product_id = :productId AND remaining_quantity > 0
+                    ORDER BY create_date NULLS FIRST, id
+                    FOR UPDATE
+                ),
+                lots AS (
+                    SELECT id, remaining_quantity, unit_price_including_vat,
+                           SUM(remaining_quantity) OVER (
+                               ORDER BY create_date NULLS FIRST, id
+                               ROWS BETWEEN UNBOUNDED PRECEDING AND CURRENT ROW
+                           ) - remaining_quantity AS consumed_before
+                    FROM locked
+                ),
+                allocation AS (
+                    SELECT id, unit_price_including_vat,
+                           LEAST(remaining_quantity, :quantity - consumed_before) AS taken
+                    FROM lots
+                    WHERE consumed_before < :quantity
+                )
+                UPDATE material_entry m
+                SET remaining_quantity = m.remaining_quantity - a.taken, update_date = now()
+                FROM allocation a
+                WHERE m.id = a.id
+                RETURNING m.id, a.taken, a.unit_price_including_vat
+                """,
+                new MapSqlParameterSource()
+                        .addValue("productId", productId)
+                        .addValue("quantity", quantity),
+                (rs, rowNum) -> new ConsumedLayerRow(
+                        rs.getLong("id"),
+                        rs.getDouble("taken"),
+                        rs.getDouble("unit_price_including_vat")
+                ));
+    }
+
+    public void updateRemainingQuantities(Map<Long, Double> remainingQuantities) {
+        LocalDateTime now = LocalDateTime.now();
+        SqlParameterSource[] batch = remainingQuantities.entrySet().stream()
+                .map(entry -> new MapSqlParameterSource()
+                        .addValue("id", entry.getKey())
+                        .addValue("remainingQuantity", entry.getValue())
+                        .addValue("updateDate", now))
+                .toArray(SqlParameterSource[]::new);
+
+        jdbcTemplate.batchUpdate("""
+                UPDATE material_entry
+                SET remaining_quantity = :remainingQuantity, update_date = :updateDate
+                WHERE id = :id
+                """, batch);
+    }
+
+    // oluşan çıkış id'leri parti kayıtlarında kullanılmak üzere satır sırasıyla döner
+    public List<Long> insertMaterialExits(List<ExitRow> exits) {
+        LocalDateTime now = LocalDateTime.now();
+        SqlParameterSource[] batch = exits.stream()
+                .map(exit -> new MapSqlParameterSource()
+                        .addValue("productId", exit.productId())
+                        .addValue("unitPrice", exit.unitPrice())
+                        .addValue("quantity", exit.quantity())
+                        .addValue("totalPrice", exit.totalPrice())
+                        .addValue("exitDate", exit.exitDate())
+                        .addValue("recipient", exit.recipient())
+                        .addValue("description", exit.description())
+                        .addValue("createDate", now))
+                .toArray(SqlParameterSource[]::new);
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO material_exit
+                    (product_id, unit_price, quantity, total_price, exit_date, recipient, total_person, description, create_date)
+                VALUES
+                    (:productId, :unitPrice, :quantity, :totalPrice, :exitDate, :recipient, 0, :description, :createDate)
+                """, batch, keyHolder, new String[]{"id"});
+
+        return keyHolder.getKeyList().stream()
+                .map(keys -> ((Number) keys.get("id")).longValue())
+                .toList();
+    }
+
+    public void insertExitAllocations(List<AllocationRow> allocations) {
+        LocalDateTime now = LocalDateTime.now();
+        SqlParameterSource[] batch = allocations.stream()
+                .map(allocation -> new MapSqlParameterSource()
+                        .addValue("materialExitId", allocation.materialExitId())
+                        .addValue("materialEntryId", allocation.materialEntryId())
+                        .addValue("quantity", allocation.quantity())
+                        .addValue("unitPrice", allocation.unitPrice())
+                        .addValue("createDate", now))
+                .toArray(SqlParameterSource[]::new);
+
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO material_exit_allocation
+                    (material_exit_id, material_entry_id, quantity, unit_price, create_date)
+                VALUES
+                    (:materialExitId, :materialEntryId, :quantity, :unitPrice, :createDate)
+                """, batch);
+    }
+
+    public record OpenLotRow(
+            Long entryId,
+            Long productId,
+            double remainingQuantity,
+            double unitPriceIncludingVat
+    ) {
+    }
+
+    public record ConsumedLayerRow(
+            Long entryId,
+            double quantity,
+            double unitPriceIncludingVat
+    ) {
+    }
+
+    public record AllocationRow(
+            Long materialExitId,
+            Long materialEntryId,
+            double quantity,
+            double unitPrice
+    ) {
+    }
+
+    public record ExitRow(
+            Long productId,
+            double unitPrice,
+            double quantity,
+            double totalPrice,
+            LocalDate exitDate,
+            String recipient,
+            String description
+    ) {
+    }
+}
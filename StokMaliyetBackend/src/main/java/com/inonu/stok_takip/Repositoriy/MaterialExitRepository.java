@@ -1,6 +1,7 @@
 package com.inonu.stok_takip.Repositoriy;
 
 import com.inonu.stok_takip.entitiy.MaterialExit;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -13,79 +14,51 @@ public interface MaterialExitRepository extends JpaRepository<MaterialExit, Long
 
     List<MaterialExit> findByExitDateBetween(LocalDate startDate, LocalDate endDate);
 
-    // günlük yapılan yemek sayısı
-    @Query("""
-        SELECT MAX(t.totalPerson)
-        FROM MaterialExit t
-        WHERE t.exitDate = :date AND t.totalPerson > 0
-    """)
-    Integer findTotalPersonsByDay(@Param("date") LocalDate date);
-
-
-
-    // Haftalık yapılan yemek sayısı
-    @Query(value = """
-    SELECT SUM(daily_total) FROM (
-        SELECT DISTINCT ON (exit_date) total_person AS daily_total
-        FROM material_exit
-        WHERE total_person > 0
-          AND EXTRACT(WEEK FROM exit_date) = EXTRACT(WEEK FROM CAST(:date AS DATE))
-          AND EXTRACT(YEAR FROM exit_date) = EXTRACT(YEAR FROM CAST(:date AS DATE))
-        ORDER BY exit_date, id
-    ) AS daily_counts
-    """, nativeQuery = true)
-    Integer findTotalPersonsByWeek(@Param("date") LocalDate date);
-
-
-    // Aylık yapılan yemek sayısı
+    // (exitDate, id) üzerinde keyset sayfalama, en yeni çıkış ilk gelir; imleç boşsa ilk sayfa döner
+    // ürünün eager ilişkileri de aynı sorguda gelir, satır başına ek select atılmaz
+    @Query("SELECT m FROM MaterialExit m " +
+            "JOIN FETCH m.product p " +
+            "LEFT JOIN FETCH p.category " +
+            "LEFT JOIN FETCH p.measurementType " +
+            "WHERE m.exitDate IS NOT NULL " +
+            "AND (:productId IS NULL OR p.id = :productId) " +
+            "AND (:categoryId IS NULL OR p.category.id = :categoryId) " +
+            "AND (:startDate IS NULL OR m.exitDate >= :startDate) " +
+            "AND (:endDate IS NULL OR m.exitDate < :endDate) " +
+            "AND (:recipient IS NULL OR m.recipient = :recipient) " +
+            "AND (:cursorDate IS NULL OR m.exitDate < :cursorDate " +
+            "     OR (m.exitDate = :cursorDate AND m.id < :cursorId)) " +
+            "ORDER BY m.exitDate DESC, m.id DESC")
+    List<MaterialExit> findPage(@Param("productId") Long productId,
+                                @Param("categoryId") Long categoryId,
+                                @Param("startDate") LocalDate startDate,
+                                @Param("endDate") LocalDate endDate,
+                                @Param("recipient") String recipient,
+                                @Param("cursorDate") LocalDate cursorDate,
+                                @Param("cursorId") Long cursorId,
+                                Limit limit);
+
+    // [startDate, endDate) aralığında yapılan yemek sayısı; her gün için ilk çıkışın kişi sayısı alınır
+    // (daily_cost_fact.meal_count ile aynı kural). Gün, hafta, ay ve yıl sınırları DateRange ile hesaplanır,
+    // exit_date üzerinde aralık taraması yapılır
     @Query(value = """
     SELECT SUM(daily_total) FROM (
         SELECT DISTINCT ON (exit_date) total_person AS daily_total
         FROM material_exit
-        WHERE total_person > 0
-          AND EXTRACT(MONTH FROM exit_date) = EXTRACT(MONTH FROM CAST(:date AS DATE))
-          AND EXTRACT(YEAR FROM exit_date) = EXTRACT(YEAR FROM CAST(:date AS DATE))
+        WHERE exit_date >= :startDate AND exit_date < :endDate
+          AND total_person > 0
         ORDER BY exit_date, id
     ) AS daily_counts
     """, nativeQuery = true)
-    Integer findTotalPersonsByMonth(@Param("date") LocalDate date);
-
-
-    // yıllık bazdaa yapılan yemek sayısı
-    @Query(value = """
-        SELECT SUM(daily_total) FROM (
-            SELECT DISTINCT ON (exit_date) total_person AS daily_total
-            FROM material_exit
-            WHERE total_person > 0
-              AND EXTRACT(YEAR FROM exit_date) = EXTRACT(YEAR FROM CAST(:date AS DATE))
-            ORDER BY exit_date, id
-        ) AS daily_counts
-        """, nativeQuery = true)
-    Integer findTotalPersonsByYear(@Param("date") LocalDate date);
+    Integer findTotalPersonsBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
 
 
     // 1- Günlük, sadece temizlik harici toplam
     @Query("SELECT SUM(m.totalPrice) FROM MaterialExit m WHERE m.exitDate = :date AND m.product.category.name <> 'Temizlik'")
     Double findNonCleaningTotalByExitDate(@Param("date") LocalDate date);
-    // 4- Haftalık toplam (LocalDate parametresiyle - sadece hafta ve yılına bakar)
-    @Query(value = """
-        SELECT SUM(m.total_price) 
-        FROM material_exit m
-        WHERE EXTRACT(WEEK FROM m.exit_date) = EXTRACT(WEEK FROM CAST(:date AS DATE))
-        AND EXTRACT(YEAR FROM m.exit_date) = EXTRACT(YEAR FROM CAST(:date AS DATE))
-    """, nativeQuery = true)
-    Double findTotalByWeek(@Param("date") LocalDate date);
-
-
-    // 2- Aylık toplam (LocalDate parametresiyle - sadece ay ve yılına bakar)
-    @Query(value = "SELECT SUM(m.total_price) FROM material_exit m " +
-            "WHERE EXTRACT(MONTH FROM m.exit_date) = EXTRACT(MONTH FROM CAST(:date AS DATE)) " +
-            "AND EXTRACT(YEAR FROM m.exit_date) = EXTRACT(YEAR FROM CAST(:date AS DATE))", nativeQuery = true)
-    Double findTotalByMonth(@Param("date") LocalDate date);
-
-    // 3- Yıllık toplam (LocalDate parametresiyle - sadece yılına bakar)
-    @Query(value = "SELECT SUM(m.total_price) FROM material_exit m WHERE EXTRACT(YEAR FROM m.exit_date) = EXTRACT(YEAR FROM CAST(:date AS DATE))", nativeQuery = true)
-    Double findTotalByYear(@Param("date") LocalDate date);
+    // [startDate, endDate) aralığında depodan çıkan malzemelerin toplam tutarı
+    @Query("SELECT SUM(m.totalPrice) FROM MaterialExit m WHERE m.exitDate >= :startDate AND m.exitDate < :endDate")
+    Double findTotalBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
 
     @Query("SELECT t FROM MaterialExit t WHERE t.exitDate BETWEEN :startDate AND :endDate")
     List<MaterialExit> findByMaterialDateBetween(@Param("startDate") LocalDate startDate,
@@ -0,0 +1,112 @@
+package com.inonu.stok_takip.Repositoriy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+
+// dışa aktarım için satırlar JDBC imleciyle fetch-size kadar parça parça okunur, liste oluşturulmaz;
+// PostgreSQL imleci sadece transaction içinde açtığı için çağıran transaction içinde olmalı
+@Repository
+public class MaterialExportRepository {
+
+    private static final String MATERIAL_EXITS = """
+            SELECT e.id, e.exit_date, e.product_id, p.name AS product_name, c.name AS category_name,
+                   mt.name AS measurement_type_name, e.quantity, e.unit_price, e.total_price,
+                   e.recipient, e.total_person, e.description
+            FROM material_exit e
+            JOIN product p ON p.id = e.product_id
+            LEFT JOIN category c ON c.id = p.category_id
+            LEFT JOIN measurement_type mt ON mt.id = p.measurement_type_id
+            WHERE e.exit_date >= :startDate AND e.exit_date < :endDate
+            ORDER BY e.exit_date, e.id
+            """;
+
+    private static final String MATERIAL_ENTRIES = """
+            SELECT m.id, m.entry_date, m.product_id, p.name AS product_name, c.name AS category_name,
+                   mt.name AS measurement_type_name, m.entry_source_type, m.tender_type, m.quantity,
+                   m.remaining_quantity, m.unit_price, m.total_price, m.total_price_including_vat,
+                   m.company_name, b.budget_name, m.expiry_date, m.description
+            FROM material_entry m
+            JOIN product p ON p.id = m.product_id
+            LEFT JOIN category c ON c.id = p.category_id
+            LEFT JOIN measurement_type mt ON mt.id = p.measurement_type_id
+            LEFT JOIN budget b ON b.id = m.budget_id
+            WHERE m.entry_date >= :startDate AND m.entry_date < :endDate
+            ORDER BY m.entry_date, m.id
+            """;
+
+    // yıl içindeki devir, ihale, doğrudan temin (22/d) girişleri ve çıkışlar ürün bazında tek sorguda toplanır;
+    // devir, yıl başında DEVIR türüyle açılan girişlerden gelir. Satırlar kategori ve ürün adına göre sıralıdır
+    private static final String FINANCIAL_STATEMENT = """
+            WITH entries AS (
+                SELECT m.product_id,
+                       SUM(CASE WHEN m.entry_source_type = 'DEVIR' THEN m.quantity ELSE 0 END) AS carry_over_quantity,
+                       SUM(CASE WHEN m.entry_source_type = 'DEVIR' THEN m.quantity * m.unit_price_including_vat ELSE 0 END) AS carry_over_value,
+                       SUM(CASE WHEN m.entry_source_type = 'IHALE' THEN m.quantity ELSE 0 END) AS tender_quantity,
+                       SUM(CASE WHEN m.entry_source_type = 'IHALE' THEN m.quantity * m.unit_price_including_vat ELSE 0 END) AS tender_value,
+                       SUM(CASE WHEN m.entry_source_type = 'DOGRUDAN_TEMIN' THEN m.quantity ELSE 0 END) AS direct_quantity,
+                       SUM(CASE WHEN m.entry_source_type = 'DOGRUDAN_TEMIN' THEN m.quantity * m.unit_price_including_vat ELSE 0 END) AS direct_value
+                FROM material_entry m
+                WHERE m.entry_date >= :startDate AND m.entry_date < :endDate
+                GROUP BY m.product_id
+            ), exits AS (
+                SELECT e.product_id, SUM(e.quantity) AS exit_quantity, SUM(e.total_price) AS exit_value
+                FROM material_exit e
+                WHERE e.exit_date >= :startDate AND e.exit_date < :endDate
+                GROUP BY e.product_id
+            )
+            SELECT p.id AS product_id, p.name AS product_name, c.name AS category_name,
+                   mt.name AS measurement_type_name,
+                   COALESCE(en.carry_over_quantity, 0) AS carry_over_quantity,
+                   COALESCE(en.carry_over_value, 0) AS carry_over_value,
+                   COALESCE(en.tender_quantity, 0) AS tender_quantity,
+                   COALESCE(en.tender_value, 0) AS tender_value,
+                   COALESCE(en.direct_quantity, 0) AS direct_quantity,
+                   COALESCE(en.direct_value, 0) AS direct_value,
+                   COALESCE(ex.exit_quantity, 0) AS exit_quantity,
+                   COALESCE(ex.exit_value, 0) AS exit_value
+            FROM product p
+            LEFT JOIN entries en ON en.product_id = p.id
+            LEFT JOIN exits ex ON ex.product_id = p.id
+            LEFT JOIN category c ON c.id = p.category_id
+            LEFT JOIN measurement_type mt ON mt.id = p.measurement_type_id
+            WHERE en.product_id IS NOT NULL OR ex.product_id IS NOT NULL
+            ORDER BY c.name NULLS LAST, p.name, p.id
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    // paylaşılan JdbcTemplate'in ayarları bozulmasın diye fetch-size ile ayrı bir şablon kullanılır
+    public MaterialExportRepository(DataSource dataSource, @Value("${export.fetch-size:1000}") int fetchSize) {
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.setFetchSize(fetchSize);
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(template);
+    }
+
+    // [startDate, endDate) aralığındaki çıkışlar (exit_date, id) indeksi sırasıyla, sıralama beklemeden akar
+    public void streamMaterialExits(LocalDate startDate, LocalDate endDate, ResultSetExtractor<Void> extractor) {
+        jdbcTemplate.query(MATERIAL_EXITS, dateRange(startDate, endDate), extractor);
+    }
+
+    // [startDate, endDate) aralığındaki girişler (entry_date, id) indeksi sırasıyla, sıralama beklemeden akar
+    public void streamMaterialEntries(LocalDate startDate, LocalDate endDate, ResultSetExtractor<Void> extractor) {
+        jdbcTemplate.query(MATERIAL_ENTRIES, dateRange(startDate, endDate), extractor);
+    }
+
+    // [startDate, endDate) aralığının ürün bazında mali tablo satırları
+    public void streamFinancialStatement(LocalDate startDate, LocalDate endDate, ResultSetExtractor<Void> extractor) {
+        jdbcTemplate.query(FINANCIAL_STATEMENT, dateRange(startDate, endDate), extractor);
+    }
+
+    private MapSqlParameterSource dateRange(LocalDate startDate, LocalDate endDate) {
+        return new MapSqlParameterSource()
+                .addValue("startDate", startDate)
+                .addValue("endDate", endDate);
+    }
+}
@@ -1,7 +1,14 @@
 package com.inonu.stok_takip.Repositoriy;
 
 import com.inonu.stok_takip.entitiy.MeasurementType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.List;
 
 public interface MeasurementTypeRepository extends JpaRepository<MeasurementType, Long> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<MeasurementType> findAll();
 }
@@ -0,0 +1,111 @@
+package com.inonu.stok_takip.Repositoriy;
+
+import com.inonu.stok_takip.dto.Response.MaterialEntryProductsForMaterialExitResponse;
+import com.inonu.stok_takip.dto.Response.ProductStockDetailResponse;
+import com.inonu.stok_takip.entitiy.ProductStock;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+// native sorgulara etkilediği tablolar verilir; verilmezse Hibernate her çalıştırmada tüm ikinci seviye
+// önbelleği temizler ve bekleyen tüm kayıtları flush eder
+public interface ProductStockRepository extends JpaRepository<ProductStock, Long> {
+
+    // stok değişimi fark olarak uygulanır, ürünün satırı yoksa oluşturulur; eşzamanlı işlemler satır kilidinde sıraya girer
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "product_stock"))
+    @Query(value = "INSERT INTO product_stock (product_id, on_hand_quantity, on_hand_value, last_entry_date, create_date) " +
+            "VALUES (:productId, :quantity, :value, CAST(:entryDate AS date), now()) " +
+            "ON CONFLICT (product_id) DO UPDATE SET " +
+            "on_hand_quantity = product_stock.on_hand_quantity + EXCLUDED.on_hand_quantity, " +
+            "on_hand_value = product_stock.on_hand_value + EXCLUDED.on_hand_value, " +
+            "last_entry_date = GREATEST(product_stock.last_entry_date, EXCLUDED.last_entry_date), " +
+            "update_date = now()", nativeQuery = true)
+    int applyChange(@Param("productId") Long productId,
+                    @Param("quantity") Double quantity,
+                    @Param("value") Double value,
+                    @Param("entryDate") LocalDate entryDate);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "product_stock"))
+    @Query(value = "UPDATE product_stock SET on_hand_quantity = on_hand_quantity - :quantity, " +
+            "on_hand_value = on_hand_value - :value, update_date = now() WHERE product_id = :productId", nativeQuery = true)
+    int decrease(@Param("productId") Long productId,
+                 @Param("quantity") Double quantity,
+                 @Param("value") Double value);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "product_stock"))
+    @Query(value = "UPDATE product_stock SET last_entry_date = GREATEST(last_entry_date, :entryDate), update_date = now() " +
+            "WHERE product_id IN (:productIds)", nativeQuery = true)
+    int updateLastEntryDate(@Param("productIds") Collection<Long> productIds,
+                            @Param("entryDate") LocalDate entryDate);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "product_stock"))
+    @Query(value = "DELETE FROM product_stock WHERE product_id = :productId", nativeQuery = true)
+    int deleteByProductId(@Param("productId") Long productId);
+
+    // ürünün özeti giriş kayıtlarından yeniden hesaplanır, girişi kalmayan ürün için satır oluşmaz
+    @Modifying
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "product_stock"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "material_entry")})
+    @Query(value = "INSERT INTO product_stock (product_id, on_hand_quantity, on_hand_value, last_entry_date, create_date) " +
+            "SELECT product_id, COALESCE(SUM(remaining_quantity), 0), " +
+            "COALESCE(SUM(remaining_quantity * unit_price_including_vat), 0), MAX(entry_date), now() " +
+            "FROM material_entry WHERE product_id = :productId GROUP BY product_id", nativeQuery = true)
+    int insertFromEntries(@Param("productId") Long productId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "product_stock"))
+    @Query(value = "DELETE FROM product_stock", nativeQuery = true)
+    int deleteAllRows();
+
+    @Modifying
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "product_stock"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "material_entry")})
+    @Query(value = "INSERT INTO product_stock (product_id, on_hand_quantity, on_hand_value, last_entry_date, create_date) " +
+            "SELECT product_id, COALESCE(SUM(remaining_quantity), 0), " +
+            "COALESCE(SUM(remaining_quantity * unit_price_including_vat), 0), MAX(entry_date), now() " +
+            "FROM material_entry GROUP BY product_id", nativeQuery = true)
+    int insertAllFromEntries();
+
+    @Query("SELECT s.onHandQuantity FROM ProductStock s WHERE s.product.id = :productId")
+    Double findOnHandQuantityByProductId(@Param("productId") Long productId);
+
+    @Query("SELECT new com.inonu.stok_takip.dto.Response.MaterialEntryProductsForMaterialExitResponse(" +
+            "p.id, p.name, c.name, mt.name, s.onHandQuantity) " +
+            "FROM ProductStock s JOIN s.product p JOIN p.category c JOIN p.measurementType mt")
+    List<MaterialEntryProductsForMaterialExitResponse> findProductsForMaterialExit();
+
+    // tüm ürünler stok özetleriyle, özeti olmayan ürünler sıfır stokla döner
+    String PRODUCT_STOCK_DETAIL_QUERY = "SELECT new com.inonu.stok_takip.dto.Response.ProductStockDetailResponse(" +
+            "p.id, p.name, p.criticalLevel, COALESCE(mt.name, 'Adet'), COALESCE(c.name, 'Bilinmiyor'), " +
+            "COALESCE(s.onHandQuantity, 0.0), COALESCE(s.onHandValue, 0.0), " +
+            "CASE WHEN s.onHandQuantity > 0 THEN s.onHandValue / s.onHandQuantity ELSE 0.0 END, " +
+            "s.lastEntryDate) " +
+            "FROM Product p " +
+            "LEFT JOIN p.category c " +
+            "LEFT JOIN p.measurementType mt " +
+            "LEFT JOIN ProductStock s ON s.product = p " +
+            "ORDER BY p.name, p.id";
+
+    @Query(PRODUCT_STOCK_DETAIL_QUERY)
+    List<ProductStockDetailResponse> findAllProductStockDetails();
+
+    // satırlar imleçle okunur, çağıran transaction içinde kalmalı ve stream'i kapatmalı
+    @Query(PRODUCT_STOCK_DETAIL_QUERY)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<ProductStockDetailResponse> streamAllProductStockDetails();
+}
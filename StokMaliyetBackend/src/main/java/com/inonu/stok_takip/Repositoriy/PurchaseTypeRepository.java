@@ -1,8 +1,17 @@
 package com.inonu.stok_takip.Repositoriy;
 
 import com.inonu.stok_takip.entitiy.PurchaseType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.List;
 
 public interface PurchaseTypeRepository extends JpaRepository<PurchaseType, Long> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<PurchaseType> findAll();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     PurchaseType findByName(String name);
 }
@@ -2,8 +2,17 @@ package com.inonu.stok_takip.Repositoriy;
 
 import com.inonu.stok_takip.entitiy.PurchaseType;
 import com.inonu.stok_takip.entitiy.PurchasedUnit;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.List;
 
 public interface PurchasedUnitRepository extends JpaRepository<PurchasedUnit, Long> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<PurchasedUnit> findAll();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     PurchasedUnit findByName(String name);
 }
@@ -2,8 +2,17 @@ package com.inonu.stok_takip.Repositoriy;
 
 import com.inonu.stok_takip.entitiy.Category;
 import com.inonu.stok_takip.entitiy.Refectory;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.List;
 
 public interface RefectoryRepository extends JpaRepository<Refectory,Long> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Refectory> findAll();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Refectory findByName(String name);
 }
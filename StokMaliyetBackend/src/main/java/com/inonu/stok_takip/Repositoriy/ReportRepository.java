@@ -2,15 +2,88 @@ package com.inonu.stok_takip.Repositoriy;
 
 import com.inonu.stok_takip.Enum.ReportType;
 import com.inonu.stok_takip.entitiy.Report;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 public interface ReportRepository extends JpaRepository<Report, Long> {
+    // kapanmış dönemlerin dondurulmuş raporları dönemin ilk günüyle saklanır
     Optional<Report> findByReportCreateDateAndReportType(LocalDate reportCreateDate, ReportType reportType);
     List<Report> findByReportCreateDateBetween(LocalDate startDate, LocalDate endDate);
     List<Report> findByReportType(ReportType reportType);
     List<Report> findByReportCreateDateBetweenAndReportType(LocalDate startDate, LocalDate endDate, ReportType reportType);
+
+    // değişikliği yapan transaction'a katılır, silme onunla birlikte commit edilir
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Report r WHERE r.reportCreateDate = :startDate AND r.reportType = :reportType")
+    void deletePeriodReports(@Param("startDate") LocalDate startDate, @Param("reportType") ReportType reportType);
+
+    // rapor (tür, tarih) başına tek satırdır; kuyruk ve toplu yeniden hesaplama aynı günü aynı anda yazsa da
+    // ikinci satır oluşmaz. Günlük rapor hesaplandığı günlük özet satırının damgasıyla yazılır, daha eski
+    // özetten hesaplanan sonuç yenisinin üzerine yazılmaz
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "report"))
+    @Query(value = """
+            INSERT INTO report (report_type, report_create_date, ticket_quantity, total_ticket_price,
+                                total_person_quantity, total_material_price, total_clean_price,
+                                average_person_cost, average_ticket_cost, leftover_meal_count,
+                                fact_update_date, create_date)
+            VALUES (:#{#report.reportType.name()}, :#{#report.reportCreateDate}, :#{#report.ticketQuantity},
+                    :#{#report.totalTicketPrice}, :#{#report.totalPersonQuantity}, :#{#report.totalMaterialPrice},
+                    :#{#report.totalCleanPrice}, :#{#report.averagePersonCost}, :#{#report.averageTicketCost},
+                    :#{#report.leftoverMealCount}, CAST(:#{#report.factUpdateDate} AS timestamp), now())
+            ON CONFLICT (report_type, report_create_date) DO UPDATE SET
+                ticket_quantity = EXCLUDED.ticket_quantity,
+                total_ticket_price = EXCLUDED.total_ticket_price,
+                total_person_quantity = EXCLUDED.total_person_quantity,
+                total_material_price = EXCLUDED.total_material_price,
+                total_clean_price = EXCLUDED.total_clean_price,
+                average_person_cost = EXCLUDED.average_person_cost,
+                average_ticket_cost = EXCLUDED.average_ticket_cost,
+                leftover_meal_count = EXCLUDED.leftover_meal_count,
+                fact_update_date = EXCLUDED.fact_update_date,
+                update_date = now()
+            WHERE report.fact_update_date IS NULL OR report.fact_update_date <= EXCLUDED.fact_update_date
+            """, nativeQuery = true)
+    void upsert(@Param("report") Report report);
+
+    // verisi kalmayan günün raporu silinir; daha yeni bir özetten hesaplanmış rapor silinmez
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "report"))
+    @Query(value = """
+            DELETE FROM report
+            WHERE report_type = 'DAILY' AND report_create_date = :date
+              AND (CAST(:factUpdateDate AS timestamp) IS NULL OR fact_update_date IS NULL
+                   OR fact_update_date <= CAST(:factUpdateDate AS timestamp))
+            """, nativeQuery = true)
+    void deleteDailyReport(@Param("date") LocalDate date, @Param("factUpdateDate") LocalDateTime factUpdateDate);
+
+    // çıkış veya fiş kaydı olan günlerden günlük raporu hiç oluşmamış ya da günlük özet satırı raporun
+    // hesaplandığı sürümden sonra değişmiş olanlar; iki damga da aynı satırdan geldiği için saat farkı olmaz.
+    // force verilirse kaydı olan tüm günler döner
+    @Query("""
+            SELECT f.factDate FROM DailyCostFact f
+            LEFT JOIN Report r ON r.reportCreateDate = f.factDate
+                              AND r.reportType = com.inonu.stok_takip.Enum.ReportType.DAILY
+            WHERE f.factDate BETWEEN :startDate AND :endDate
+              AND (:force = true OR r.id IS NULL OR r.factUpdateDate IS NULL
+                   OR r.factUpdateDate <> COALESCE(f.updateDate, f.createDate))
+            ORDER BY f.factDate
+            """)
+    List<LocalDate> findDatesNeedingDailyReport(@Param("startDate") LocalDate startDate,
+                                                @Param("endDate") LocalDate endDate,
+                                                @Param("force") boolean force);
 }
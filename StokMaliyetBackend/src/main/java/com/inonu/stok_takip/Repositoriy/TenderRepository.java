@@ -1,12 +1,54 @@
 package com.inonu.stok_takip.Repositoriy;
 
 import com.inonu.stok_takip.entitiy.Tender;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
 import java.util.List;
 
 public interface TenderRepository extends JpaRepository<Tender, Long> {
 
     List<Tender> findTenderByActiveTrue();
 
+    // (startDate, id) üzerinde keyset sayfalama, en yeni ihale ilk gelir; cevapta kullanılan ilişkiler tek sorguda gelir
+    @Query("SELECT t FROM Tender t " +
+            "JOIN FETCH t.product p " +
+            "LEFT JOIN FETCH p.measurementType " +
+            "LEFT JOIN FETCH p.category " +
+            "LEFT JOIN FETCH t.purchasedUnit " +
+            "LEFT JOIN FETCH t.purchaseType " +
+            "WHERE t.startDate IS NOT NULL " +
+            "AND (:productId IS NULL OR p.id = :productId) " +
+            "AND (:categoryId IS NULL OR p.category.id = :categoryId) " +
+            "AND (:startDate IS NULL OR t.startDate >= :startDate) " +
+            "AND (:endDate IS NULL OR t.startDate < :endDate) " +
+            "AND (:cursorDate IS NULL OR t.startDate < :cursorDate " +
+            "     OR (t.startDate = :cursorDate AND t.id < :cursorId)) " +
+            "ORDER BY t.startDate DESC, t.id DESC")
+    List<Tender> findPage(@Param("productId") Long productId,
+                          @Param("categoryId") Long categoryId,
+                          @Param("startDate") LocalDate startDate,
+                          @Param("endDate") LocalDate endDate,
+                          @Param("cursorDate") LocalDate cursorDate,
+                          @Param("cursorId") Long cursorId,
+                          Limit limit);
+
+    boolean existsByActiveTrue();
+
+    // süresi dolan aktif ihaleler tek sorguda pasife çekilir (active, end_date) indeksi kullanılır
+    @Modifying
+    @Query("UPDATE Tender t SET t.active = false, t.updateDate = LOCAL DATETIME WHERE t.active = true AND t.endDate < :today")
+    int deactivateExpired(@Param("today") LocalDate today);
+
+    @Modifying
+    @Query("UPDATE Tender t SET t.active = false, t.updateDate = LOCAL DATETIME WHERE t.active = true")
+    int deactivateAllActive();
+
+    @Query("SELECT MIN(t.endDate) FROM Tender t WHERE t.active = true")
+    LocalDate findEarliestActiveEndDate();
+
 }
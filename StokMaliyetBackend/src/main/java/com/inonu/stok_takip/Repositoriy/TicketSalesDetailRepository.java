@@ -1,7 +1,9 @@
 package com.inonu.stok_takip.Repositoriy;
 
 
+import com.inonu.stok_takip.dto.Response.DailyTicketTotals;
 import com.inonu.stok_takip.entitiy.TicketSalesDetail;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -18,24 +20,32 @@ public interface TicketSalesDetailRepository extends JpaRepository<TicketSalesDe
     List<TicketSalesDetail> findBySaleDateBetween(@Param("startDate") LocalDate startDate,
                                                   @Param("endDate") LocalDate endDate);
 
+    @Query("SELECT new com.inonu.stok_takip.dto.Response.DailyTicketTotals(" +
+            "COALESCE(SUM(t.quantity), 0L), COALESCE(SUM(t.totalPrice), 0.0)) " +
+            "FROM TicketSalesDetail t WHERE t.ticketDate = :date")
+    DailyTicketTotals findDailyTotals(@Param("date") LocalDate date);
+
+    // (ticketDate, id) üzerinde keyset sayfalama, en yeni kayıt ilk gelir; imleç boşsa ilk sayfa döner
+    @Query("SELECT t FROM TicketSalesDetail t JOIN FETCH t.ticketType " +
+            "WHERE t.ticketDate IS NOT NULL " +
+            "AND (:startDate IS NULL OR t.ticketDate >= :startDate) " +
+            "AND (:endDate IS NULL OR t.ticketDate < :endDate) " +
+            "AND (:cursorDate IS NULL OR t.ticketDate < :cursorDate " +
+            "     OR (t.ticketDate = :cursorDate AND t.id < :cursorId)) " +
+            "ORDER BY t.ticketDate DESC, t.id DESC")
+    List<TicketSalesDetail> findPage(@Param("startDate") LocalDate startDate,
+                                     @Param("endDate") LocalDate endDate,
+                                     @Param("cursorDate") LocalDate cursorDate,
+                                     @Param("cursorId") Long cursorId,
+                                     Limit limit);
+
 
     @Query("SELECT SUM(t.quantity) FROM TicketSalesDetail t WHERE t.ticketDate = :ticketDate")
     Integer findTotalTicketSalesByDate(@Param("ticketDate") LocalDate ticketDate);
 
-    @Query(value = """
-        SELECT SUM(tsd.quantity) 
-        FROM ticket_sales_detail tsd
-        WHERE EXTRACT(WEEK FROM tsd.ticket_date) = EXTRACT(WEEK FROM CAST(:date AS DATE))
-        AND EXTRACT(YEAR FROM tsd.ticket_date) = EXTRACT(YEAR FROM CAST(:date AS DATE))
-    """, nativeQuery = true)
-    Integer findTotalTicketSalesByWeek(@Param("date") LocalDate date);
-
-
-    @Query("SELECT SUM(t.quantity) FROM TicketSalesDetail t WHERE EXTRACT(MONTH FROM t.ticketDate) = EXTRACT(MONTH FROM CAST(:date AS DATE)) AND EXTRACT(YEAR FROM t.ticketDate) = EXTRACT(YEAR FROM CAST(:date AS DATE))")
-    Integer findTotalTicketSalesByMonth(@Param("date") LocalDate date);
-
-    @Query("SELECT SUM(t.quantity) FROM TicketSalesDetail t WHERE EXTRACT(YEAR FROM t.ticketDate) = EXTRACT(YEAR FROM CAST(:date AS DATE))")
-    Integer findTotalTicketSalesByYear(@Param("date") LocalDate date);
+    // [startDate, endDate) aralığında satılan fiş sayısı
+    @Query("SELECT SUM(t.quantity) FROM TicketSalesDetail t WHERE t.ticketDate >= :startDate AND t.ticketDate < :endDate")
+    Integer findTotalTicketSalesBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
 
 
     // bundan sonrası bilet tutarları
@@ -43,20 +53,9 @@ public interface TicketSalesDetailRepository extends JpaRepository<TicketSalesDe
     @Query("SELECT SUM(t.totalPrice) FROM TicketSalesDetail t WHERE t.ticketDate = :ticketDate")
     Double findTotalTicketSalesAmountByDate(@Param("ticketDate") LocalDate ticketDate);
 
-    @Query(value = """
-        SELECT SUM(tsd.total_price) 
-        FROM ticket_sales_detail tsd
-        WHERE EXTRACT(WEEK FROM tsd.ticket_date) = EXTRACT(WEEK FROM CAST(:date AS DATE))
-        AND EXTRACT(YEAR FROM tsd.ticket_date) = EXTRACT(YEAR FROM CAST(:date AS DATE))
-    """, nativeQuery = true)
-    Double findTotalTicketSalesAmountByWeek(@Param("date") LocalDate date);
-
-    @Query("SELECT SUM(t.totalPrice) FROM TicketSalesDetail t WHERE EXTRACT(MONTH FROM t.ticketDate) = EXTRACT(MONTH FROM CAST(:date AS DATE)) AND EXTRACT(YEAR FROM t.ticketDate) = EXTRACT(YEAR FROM CAST(:date AS DATE))")
-    Double findTotalTicketSalesAmountByMonth(@Param("date") LocalDate date);
-
-
-    @Query("SELECT SUM(t.totalPrice) FROM TicketSalesDetail t WHERE EXTRACT(YEAR FROM t.ticketDate) = EXTRACT(YEAR FROM CAST(:date AS DATE))")
-    Double findTotalTicketSalesAmountByYear(@Param("date") LocalDate date);
+    // [startDate, endDate) aralığında satılan fişlerin toplam tutarı
+    @Query("SELECT SUM(t.totalPrice) FROM TicketSalesDetail t WHERE t.ticketDate >= :startDate AND t.ticketDate < :endDate")
+    Double findTotalTicketSalesAmountBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
 
     // Belirli bir tarih için tüm fiş kayıtlarını getir
     List<TicketSalesDetail> findByTicketDate(LocalDate ticketDate);
@@ -0,0 +1,9 @@
+package com.inonu.stok_takip.Service;
+
+import com.inonu.stok_takip.dto.Response.CarryOverResponse;
+
+public interface CarryOverService {
+
+    // yılın kalan miktarı olan girişlerini ertesi yılın ilk gününe DEVIR girişi olarak taşır
+    CarryOverResponse carryOverEntriesToNextYear(Integer year, boolean dryRun);
+}
@@ -0,0 +1,10 @@
+package com.inonu.stok_takip.Service;
+
+// ihale ve doğrudan teminlerin süre dolumunu, aktif sözleşmelerin en erken bitiş tarihine göre planlar
+public interface ContractExpiryService {
+
+    void expireContracts();
+
+    // sözleşme eklendiğinde veya bitiş tarihi değiştiğinde bir sonraki çalışma zamanı yeniden hesaplanır
+    void rescheduleExpiry();
+}
@@ -0,0 +1,24 @@
+package com.inonu.stok_takip.Service;
+
+import com.inonu.stok_takip.dto.Response.PeriodCostTotals;
+import com.inonu.stok_takip.entitiy.DailyCostFact;
+import com.inonu.stok_takip.util.DateRange;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// gün başına maliyet özeti (daily_cost_fact), çıkış ve fiş değişikliklerinde çağıran işlemin transaction'ı içinde güncellenir
+public interface DailyCostFactService {
+
+    // günün satırı ham çıkış ve fiş kayıtlarından yeniden hesaplanır
+    void refresh(LocalDate date);
+    void rebuildAll();
+
+    // günün commit edilmiş satırı (o gün hiç kayıt yoksa null)
+    DailyCostFact findByDate(LocalDate date);
+
+    PeriodCostTotals getTotals(DateRange range);
+
+    // aralıkları kapsayan günler tek sorguyla okunur ve her aralığın toplamı aynı sırayla döner
+    List<PeriodCostTotals> getTotals(List<DateRange> ranges);
+}
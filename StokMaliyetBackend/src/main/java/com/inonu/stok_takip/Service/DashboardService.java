@@ -1,5 +1,8 @@
 package com.inonu.stok_takip.Service;
 
+import com.inonu.stok_takip.dto.Response.DashboardStatsTimingResponse;
+
+import java.util.List;
 import java.util.Map;
 
 public interface DashboardService {
@@ -7,6 +10,10 @@ public interface DashboardService {
     Map<String, Object> getYemekhaneStats();
     Map<String, Object> getDepoStats();
     Map<String, Object> getSatinalmaStats();
-}
 
+    // stok ve fiş yazan işlemler commit edildikten sonra ilgili anlık görüntüleri düşürür
+    void invalidateStockStats();
+    void invalidateTicketStats();
 
+    List<DashboardStatsTimingResponse> getStatsTimings();
+}
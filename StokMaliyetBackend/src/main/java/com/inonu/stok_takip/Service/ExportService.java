@@ -0,0 +1,20 @@
+package com.inonu.stok_takip.Service;
+
+import com.inonu.stok_takip.Enum.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+// tarih aralığındaki giriş/çıkış kayıtlarını bellekte liste kurmadan satır satır yazar, bitiş tarihi dahildir
+public interface ExportService {
+
+    void validateRange(LocalDate startDate, LocalDate endDate);
+
+    void writeMaterialExits(LocalDate startDate, LocalDate endDate, ExportFormat format, OutputStream outputStream) throws IOException;
+
+    void writeMaterialEntries(LocalDate startDate, LocalDate endDate, ExportFormat format, OutputStream outputStream) throws IOException;
+
+    // yılın mali tablosu (devir, alımlar, çıkan ve kalan) kategori ve ürün bazında xlsx olarak yazılır
+    void writeFinancialStatement(int year, OutputStream outputStream) throws IOException;
+}
@@ -0,0 +1,198 @@
+package com.inonu.stok_takip.Service.Impl;
+
+import com.inonu.stok_takip.Repositoriy.CarryOverBatchRepository;
+import com.inonu.stok_takip.Repositoriy.CarryOverBatchRepository.CarryOverLotRow;
+import com.inonu.stok_takip.Repositoriy.CarryOverCheckpointRepository;
+import com.inonu.stok_takip.Service.CarryOverService;
+import com.inonu.stok_takip.Service.ProductStockService;
+import com.inonu.stok_takip.Service.ReportService;
+import com.inonu.stok_takip.Service.StockLedgerService;
+import com.inonu.stok_takip.dto.Response.CarryOverChunkResponse;
+import com.inonu.stok_takip.dto.Response.CarryOverLotResponse;
+import com.inonu.stok_takip.dto.Response.CarryOverResponse;
+import com.inonu.stok_takip.entitiy.CarryOverCheckpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// devir tek bir uzun transaction yerine id sırasıyla parçalar halinde yapılır. Her parça kendi transaction'ında
+// sadece kendi girişlerini kilitler, DEVIR girişlerini JDBC batch ile ekler ve checkpoint'i ilerletir
+@Service
+public class CarryOverServiceImpl implements CarryOverService {
+
+    private static final Logger log = LoggerFactory.getLogger(CarryOverServiceImpl.class);
+
+    private final CarryOverBatchRepository carryOverBatchRepository;
+    private final CarryOverCheckpointRepository carryOverCheckpointRepository;
+    private final ProductStockService productStockService;
+    private final StockLedgerService stockLedgerService;
+    private final ReportService reportService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${carry-over.chunk-size:500}")
+    private int chunkSize;
+
+    public CarryOverServiceImpl(CarryOverBatchRepository carryOverBatchRepository,
+                                CarryOverCheckpointRepository carryOverCheckpointRepository,
+                                ProductStockService productStockService,
+                                StockLedgerService stockLedgerService,
+                                ReportService reportService,
+                                PlatformTransactionManager transactionManager) {
+        this.carryOverBatchRepository = carryOverBatchRepository;
+        this.carryOverCheckpointRepository = carryOverCheckpointRepository;
+        this.productStockService = productStockService;
+        this.stockLedgerService = stockLedgerService;
+        this.reportService = reportService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Her yıl 31 Aralık 23:59'da çalışır
+    @Scheduled(cron = "0 59 23 31 12 ?")
+    public void scheduledCarryOver() {
+        carryOverEntriesToNextYear(LocalDate.now().getYear(), false);
+    }
+
+    // yarıda kalmış (uygulama çökmüş veya kapanmış) devir işleri açılışta kaldığı yerden tamamlanır
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinishedCarryOvers() {
+        for (CarryOverCheckpoint checkpoint : carryOverCheckpointRepository.findByCompletedFalse()) {
+            log.info("Yarıda kalan devir işine devam ediliyor: {}", checkpoint.getCarryOverYear());
+            carryOverEntriesToNextYear(checkpoint.getCarryOverYear(), false);
+        }
+    }
+
+    @Override
+    public CarryOverResponse carryOverEntriesToNextYear(Integer year, boolean dryRun) {
+        LocalDate startDate = LocalDate.of(year, 1, 1);
+        LocalDate endDate = LocalDate.of(year, 12, 31);
+        LocalDate nextYearFirstDay = LocalDate.of(year + 1, 1, 1);
+
+        long jobStart = System.nanoTime();
+        List<CarryOverChunkResponse> chunks = new ArrayList<>();
+        List<CarryOverLotResponse> lots = new ArrayList<>();
+        int lotCount = 0;
+        double totalQuantity = 0.0;
+        double totalValue = 0.0;
+
+        if (dryRun) {
+            Long afterId = 0L;
+            while (true) {
+                long chunkStart = System.nanoTime();
+                List<CarryOverLotRow> chunk = carryOverBatchRepository.findOpenLotsChunk(startDate, endDate, afterId, chunkSize);
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                for (CarryOverLotRow lot : chunk) {
+                    double value = lot.remainingQuantity() * lot.unitPriceIncludingVat();
+                    lots.add(new CarryOverLotResponse(lot.entryId(), lot.productId(), lot.remainingQuantity(),
+                            lot.unitPriceIncludingVat(), value));
+                    totalQuantity += lot.remainingQuantity();
+                    totalValue += value;
+                }
+                lotCount += chunk.size();
+                afterId = chunk.get(chunk.size() - 1).entryId();
+                chunks.add(toChunkResponse(chunks.size() + 1, chunk, chunkStart));
+            }
+            return new CarryOverResponse(year, true, lotCount, totalQuantity, totalValue,
+                    elapsedMillis(jobStart), chunks, lots);
+        }
+
+        CarryOverCheckpoint checkpoint = transactionTemplate.execute(status -> findOrCreateCheckpoint(year));
+
+        while (!Boolean.TRUE.equals(checkpoint.getCompleted())) {
+            long chunkStart = System.nanoTime();
+            Long checkpointId = checkpoint.getId();
+            ChunkResult result = transactionTemplate.execute(status ->
+                    carryOverChunk(checkpointId, startDate, endDate, nextYearFirstDay));
+
+            checkpoint = result.checkpoint();
+            if (!result.lots().isEmpty()) {
+                CarryOverChunkResponse chunkResponse = toChunkResponse(chunks.size() + 1, result.lots(), chunkStart);
+                chunks.add(chunkResponse);
+                log.debug("Devir {} parça {}: {} giriş, {} ms", year, chunkResponse.chunkNumber(),
+                        chunkResponse.lotCount(), chunkResponse.elapsedMillis());
+            }
+        }
+
+        // yılın haftalık, aylık ve yıllık raporları bundan sonra dondurulur
+        reportService.closeYear(year);
+
+        log.info("Devir {} tamamlandı: {} giriş, {} parça, {} ms", year, checkpoint.getCarriedLotCount(),
+                chunks.size(), elapsedMillis(jobStart));
+
+        // toplamlar checkpoint'ten alınır, böylece devam ettirilen işte önceki çalıştırmanın parçaları da sayılır
+        return new CarryOverResponse(year, false, checkpoint.getCarriedLotCount(), checkpoint.getCarriedQuantity(),
+                checkpoint.getCarriedValue(), elapsedMillis(jobStart), chunks, List.of());
+    }
+
+    private CarryOverCheckpoint findOrCreateCheckpoint(Integer year) {
+        return carryOverCheckpointRepository.findByCarryOverYear(year).orElseGet(() -> {
+            CarryOverCheckpoint checkpoint = new CarryOverCheckpoint();
+            checkpoint.setCarryOverYear(year);
+            checkpoint.setLastEntryId(0L);
+            checkpoint.setCarriedLotCount(0);
+            checkpoint.setCarriedQuantity(0.0);
+            checkpoint.setCarriedValue(0.0);
+            checkpoint.setCompleted(false);
+            return carryOverCheckpointRepository.save(checkpoint);
+        });
+    }
+
+    private ChunkResult carryOverChunk(Long checkpointId, LocalDate startDate, LocalDate endDate, LocalDate nextYearFirstDay) {
+        // checkpoint kilitlenerek okunur; başka bir çalıştırma beklerken işi bitirdiyse tekrar yazılmaz
+        CarryOverCheckpoint checkpoint = carryOverCheckpointRepository.findByIdForUpdate(checkpointId).orElseThrow();
+        if (Boolean.TRUE.equals(checkpoint.getCompleted())) {
+            return new ChunkResult(checkpoint, List.of());
+        }
+
+        List<CarryOverLotRow> chunk = carryOverBatchRepository.lockOpenLotsChunk(
+                startDate, endDate, checkpoint.getLastEntryId(), chunkSize);
+
+        if (chunk.isEmpty()) {
+            checkpoint.setCompleted(true);
+            return new ChunkResult(carryOverCheckpointRepository.save(checkpoint), chunk);
+        }
+
+        carryOverBatchRepository.insertCarryOverEntries(chunk, nextYearFirstDay);
+        carryOverBatchRepository.closeLots(chunk.stream().map(CarryOverLotRow::entryId).toList());
+
+        // devreden miktar aynı birim fiyatla yeni girişe taşındığı için stok özetinde sadece son giriş tarihi değişir
+        Set<Long> productIds = chunk.stream().map(CarryOverLotRow::productId).collect(Collectors.toSet());
+        productStockService.recordEntryDate(productIds, nextYearFirstDay);
+        // açık partiler yenileriyle değiştiği için bu ürünler commit sonrası defterden yeniden yüklenir
+        productIds.forEach(stockLedgerService::invalidate);
+
+        double chunkQuantity = chunk.stream().mapToDouble(CarryOverLotRow::remainingQuantity).sum();
+        double chunkValue = chunk.stream().mapToDouble(lot -> lot.remainingQuantity() * lot.unitPriceIncludingVat()).sum();
+
+        checkpoint.setLastEntryId(chunk.get(chunk.size() - 1).entryId());
+        checkpoint.setCarriedLotCount(checkpoint.getCarriedLotCount() + chunk.size());
+        checkpoint.setCarriedQuantity(checkpoint.getCarriedQuantity() + chunkQuantity);
+        checkpoint.setCarriedValue(checkpoint.getCarriedValue() + chunkValue);
+        return new ChunkResult(carryOverCheckpointRepository.save(checkpoint), chunk);
+    }
+
+    private CarryOverChunkResponse toChunkResponse(int chunkNumber, List<CarryOverLotRow> chunk, long chunkStart) {
+        return new CarryOverChunkResponse(chunkNumber, chunk.size(), chunk.get(0).entryId(),
+                chunk.get(chunk.size() - 1).entryId(), elapsedMillis(chunkStart));
+    }
+
+    private long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    private record ChunkResult(CarryOverCheckpoint checkpoint, List<CarryOverLotRow> lots) {
+    }
+}
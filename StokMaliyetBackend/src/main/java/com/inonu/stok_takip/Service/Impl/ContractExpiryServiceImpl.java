@@ -0,0 +1,134 @@
+package com.inonu.stok_takip.Service.Impl;
+
+import com.inonu.stok_takip.Repositoriy.DirectProcurementRepository;
+import com.inonu.stok_takip.Repositoriy.TenderRepository;
+import com.inonu.stok_takip.Service.ContractExpiryService;
+import com.inonu.stok_takip.Service.DirectProcurementService;
+import com.inonu.stok_takip.Service.TenderService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.concurrent.ScheduledFuture;
+
+// her saat tüm tabloları taramak yerine bir sonraki süre dolum anı hesaplanır ve sadece o an için iş planlanır.
+// Bitiş tarihi bugünden önce olan sözleşme pasife çekildiği için, bitiş tarihi X olan sözleşme X+1 günü 00:00'da düşer;
+// 31 Aralık'ta ise tüm aktif sözleşmeler kapatılır
+@Service
+public class ContractExpiryServiceImpl implements ContractExpiryService {
+
+    private static final Logger log = LoggerFactory.getLogger(ContractExpiryServiceImpl.class);
+
+    private static final Duration RETRY_DELAY = Duration.ofHours(1);
+
+    private final TenderService tenderService;
+    private final DirectProcurementService directProcurementService;
+    private final TenderRepository tenderRepository;
+    private final DirectProcurementRepository directProcurementRepository;
+    private final TaskScheduler taskScheduler;
+
+    private ScheduledFuture<?> nextRun;
+
+    public ContractExpiryServiceImpl(TenderService tenderService,
+                                     DirectProcurementService directProcurementService,
+                                     TenderRepository tenderRepository,
+                                     DirectProcurementRepository directProcurementRepository,
+                                     TaskScheduler taskScheduler) {
+        this.tenderService = tenderService;
+        this.directProcurementService = directProcurementService;
+        this.tenderRepository = tenderRepository;
+        this.directProcurementRepository = directProcurementRepository;
+        this.taskScheduler = taskScheduler;
+    }
+
+    // uygulama kapalıyken süresi dolanlar açılışta hemen işlenir
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        expireContracts();
+    }
+
+    @Override
+    public void expireContracts() {
+        try {
+            tenderService.handleTendersAtYearEnd();
+            directProcurementService.handleDirectProcurementsAtYearEnd();
+            scheduleNextRun();
+        } catch (Exception e) {
+            // hata durumunda hemen tekrar denenmez, eski saatlik davranış gibi bir saat sonra tekrar çalışır
+            log.error("Süresi dolan sözleşmeler pasife çekilirken hata", e);
+            scheduleAt(Instant.now().plus(RETRY_DELAY));
+        }
+    }
+
+    // çağıran işlem commit edildikten sonra hesaplanır, böylece yeni bitiş tarihi sorguda görünür
+    @Override
+    public void rescheduleExpiry() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    scheduleNextRun();
+                }
+            });
+        } else {
+            scheduleNextRun();
+        }
+    }
+
+    private synchronized void scheduleNextRun() {
+        if (nextRun != null) {
+            nextRun.cancel(false);
+            nextRun = null;
+        }
+
+        LocalDate nextDueDate = findNextDueDate();
+        if (nextDueDate == null) {
+            return; // aktif sözleşme yok, yeni sözleşme eklendiğinde yeniden planlanır
+        }
+
+        Instant runAt = nextDueDate.atStartOfDay(ZoneId.systemDefault()).toInstant();
+        if (runAt.isBefore(Instant.now())) {
+            runAt = Instant.now();
+        }
+        nextRun = taskScheduler.schedule(this::expireContracts, runAt);
+    }
+
+    private synchronized void scheduleAt(Instant runAt) {
+        if (nextRun != null) {
+            nextRun.cancel(false);
+        }
+        nextRun = taskScheduler.schedule(this::expireContracts, runAt);
+    }
+
+    private LocalDate findNextDueDate() {
+        boolean hasActiveContract = tenderRepository.existsByActiveTrue() || directProcurementRepository.existsByActiveTrue();
+        if (!hasActiveContract) {
+            return null;
+        }
+
+        // aktif sözleşme varken en geç bu yılın 31 Aralık'ında çalışılır
+        LocalDate today = LocalDate.now();
+        LocalDate nextDueDate = LocalDate.of(today.getYear(), 12, 31);
+
+        nextDueDate = earlier(nextDueDate, tenderRepository.findEarliestActiveEndDate());
+        nextDueDate = earlier(nextDueDate, directProcurementRepository.findEarliestActiveEndDate());
+        return nextDueDate;
+    }
+
+    private LocalDate earlier(LocalDate nextDueDate, LocalDate earliestEndDate) {
+        if (earliestEndDate == null) {
+            return nextDueDate;
+        }
+        LocalDate expiryDate = earliestEndDate.plusDays(1);
+        return expiryDate.isBefore(nextDueDate) ? expiryDate : nextDueDate;
+    }
+}
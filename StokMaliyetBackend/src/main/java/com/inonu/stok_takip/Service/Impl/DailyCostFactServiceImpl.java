@@ -0,0 +1,125 @@
+package com.inonu.stok_takip.Service.Impl;
+
+import com.inonu.stok_takip.Repositoriy.DailyCostFactRepository;
+import com.inonu.stok_takip.Service.DailyCostFactService;
+import com.inonu.stok_takip.Service.ReportService;
+import com.inonu.stok_takip.dto.Response.PeriodCostTotals;
+import com.inonu.stok_takip.entitiy.DailyCostFact;
+import com.inonu.stok_takip.util.DateRange;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@Transactional
+public class DailyCostFactServiceImpl implements DailyCostFactService {
+
+    private final DailyCostFactRepository dailyCostFactRepository;
+    private final ReportService reportService;
+
+    @Value("${report.fact-rebuild-on-startup:false}")
+    private boolean rebuildOnStartup;
+
+    public DailyCostFactServiceImpl(DailyCostFactRepository dailyCostFactRepository,
+                                    @Lazy ReportService reportService) {
+        this.dailyCostFactRepository = dailyCostFactRepository;
+        this.reportService = reportService;
+    }
+
+    // tablo ilk kez oluşturulduğunda mevcut çıkış ve fiş kayıtlarından doldurulur.
+    // Hesaplama kuralları değiştiğinde eski satırlar bir kez report.fact-rebuild-on-startup=true ile yeniden oluşturulur;
+    // yemek sayısı sütunu eklenmeden önce oluşmuş satırlar da yeniden oluşturulur
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (rebuildOnStartup || dailyCostFactRepository.count() == 0 || dailyCostFactRepository.existsByMealCountIsNull()) {
+            rebuildAll();
+        }
+    }
+
+    // toplamlar fark olarak değil yeniden hesaplanır; silme ve kişi sayısı (MAX) gibi farkı bilinmeyen
+    // değişiklikler de aynı yoldan geçer. Satır kilidi sayesinde ikinci sorgu en güncel kayıtları görür
+    @Override
+    public void refresh(LocalDate date) {
+        if (date == null) {
+            return;
+        }
+        dailyCostFactRepository.lockDate(date);
+        dailyCostFactRepository.recalculateDate(date);
+        reportService.invalidatePeriodReports(date);
+    }
+
+    @Override
+    public void rebuildAll() {
+        dailyCostFactRepository.deleteAllRows();
+        dailyCostFactRepository.insertAllFromRaw();
+    }
+
+    @Override
+    public DailyCostFact findByDate(LocalDate date) {
+        return dailyCostFactRepository.findByFactDate(date).orElse(null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PeriodCostTotals getTotals(DateRange range) {
+        return dailyCostFactRepository.sumBetween(range.startDate(), range.endDate());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PeriodCostTotals> getTotals(List<DateRange> ranges) {
+        if (ranges.isEmpty()) {
+            return List.of();
+        }
+        LocalDate startDate = ranges.get(0).startDate();
+        LocalDate endDate = ranges.get(0).endDate();
+        for (DateRange range : ranges) {
+            startDate = range.startDate().isBefore(startDate) ? range.startDate() : startDate;
+            endDate = range.endDate().isAfter(endDate) ? range.endDate() : endDate;
+        }
+
+        int size = ranges.size();
+        long[] totalPerson = new long[size];
+        long[] ticketQuantity = new long[size];
+        double[] ticketRevenue = new double[size];
+        double[] materialCost = new double[size];
+        double[] cleaningCost = new double[size];
+        long[] mealCount = new long[size];
+
+        // her gün, içinde bulunduğu tüm aralıklara eklenir
+        for (DailyCostFact fact : dailyCostFactRepository
+                .findByFactDateGreaterThanEqualAndFactDateLessThanOrderByFactDate(startDate, endDate)) {
+            LocalDate date = fact.getFactDate();
+            for (int i = 0; i < size; i++) {
+                DateRange range = ranges.get(i);
+                if (date.isBefore(range.startDate()) || !date.isBefore(range.endDate())) {
+                    continue;
+                }
+                totalPerson[i] += fact.getTotalPerson();
+                ticketQuantity[i] += fact.getTicketQuantity();
+                ticketRevenue[i] += valueOf(fact.getTicketRevenue());
+                materialCost[i] += valueOf(fact.getMaterialCost());
+                cleaningCost[i] += valueOf(fact.getCleaningCost());
+                mealCount[i] += fact.getMealCount() != null ? fact.getMealCount() : 0;
+            }
+        }
+
+        List<PeriodCostTotals> totals = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            totals.add(new PeriodCostTotals(totalPerson[i], ticketQuantity[i], ticketRevenue[i],
+                    materialCost[i], cleaningCost[i], mealCount[i]));
+        }
+        return totals;
+    }
+
+    private double valueOf(Double value) {
+        return value != null ? value : 0.0;
+    }
+}
@@ -2,16 +2,35 @@ package com.inonu.stok_takip.Service.Impl;
 
 import com.inonu.stok_takip.Repositoriy.*;
 import com.inonu.stok_takip.Service.DashboardService;
+import com.inonu.stok_takip.dto.Response.DailyTicketTotals;
+import com.inonu.stok_takip.dto.Response.DashboardStatsTimingResponse;
+import com.inonu.stok_takip.dto.Response.DashboardStockStats;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
 import java.time.LocalDate;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Map;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
+// rol panelleri istatistikleri sık sorguladığı için her istatistik aggregate sorgularla hesaplanıp
+// kısa süreli (ttl) bir anlık görüntü olarak tutulur; stok veya fiş yazıldığında ilgili görüntü düşürülür
 @Service
 public class DashboardServiceImpl implements DashboardService {
 
+    private static final String ADMIN_STATS = "admin";
+    private static final String YEMEKHANE_STATS = "yemekhane";
+    private static final String DEPO_STATS = "depo";
+    private static final String SATINALMA_STATS = "satinalma";
+
+    private static final double LOW_STOCK_LEVEL = 10.0;
+    private static final double CRITICAL_STOCK_LEVEL = 5.0;
+
     private final UserRepository userRepository;
     private final MaterialEntryRepository materialEntryRepository;
     private final TicketTypeRepository ticketTypeRepository;
@@ -19,6 +38,13 @@ public class DashboardServiceImpl implements DashboardService {
     private final TenderRepository tenderRepository;
     private final DirectProcurementRepository directProcurementRepository;
 
+    private final Map<String, StatsSnapshot> snapshots = new ConcurrentHashMap<>();
+    // hesaplama sürerken gelen düşürme, eski verinin görüntüye yazılmasını engeller
+    private final AtomicLong generation = new AtomicLong();
+
+    @Value("${dashboard.stats-ttl-seconds:30}")
+    private long statsTtlSeconds;
+
     public DashboardServiceImpl(
             UserRepository userRepository,
             MaterialEntryRepository materialEntryRepository,
@@ -36,6 +62,46 @@ public class DashboardServiceImpl implements DashboardService {
 
     @Override
     public Map<String, Object> getAdminStats() {
+        return cached(ADMIN_STATS, this::computeAdminStats);
+    }
+
+    @Override
+    public Map<String, Object> getYemekhaneStats() {
+        return cached(YEMEKHANE_STATS, this::computeYemekhaneStats);
+    }
+
+    @Override
+    public Map<String, Object> getDepoStats() {
+        return cached(DEPO_STATS, this::computeDepoStats);
+    }
+
+    @Override
+    public Map<String, Object> getSatinalmaStats() {
+        return cached(SATINALMA_STATS, this::computeSatinalmaStats);
+    }
+
+    @Override
+    public void invalidateStockStats() {
+        runAfterCommit(() -> invalidate(ADMIN_STATS, DEPO_STATS));
+    }
+
+    @Override
+    public void invalidateTicketStats() {
+        runAfterCommit(() -> invalidate(YEMEKHANE_STATS));
+    }
+
+    @Override
+    public List<DashboardStatsTimingResponse> getStatsTimings() {
+        List<DashboardStatsTimingResponse> timings = new ArrayList<>();
+        for (Map.Entry<String, StatsSnapshot> entry : new TreeMap<>(snapshots).entrySet()) {
+            StatsSnapshot snapshot = entry.getValue();
+            timings.add(new DashboardStatsTimingResponse(entry.getKey(), snapshot.computedAt(),
+                    snapshot.computeMillis(), isExpired(snapshot)));
+        }
+        return timings;
+    }
+
+    private Map<String, Object> computeAdminStats() {
         Map<String, Object> stats = new HashMap<>();
         
         // Sistem istatistikleri
@@ -44,10 +110,8 @@ public class DashboardServiceImpl implements DashboardService {
         stats.put("totalProducts", materialEntryRepository.count());
         
         // Düşük stok sayısı (örnek: 10'dan az stok)
-        long lowStockItems = materialEntryRepository.findAll().stream()
-                .filter(item -> item.getRemainingQuantity() != null && item.getRemainingQuantity() < 10)
-                .count();
-        stats.put("lowStockItems", lowStockItems);
+        DashboardStockStats stockStats = materialEntryRepository.summarizeStock(LOW_STOCK_LEVEL, CRITICAL_STOCK_LEVEL);
+        stats.put("lowStockItems", stockStats.lowStockCount());
         
         // Bekleyen onaylar (örnek: aktif ihaleler)
         stats.put("pendingApprovals", tenderRepository.count());
@@ -58,25 +122,19 @@ public class DashboardServiceImpl implements DashboardService {
         return stats;
     }
 
-    @Override
-    public Map<String, Object> getYemekhaneStats() {
+    private Map<String, Object> computeYemekhaneStats() {
         Map<String, Object> stats = new HashMap<>();
         
         // Fiş türleri
         stats.put("totalTicketTypes", ticketTypeRepository.count());
         
-        // Bugünkü satışlar
-        LocalDate today = LocalDate.now();
-        var todaySales = ticketSalesDetailRepository.findBySaleDateBetween(today, today);
+        // Bugünkü satışlar, satırlar yüklenmeden veritabanında toplanır
+        DailyTicketTotals todayTotals = ticketSalesDetailRepository.findDailyTotals(LocalDate.now());
         
-        int totalTicketsSold = todaySales.stream()
-                .mapToInt(sale -> sale.getQuantity())
-                .sum();
+        int totalTicketsSold = todayTotals.ticketCount().intValue();
         stats.put("todayTicketsSold", totalTicketsSold);
         
-        double totalRevenue = todaySales.stream()
-                .mapToDouble(sale -> sale.getTotalPrice() != null ? sale.getTotalPrice() : 0.0)
-                .sum();
+        double totalRevenue = todayTotals.totalPrice();
         stats.put("todayRevenue", totalRevenue);
         
         // Ortalama fiyat
@@ -89,36 +147,15 @@ public class DashboardServiceImpl implements DashboardService {
         return stats;
     }
 
-    @Override
-    public Map<String, Object> getDepoStats() {
+    private Map<String, Object> computeDepoStats() {
         Map<String, Object> stats = new HashMap<>();
         
-        // Stok istatistikleri
-        var allItems = materialEntryRepository.findAll();
-        stats.put("totalProducts", allItems.size());
-        
-        // Düşük stok sayısı (örnek: 10'dan az stok)
-        long lowStockProducts = allItems.stream()
-                .filter(item -> item.getRemainingQuantity() != null && item.getRemainingQuantity() < 10)
-                .count();
-        stats.put("lowStockProducts", lowStockProducts);
-        
-        // Kritik stok sayısı (örnek: 5'ten az stok)
-        long criticalItems = allItems.stream()
-                .filter(item -> item.getRemainingQuantity() != null && item.getRemainingQuantity() < 5)
-                .count();
-        stats.put("criticalItems", criticalItems);
-        
-        // Toplam stok değeri
-        double totalValue = allItems.stream()
-                .mapToDouble(item -> {
-                    if (item.getRemainingQuantity() != null && item.getUnitPrice() != null) {
-                        return item.getRemainingQuantity() * item.getUnitPrice();
-                    }
-                    return 0.0;
-                })
-                .sum();
-        stats.put("totalValue", totalValue);
+        // Stok istatistikleri tek aggregate sorguda: giriş sayısı, düşük (10'dan az) ve kritik (5'ten az) stok sayısı, toplam değer
+        DashboardStockStats stockStats = materialEntryRepository.summarizeStock(LOW_STOCK_LEVEL, CRITICAL_STOCK_LEVEL);
+        stats.put("totalProducts", stockStats.entryCount().intValue());
+        stats.put("lowStockProducts", stockStats.lowStockCount());
+        stats.put("criticalItems", stockStats.criticalCount());
+        stats.put("totalValue", stockStats.totalValue());
         
         // Son kullanma tarihi yaklaşan ürünler - sadece database'den
         stats.put("expiringItems", new ArrayList<>());
@@ -129,8 +166,7 @@ public class DashboardServiceImpl implements DashboardService {
         return stats;
     }
 
-    @Override
-    public Map<String, Object> getSatinalmaStats() {
+    private Map<String, Object> computeSatinalmaStats() {
         Map<String, Object> stats = new HashMap<>();
         
         // İhale istatistikleri
@@ -152,4 +188,53 @@ public class DashboardServiceImpl implements DashboardService {
         
         return stats;
     }
+
+    private Map<String, Object> cached(String name, Supplier<Map<String, Object>> computation) {
+        StatsSnapshot snapshot = snapshots.get(name);
+        if (snapshot != null && !isExpired(snapshot)) {
+            return snapshot.stats();
+        }
+
+        long startGeneration = generation.get();
+        long start = System.nanoTime();
+        Map<String, Object> stats = computation.get();
+        long computeMillis = (System.nanoTime() - start) / 1_000_000;
+        LocalDateTime computedAt = LocalDateTime.now();
+
+        stats.put("computedAt", computedAt);
+        stats.put("computeMillis", computeMillis);
+        Map<String, Object> result = Collections.unmodifiableMap(stats);
+
+        if (generation.get() == startGeneration) {
+            snapshots.put(name, new StatsSnapshot(result, computedAt, computeMillis));
+        }
+        return result;
+    }
+
+    private boolean isExpired(StatsSnapshot snapshot) {
+        return snapshot.computedAt().plus(Duration.ofSeconds(statsTtlSeconds)).isBefore(LocalDateTime.now());
+    }
+
+    private void invalidate(String... names) {
+        generation.incrementAndGet();
+        for (String name : names) {
+            snapshots.remove(name);
+        }
+    }
+
+    private void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private record StatsSnapshot(Map<String, Object> stats, LocalDateTime computedAt, long computeMillis) {
+    }
 }
@@ -8,12 +8,11 @@ import com.inonu.stok_takip.Service.*;
 import com.inonu.stok_takip.dto.Request.DirectProcurementCreateRequest;
 import com.inonu.stok_takip.dto.Response.DirectProcurementResponse;
 import com.inonu.stok_takip.entitiy.*;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 @Service
@@ -22,13 +21,16 @@ public class DirectProcurementServiceImpl implements DirectProcurementService {
     private final DirectProcurementRepository directProcurementRepository;
     private final PurchasedUnitService purchasedUnitService;
     private final ProductService productService;
+    private final ContractExpiryService contractExpiryService;
 
     public DirectProcurementServiceImpl(DirectProcurementRepository directProcurementRepository,
                                         PurchasedUnitService purchasedUnitService,
-                                        ProductService productService) {
+                                        ProductService productService,
+                                        @Lazy ContractExpiryService contractExpiryService) {
         this.directProcurementRepository = directProcurementRepository;
         this.purchasedUnitService = purchasedUnitService;
         this.productService = productService;
+        this.contractExpiryService = contractExpiryService;
     }
 
 
@@ -49,6 +51,7 @@ public class DirectProcurementServiceImpl implements DirectProcurementService {
         directProcurement.setTenderType(TenderType.DIRECT_PROCUREMENT);
 
         DirectProcurement saved = directProcurementRepository.save(directProcurement);
+        contractExpiryService.rescheduleExpiry();
 
         // Doğrudan temin oluşturulduğunda otomatik malzeme girişi yapılmaz
         // Ürün haftalık talep formunda onaylandıktan sonra stoğa eklenecek (ihale gibi)
@@ -96,30 +99,20 @@ public class DirectProcurementServiceImpl implements DirectProcurementService {
         return mapToResponseList(directProcurements);
     }
 
-    //yıl bittiği için veya doğrudan temin  süresi dolmuş bütün doğrudan teminleri silen kod yapısı bu kod her saate bir tetikleniyor
+    //yıl bittiği için veya doğrudan temin  süresi dolmuş bütün doğrudan teminleri pasife çeken kod yapısı.
+    // Saatlik tarama yerine ContractExpiryService tarafından bir sonraki bitiş tarihinde tetikleniyor
     @Override
-    @Scheduled(cron = "0 0 * * * ?")
+    @Transactional
     public void handleDirectProcurementsAtYearEnd() {
-        LocalDateTime now = LocalDateTime.now();
-        LocalDate today = now.toLocalDate();
+        LocalDate today = LocalDate.now();
 
         // 31 Aralık kontrolü
         boolean isYearEnd = today.getMonthValue() == 12 && today.getDayOfMonth() == 31;
 
-        List<DirectProcurement> directProcurements = directProcurementRepository.findAll();
-
-        for (DirectProcurement directProcurement : directProcurements) {
-            // endDate null kontrolü
-            boolean isExpired = false;
-            if (directProcurement.getEndDate() != null) {
-                isExpired = directProcurement.getEndDate().isBefore(today);
-            }
-
-            // Eğer ihale süresi dolmuşsa veya yılın son günündeysek
-            if ((isExpired || isYearEnd) && directProcurement.isActive()) {
-                directProcurement.setActive(false);
-                directProcurementRepository.save(directProcurement);
-            }
+        if (isYearEnd) {
+            directProcurementRepository.deactivateAllActive();
+        } else {
+            directProcurementRepository.deactivateExpired(today);
         }
     }
 
@@ -165,6 +158,7 @@ public class DirectProcurementServiceImpl implements DirectProcurementService {
         }
         directProcurement.setTotalAmount(directProcurement.getUnitPrice() * directProcurement.getQuantity());
         DirectProcurement saved = directProcurementRepository.save(directProcurement);
+        contractExpiryService.rescheduleExpiry();
         return mapToResponse(saved);
     }
 
@@ -0,0 +1,404 @@
+package com.inonu.stok_takip.Service.Impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inonu.stok_takip.Enum.ExportFormat;
+import com.inonu.stok_takip.Exception.MaterialEntry.InvalidDateRangeException;
+import com.inonu.stok_takip.Repositoriy.MaterialExportRepository;
+import com.inonu.stok_takip.Service.ExportService;
+import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.VerticalAlignment;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+@Service
+public class ExportServiceImpl implements ExportService {
+
+    private static final String[] FINANCIAL_STATEMENT_HEADERS = {
+            "Sıra No", "Malzeme Adı", "Ölçü",
+            "Geçen Yıldan Devir (Miktar)", "Geçen Yıldan Devir (TL)",
+            "Yıl İçinde Alınan (İhale) (Miktar)", "Yıl İçinde Alınan (İhale) (TL)",
+            "Yıl İçinde Alınan 22(d) (Miktar)", "Yıl İçinde Alınan 22(d) (TL)",
+            "Devir ve Alınan Toplamı (Miktar)", "Devir ve Alınan Toplamı (TL)",
+            "Depodan Çıkan (Miktar)", "Depodan Çıkan (TL)",
+            "Depoda Kalan (Miktar)", "Depoda Kalan (TL)"
+    };
+
+    private static final double[] FINANCIAL_STATEMENT_WIDTHS = {
+            8, 36, 10, 14, 16, 14, 16, 14, 16, 14, 16, 14, 16, 14, 16
+    };
+
+    private final MaterialExportRepository materialExportRepository;
+    private final ObjectMapper objectMapper;
+
+    // Mali Tablo yazılırken bellekte tutulan satır sayısı, daha eski satırlar geçici dosyaya yazılır
+    @Value("${export.xlsx-row-window:100}")
+    private int xlsxRowWindow;
+
+    public ExportServiceImpl(MaterialExportRepository materialExportRepository, ObjectMapper objectMapper) {
+        this.materialExportRepository = materialExportRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void validateRange(LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null || startDate.isAfter(endDate)) {
+            throw new InvalidDateRangeException("Geçersiz tarih aralığı: " + startDate + " - " + endDate);
+        }
+    }
+
+    // imleç sadece transaction içinde parça parça okur, transaction yazma bitene kadar açık kalır
+    @Override
+    @Transactional(readOnly = true)
+    public void writeMaterialExits(LocalDate startDate, LocalDate endDate, ExportFormat format,
+                                   OutputStream outputStream) throws IOException {
+        validateRange(startDate, endDate);
+        write(format, outputStream,
+                extractor -> materialExportRepository.streamMaterialExits(startDate, endDate.plusDays(1), extractor));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void writeMaterialEntries(LocalDate startDate, LocalDate endDate, ExportFormat format,
+                                     OutputStream outputStream) throws IOException {
+        validateRange(startDate, endDate);
+        write(format, outputStream,
+                extractor -> materialExportRepository.streamMaterialEntries(startDate, endDate.plusDays(1), extractor));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void writeFinancialStatement(int year, OutputStream outputStream) throws IOException {
+        LocalDate startDate = LocalDate.of(year, 1, 1);
+        SXSSFWorkbook workbook = new SXSSFWorkbook(xlsxRowWindow);
+        workbook.setCompressTempFiles(true);
+        try {
+            StatementSheet sheet = new StatementSheet(workbook, "Mali Tablo", FINANCIAL_STATEMENT_WIDTHS);
+
+            sheet.startRow();
+            sheet.addString(year + " YILI DEPO MALİ TABLOSU", sheet.titleStyle);
+            sheet.emptyRow();
+            sheet.startRow();
+            for (String header : FINANCIAL_STATEMENT_HEADERS) {
+                sheet.addString(header, sheet.headerStyle);
+            }
+
+            materialExportRepository.streamFinancialStatement(startDate, startDate.plusYears(1),
+                    financialStatementExtractor(sheet));
+            workbook.write(outputStream);
+        } finally {
+            // geçici sayfa dosyaları istek bittiğinde silinir
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    // satırlar okundukça sayfaya eklenir; bellekte sadece satır penceresi, o anki kategorinin ve genel toplamın
+    // tutarları tutulur. Farklı ölçü birimleri toplanamayacağı için ara ve genel toplamlarda sadece TL sütunları doldurulur
+    private ResultSetExtractor<Void> financialStatementExtractor(StatementSheet sheet) {
+        return rs -> {
+            double[] categoryTotals = new double[6];
+            double[] grandTotals = new double[6];
+            String currentCategory = null;
+            boolean anyRow = false;
+            int order = 0;
+
+            while (rs.next()) {
+                String category = rs.getString("category_name");
+                if (!anyRow || !Objects.equals(category, currentCategory)) {
+                    if (anyRow) {
+                        writeTotalRow(sheet, categoryLabel(currentCategory) + " TOPLAMI", categoryTotals);
+                        categoryTotals = new double[6];
+                    }
+                    currentCategory = category;
+                    sheet.startRow();
+                    sheet.addString(null, null);
+                    sheet.addString(categoryLabel(category), sheet.totalTextStyle);
+                    anyRow = true;
+                }
+
+                double carryOverQuantity = rs.getDouble("carry_over_quantity");
+                double carryOverValue = rs.getDouble("carry_over_value");
+                double tenderQuantity = rs.getDouble("tender_quantity");
+                double tenderValue = rs.getDouble("tender_value");
+                double directQuantity = rs.getDouble("direct_quantity");
+                double directValue = rs.getDouble("direct_value");
+                double exitQuantity = rs.getDouble("exit_quantity");
+                double exitValue = rs.getDouble("exit_value");
+                double totalQuantity = carryOverQuantity + tenderQuantity + directQuantity;
+                double totalValue = carryOverValue + tenderValue + directValue;
+                double[] quantities = {carryOverQuantity, tenderQuantity, directQuantity, totalQuantity, exitQuantity,
+                        totalQuantity - exitQuantity};
+                double[] values = {carryOverValue, tenderValue, directValue, totalValue, exitValue, totalValue - exitValue};
+
+                sheet.startRow();
+                sheet.addNumber((double) ++order, null);
+                sheet.addString(rs.getString("product_name"), null);
+                sheet.addString(rs.getString("measurement_type_name"), null);
+                for (int i = 0; i < values.length; i++) {
+                    sheet.addNumber(quantities[i], sheet.numberStyle);
+                    sheet.addNumber(values[i], sheet.numberStyle);
+                    categoryTotals[i] += values[i];
+                    grandTotals[i] += values[i];
+                }
+            }
+
+            if (anyRow) {
+                writeTotalRow(sheet, categoryLabel(currentCategory) + " TOPLAMI", categoryTotals);
+            }
+            sheet.emptyRow();
+            writeTotalRow(sheet, "GENEL TOPLAM", grandTotals);
+            return null;
+        };
+    }
+
+    private void writeTotalRow(StatementSheet sheet, String label, double[] totals) {
+        sheet.startRow();
+        sheet.addString(null, null);
+        sheet.addString(label, sheet.totalTextStyle);
+        sheet.addString(null, null);
+        for (double total : totals) {
+            sheet.addNumber(null, sheet.totalNumberStyle);
+            sheet.addNumber(total, sheet.totalNumberStyle);
+        }
+    }
+
+    private String categoryLabel(String category) {
+        return category == null ? "KATEGORİSİZ" : category.toUpperCase(Locale.forLanguageTag("tr"));
+    }
+
+    private void write(ExportFormat format, OutputStream outputStream,
+                       Consumer<ResultSetExtractor<Void>> query) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        ResultSetExtractor<Void> extractor = format == ExportFormat.CSV ? csvExtractor(writer) : ndjsonExtractor(writer);
+        try {
+            query.accept(extractor);
+        } catch (UncheckedIOException e) {
+            // istemci bağlantıyı kapattıysa yazma hatası olduğu gibi iletilir
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    // başlık ve ilk satır hemen gönderilir, sonrası yazma tamponu doldukça akar
+    private ResultSetExtractor<Void> csvExtractor(Writer writer) {
+        return rs -> {
+            try {
+                // Excel'in Türkçe karakterleri doğru açması için UTF-8 BOM
+                writer.write('\uFEFF');
+                ResultSetMetaData metaData = rs.getMetaData();
+                int columnCount = metaData.getColumnCount();
+                for (int i = 1; i <= columnCount; i++) {
+                    if (i > 1) {
+                        writer.write(',');
+                    }
+                    writer.write(metaData.getColumnLabel(i));
+                }
+                writer.write("\r\n");
+                writer.flush();
+
+                boolean first = true;
+                while (rs.next()) {
+                    for (int i = 1; i <= columnCount; i++) {
+                        if (i > 1) {
+                            writer.write(',');
+                        }
+                        writer.write(csvValue(rs.getObject(i)));
+                    }
+                    writer.write("\r\n");
+                    if (first) {
+                        writer.flush();
+                        first = false;
+                    }
+                }
+                return null;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    private ResultSetExtractor<Void> ndjsonExtractor(Writer writer) {
+        return rs -> {
+            try {
+                JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.enable(JsonGenerator.Feature.WRITE_BIGDECIMAL_AS_PLAIN);
+                ResultSetMetaData metaData = rs.getMetaData();
+                int columnCount = metaData.getColumnCount();
+
+                boolean first = true;
+                while (rs.next()) {
+                    generator.writeStartObject();
+                    for (int i = 1; i <= columnCount; i++) {
+                        generator.writeFieldName(metaData.getColumnLabel(i));
+                        writeJsonValue(generator, rs.getObject(i));
+                    }
+                    generator.writeEndObject();
+                    generator.writeRaw('\n');
+                    if (first) {
+                        generator.flush();
+                        first = false;
+                    }
+                }
+                generator.flush();
+                return null;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    private String csvValue(Object value) {
+        Object plain = plainValue(value);
+        if (plain == null) {
+            return "";
+        }
+        String text = plain instanceof BigDecimal number ? number.toPlainString() : String.valueOf(plain);
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+
+    private void writeJsonValue(JsonGenerator generator, Object value) throws IOException {
+        Object plain = plainValue(value);
+        if (plain == null) {
+            generator.writeNull();
+        } else if (plain instanceof BigDecimal number) {
+            generator.writeNumber(number);
+        } else if (plain instanceof Number number) {
+            generator.writeNumber(number.longValue());
+        } else if (plain instanceof Boolean bool) {
+            generator.writeBoolean(bool);
+        } else {
+            generator.writeString(plain.toString());
+        }
+    }
+
+    // tarih alanları ISO biçiminde, ondalıklar bilimsel gösterim olmadan yazılır
+    private Object plainValue(Object value) {
+        if (value instanceof Date date) {
+            return date.toLocalDate();
+        }
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        if (value instanceof Double || value instanceof Float) {
+            double number = ((Number) value).doubleValue();
+            return Double.isFinite(number) ? BigDecimal.valueOf(number) : null;
+        }
+        return value;
+    }
+
+    // Mali Tablo sayfası ve stilleri; satırlar sırayla eklenir, hücreler satır içinde soldan sağa doldurulur
+    private static final class StatementSheet {
+
+        private final Sheet sheet;
+        private final CellStyle titleStyle;
+        private final CellStyle headerStyle;
+        private final CellStyle numberStyle;
+        private final CellStyle totalTextStyle;
+        private final CellStyle totalNumberStyle;
+        private int rowIndex = 0;
+        private int columnIndex = 0;
+        private Row row;
+
+        private StatementSheet(SXSSFWorkbook workbook, String sheetName, double[] columnWidths) {
+            this.sheet = workbook.createSheet(sheetName);
+            for (int i = 0; i < columnWidths.length; i++) {
+                sheet.setColumnWidth(i, (int) (columnWidths[i] * 256));
+            }
+
+            Font boldFont = workbook.createFont();
+            boldFont.setBold(true);
+            Font titleFont = workbook.createFont();
+            titleFont.setBold(true);
+            titleFont.setFontHeightInPoints((short) 14);
+            short numberFormat = workbook.createDataFormat().getFormat("#,##0.00");
+
+            titleStyle = workbook.createCellStyle();
+            titleStyle.setFont(titleFont);
+
+            headerStyle = workbook.createCellStyle();
+            headerStyle.setFont(boldFont);
+            headerStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
+            headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+            headerStyle.setBorderTop(BorderStyle.THIN);
+            headerStyle.setBorderBottom(BorderStyle.THIN);
+            headerStyle.setBorderLeft(BorderStyle.THIN);
+            headerStyle.setBorderRight(BorderStyle.THIN);
+            headerStyle.setWrapText(true);
+            headerStyle.setVerticalAlignment(VerticalAlignment.CENTER);
+
+            numberStyle = workbook.createCellStyle();
+            numberStyle.setDataFormat(numberFormat);
+
+            totalTextStyle = workbook.createCellStyle();
+            totalTextStyle.setFont(boldFont);
+
+            totalNumberStyle = workbook.createCellStyle();
+            totalNumberStyle.setFont(boldFont);
+            totalNumberStyle.setDataFormat(numberFormat);
+        }
+
+        private void startRow() {
+            row = sheet.createRow(rowIndex++);
+            columnIndex = 0;
+        }
+
+        private void emptyRow() {
+            rowIndex++;
+        }
+
+        // boş ve stilsiz hücre oluşturulmaz, sadece sütun atlanır
+        private void addString(String value, CellStyle style) {
+            int column = columnIndex++;
+            boolean blank = value == null || value.isEmpty();
+            if (blank && style == null) {
+                return;
+            }
+            Cell cell = row.createCell(column);
+            if (!blank) {
+                cell.setCellValue(value);
+            }
+            if (style != null) {
+                cell.setCellStyle(style);
+            }
+        }
+
+        private void addNumber(Double value, CellStyle style) {
+            int column = columnIndex++;
+            boolean blank = value == null || !Double.isFinite(value);
+            if (blank && style == null) {
+                return;
+            }
+            Cell cell = row.createCell(column);
+            if (!blank) {
+                cell.setCellValue(value);
+            }
+            if (style != null) {
+                cell.setCellStyle(style);
+            }
+        }
+    }
+}
@@ -1,57 +1,93 @@
 package com.inonu.stok_takip.Service.Impl;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.inonu.stok_takip.Enum.EntrySourceType;
 import com.inonu.stok_takip.Enum.TenderType;
+import com.inonu.stok_takip.Exception.MaterialEntry.InvalidDateRangeException;
+import com.inonu.stok_takip.Exception.MaterialEntry.MaterialEntryInUseException;
 import com.inonu.stok_takip.Exception.MaterialEntry.MaterialEntryNotFoundException;
 import com.inonu.stok_takip.Repositoriy.MaterialEntryRepository;
-import com.inonu.stok_takip.Repositoriy.ProductRepository;
+import com.inonu.stok_takip.Repositoriy.MaterialExitAllocationRepository;
+import com.inonu.stok_takip.Repositoriy.ProductStockRepository;
 import com.inonu.stok_takip.Service.*;
+import com.inonu.stok_takip.dto.Request.HistoryPageRequest;
 import com.inonu.stok_takip.dto.Request.MaterialEntryCreateRequest;
 import com.inonu.stok_takip.dto.Request.MaterialEntryUpdateRequest;
 import com.inonu.stok_takip.dto.Response.*;
 import com.inonu.stok_takip.entitiy.*;
+import com.inonu.stok_takip.util.KeysetCursor;
 import org.springframework.context.annotation.Lazy;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class MaterialEntryServiceImpl implements MaterialEntryService {
 
+    private static final DateTimeFormatter RESPONSE_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS");
+
     private final MaterialEntryRepository materialEntryRepository;
-    private final ProductRepository productRepository;
+    private final MaterialExitAllocationRepository materialExitAllocationRepository;
+    private final ProductStockRepository productStockRepository;
     private final PurchaseTypeService purchaseTypeService;
     private final ProductService productService;
     private final PurchasedUnitService purchasedUnitService;
     private final BudgetService budgetService;
     private final TenderService tenderService;
     private final DirectProcurementService directProcurementService;
+    private final StockLedgerService stockLedgerService;
+    private final ProductStockService productStockService;
+    private final ObjectMapper objectMapper;
 
+    // kapanmış yılların harcaması değişmediği için yıl bazında kalıcı tutulur,
+    // geriye dönük giriş eklenir veya silinirse sadece o yıl düşürülür
+    private final Map<Integer, List<MaterialEntrySpendResponse>> closedYearSpend = new ConcurrentHashMap<>();
 
     public MaterialEntryServiceImpl(MaterialEntryRepository materialEntryRepository,
-                                    ProductRepository productRepository,
+                                    MaterialExitAllocationRepository materialExitAllocationRepository,
+                                    ProductStockRepository productStockRepository,
                                     PurchaseTypeService purchaseTypeService,
                                     ProductService productService,
                                     PurchasedUnitService purchasedUnitService,
                                     BudgetService budgetService,
                                     TenderService tenderService,
-                                    @Lazy DirectProcurementService directProcurementService) {
+                                    @Lazy DirectProcurementService directProcurementService,
+                                    StockLedgerService stockLedgerService,
+                                    ProductStockService productStockService,
+                                    ObjectMapper objectMapper) {
         this.materialEntryRepository = materialEntryRepository;
-        this.productRepository = productRepository;
+        this.materialExitAllocationRepository = materialExitAllocationRepository;
+        this.productStockRepository = productStockRepository;
         this.purchaseTypeService = purchaseTypeService;
         this.productService = productService;
         this.purchasedUnitService = purchasedUnitService;
         this.budgetService = budgetService;
         this.tenderService = tenderService;
         this.directProcurementService = directProcurementService;
+        this.stockLedgerService = stockLedgerService;
+        this.productStockService = productStockService;
+        this.objectMapper = objectMapper;
     }
 
     @Override
@@ -60,6 +96,24 @@ public class MaterialEntryServiceImpl implements MaterialEntryService {
         return mapToResponseList(materialEntryList);
     }
 
+    // tüm giriş geçmişi sayfalanır, alıcı filtresi girişlerde yoktur
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPageResponse<MaterialEntryResponse> getMaterialEntryPage(HistoryPageRequest request) {
+        request.validate();
+        KeysetCursor cursor = request.decodedCursor();
+        List<MaterialEntry> rows = materialEntryRepository.findPage(
+                request.productId(),
+                request.categoryId(),
+                request.startDate(),
+                request.endDateExclusive(),
+                cursor != null ? cursor.date() : null,
+                cursor != null ? cursor.id() : null,
+                Limit.of(request.pageSize() + 1));
+        return KeysetPageResponse.of(rows, request.pageSize(), this::mapToResponse,
+                entry -> new KeysetCursor(entry.getEntryDate(), entry.getId()));
+    }
+
     @Override
     public MaterialEntryResponse createMaterialEntry(MaterialEntryCreateRequest request) {
 
@@ -108,90 +162,77 @@ public class MaterialEntryServiceImpl implements MaterialEntryService {
         materialEntry.setBudget(budget);
 
         MaterialEntry toSave = materialEntryRepository.save(materialEntry);
+        productStockService.increase(product.getId(), toSave.getRemainingQuantity(),
+                toSave.getRemainingQuantity() * toSave.getUnitPriceIncludingVat(), toSave.getEntryDate());
+        stockLedgerService.refreshEntry(toSave);
+        evictClosedYearSpend(toSave.getEntryDate());
         return mapToResponse(toSave);
     }
 
     @Override
     public MaterialEntryResponse updateMaterialEntry(MaterialEntryUpdateRequest request) {
         MaterialEntry materialEntry = getMaterialEntryById(request.id());
+        double previousRemainingQuantity = materialEntry.getRemainingQuantity() != null ? materialEntry.getRemainingQuantity() : 0.0;
 
         materialEntry.setQuantity(request.quantity());
         materialEntry.setRemainingQuantity(request.quantity());
 
         MaterialEntry saved = materialEntryRepository.save(materialEntry);
+        double quantityChange = request.quantity() - previousRemainingQuantity;
+        double unitPriceIncludingVat = saved.getUnitPriceIncludingVat() != null ? saved.getUnitPriceIncludingVat() : 0.0;
+        productStockService.increase(saved.getProduct().getId(), quantityChange,
+                quantityChange * unitPriceIncludingVat, saved.getEntryDate());
+        stockLedgerService.refreshEntry(saved);
         return mapToResponse(saved);
     }
 
     @Override
     public Double getTotalRemainingQuantity(Long productId) {
-        return materialEntryRepository.sumRemainingQuantityByProductId(productId);
+        return productStockService.getOnHandQuantity(productId);
     }
 
     // bu metot dashboardda bulunan verielri gönderiyor
     @Override
     public List<GroupMaterialEntryResponse> getGroupedMaterialEntries() {
-        List<MaterialEntry> entries = materialEntryRepository.findAllExcludingEntrySourceType(EntrySourceType.DEVIR);
-
-        Map<String, Map<Long, List<MaterialEntry>>> grouped = entries.stream()
-                .collect(Collectors.groupingBy(
-                        e -> e.getTenderType().getDescription(),
-                        Collectors.groupingBy(e -> e.getProduct().getId())
-                ));
-
-        List<GroupMaterialEntryResponse> result = new ArrayList<>();
-
-        for (Map.Entry<String, Map<Long, List<MaterialEntry>>> TenderTypeEntry : grouped.entrySet()) {
-            String tenderTypeName = TenderTypeEntry.getKey();
-            List<MaterialEntryProductResponse> products = new ArrayList<>();
-            double totalFormAmount = 0;
-
-            for (List<MaterialEntry> productEntries : TenderTypeEntry.getValue().values()) {
-                MaterialEntry sample = productEntries.get(0);
-                double totalQuantity = productEntries.stream().mapToDouble(MaterialEntry::getQuantity).sum();
-                double totalPrice = productEntries.stream().mapToDouble(MaterialEntry::getTotalPrice).sum();
-                double averagePrice = totalQuantity != 0 ? totalPrice / totalQuantity : 0;
-                LocalDate lastDate = null;
-
-                for (int i = 0; i < productEntries.size(); i++) {
-                    LocalDate a = productEntries.get(i).getEntryDate();
-                    if(a==null){
-                        continue;
-                    }
-                    if(lastDate==null){
-                        lastDate=a;
-                    }else if(a.isAfter(lastDate)){
-                        lastDate=a;
-                    }
-                }
-
-                MaterialEntryProductDetailResponse detail = new MaterialEntryProductDetailResponse(
-                        sample.getProduct().getCriticalLevel(),
-                        lastDate,
-                        sample.getProduct().getVatAmount(),
-                        productEntries.size(),
-                        totalPrice
-                );
-
-                MaterialEntryProductResponse productDTO = new MaterialEntryProductResponse(
-                        sample.getProduct().getName(),
-                        sample.getProduct().getCategory().getName(),
-                        sample.getProduct().getMeasurementType().getName(),
-                        averagePrice,
-                        totalQuantity,
-                        detail
-                );
-
-                products.add(productDTO);
-                totalFormAmount += totalPrice;
-            }
+        // gruplama veritabanında yapılır, satırlar alım şekline göre sıralı gelir
+        List<MaterialEntryGroupRow> rows = materialEntryRepository.findGroupedExcludingEntrySourceType(EntrySourceType.DEVIR);
+
+        Map<TenderType, List<MaterialEntryProductResponse>> productsByTenderType = new LinkedHashMap<>();
+        Map<TenderType, Double> totalAmountByTenderType = new HashMap<>();
+
+        for (MaterialEntryGroupRow row : rows) {
+            double totalQuantity = row.totalQuantity();
+            double totalPrice = row.totalPrice();
+            double averagePrice = totalQuantity != 0 ? totalPrice / totalQuantity : 0;
+
+            MaterialEntryProductDetailResponse detail = new MaterialEntryProductDetailResponse(
+                    row.criticalLevel(),
+                    row.lastEntryDate(),
+                    row.vatAmount(),
+                    row.entryCount().intValue(),
+                    totalPrice
+            );
 
-            GroupMaterialEntryResponse dto = new GroupMaterialEntryResponse(
-                    tenderTypeName,
-                    totalFormAmount,
-                    products
+            MaterialEntryProductResponse productDTO = new MaterialEntryProductResponse(
+                    row.productName(),
+                    row.categoryName(),
+                    row.measurementTypeName(),
+                    averagePrice,
+                    totalQuantity,
+                    detail
             );
 
-            result.add(dto);
+            productsByTenderType.computeIfAbsent(row.tenderType(), type -> new ArrayList<>()).add(productDTO);
+            totalAmountByTenderType.merge(row.tenderType(), totalPrice, Double::sum);
+        }
+
+        List<GroupMaterialEntryResponse> result = new ArrayList<>();
+        for (Map.Entry<TenderType, List<MaterialEntryProductResponse>> tenderTypeEntry : productsByTenderType.entrySet()) {
+            result.add(new GroupMaterialEntryResponse(
+                    tenderTypeEntry.getKey().getDescription(),
+                    totalAmountByTenderType.get(tenderTypeEntry.getKey()),
+                    tenderTypeEntry.getValue()
+            ));
         }
 
         return result;
@@ -201,88 +242,50 @@ public class MaterialEntryServiceImpl implements MaterialEntryService {
     // bu metot yıl içinde depoya giren tüm malzemeler ve nasıl girdikleri ile ilgili bilgileir döndürür
     @Override
     public List<MaterialEntryDetailResponse> getMaterialEntryDetails() {
-        List<MaterialEntry> allEntries = materialEntryRepository.findNonZeroRemainingQuantityEntries();
-
-        Map<Long, List<MaterialEntry>> entriesGroupedByProductId = allEntries.stream()
-                .collect(Collectors.groupingBy(entry -> entry.getProduct().getId()));
-
-        List<MaterialEntryDetailResponse> responseList = new ArrayList<>();
-
-        for (Map.Entry<Long, List<MaterialEntry>> entry : entriesGroupedByProductId.entrySet()) {
-            List<MaterialEntry> productEntries = entry.getValue();
-
-            double totalCarryOver = productEntries.stream()
-                    .filter(e -> e.getEntrySourceType() == EntrySourceType.DEVIR)
-                    .mapToDouble(MaterialEntry::getQuantity)
-                    .sum();
-
-            double totalTender = productEntries.stream()
-                    .filter(e -> e.getEntrySourceType() == EntrySourceType.IHALE)
-                    .mapToDouble(MaterialEntry::getQuantity)
-                    .sum();
-
-            double totalDirectProcurement = productEntries.stream()
-                    .filter(e -> e.getEntrySourceType() == EntrySourceType.DOGRUDAN_TEMIN)
-                    .mapToDouble(MaterialEntry::getQuantity)
-                    .sum();
-
-
-            // Çıkış miktarını hesapla
-            double totalExit = productEntries.stream()
-                    .mapToDouble(e ->e.getQuantity() - e.getRemainingQuantity())
-                    .sum();
-
-
-            // Kalan miktarı hesapla
-            double remainingQuantity = productEntries.stream()
-                    .mapToDouble(e -> e.getRemainingQuantity())
-                    .sum();
-
-
-            ProductDetailResponse productDetailResponse =
-                     new ProductDetailResponse(
-                             productEntries.get(0).getProduct().getName(),
-                             productEntries.get(0).getProduct().getVatAmount(),
-                             productEntries.get(0).getProduct().getCriticalLevel(),
-                             productEntries.get(0).getProduct().getMeasurementType().getName(),
-                             productEntries.get(0).getProduct().getCategory().getName()
-                     );
-
-            // DTO'ya ekle
-            MaterialEntryDetailResponse response = new MaterialEntryDetailResponse(
-                    productDetailResponse,
-                    totalCarryOver,
-                    totalTender,
-                    totalDirectProcurement,
-                    totalExit,
-                    remainingQuantity
-            );
-
-            responseList.add(response);
-        }
-
-        return responseList;
+        // devir, ihale, doğrudan temin, çıkış ve kalan toplamları veritabanında tek seferde hesaplanır
+        return materialEntryRepository.summarizeOpenEntriesByProduct();
     }
 
     // burada yıl içinde hangi bütçeden ne kadar harcanmş gruplayan kod yapısı
     @Override
     public List<MaterialEntrySpendResponse> getTotalSpentGroupedByBudget() {
-        List<MaterialEntry> entries = materialEntryRepository.findAll();
+        return getTotalSpentGroupedByBudget(LocalDate.now().getYear());
+    }
 
-        int currentYear = LocalDate.now().getYear();
+    @Override
+    public List<MaterialEntrySpendResponse> getTotalSpentGroupedByBudget(Integer year) {
+        LocalDate yearStart = LocalDate.of(year, 1, 1);
+        if (year >= LocalDate.now().getYear()) {
+            return materialEntryRepository.sumSpendByBudgetBetween(yearStart, yearStart.plusYears(1));
+        }
+        return closedYearSpend.computeIfAbsent(year,
+                closedYear -> List.copyOf(materialEntryRepository.sumSpendByBudgetBetween(yearStart, yearStart.plusYears(1))));
+    }
 
-        Map<String, Double> spendingMap = entries.stream()
-                .filter(me -> me.getEntrySourceType() != null && !me.getEntrySourceType().equals(EntrySourceType.DEVIR))
-                .filter(me -> me.getEntryDate() != null && me.getEntryDate().getYear() == currentYear)
-                .filter(me -> me.getBudget() != null && me.getBudget().getBudgetName() != null)
-                .collect(Collectors.groupingBy(
-                        me -> me.getBudget().getBudgetName(),
-                        Collectors.summingDouble(me -> me.getTotalPrice() != null ? me.getTotalPrice() : 0.0)
-                ));
+    // bitiş tarihi dahil, sorgu [startDate, endDate + 1 gün) aralığıyla çalışır
+    @Override
+    public List<MaterialEntrySpendResponse> getTotalSpentGroupedByBudget(LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null || startDate.isAfter(endDate)) {
+            throw new InvalidDateRangeException("Geçersiz tarih aralığı: " + startDate + " - " + endDate);
+        }
+        return materialEntryRepository.sumSpendByBudgetBetween(startDate, endDate.plusDays(1));
+    }
 
-        return spendingMap.entrySet().stream()
-                .map(entry -> new MaterialEntrySpendResponse(entry.getKey(), entry.getValue()))
-                .collect(Collectors.toList());
+    private void evictClosedYearSpend(LocalDate entryDate) {
+        if (entryDate == null || entryDate.getYear() >= LocalDate.now().getYear()) {
+            return;
+        }
+        Integer year = entryDate.getYear();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    closedYearSpend.remove(year);
+                }
+            });
+        } else {
+            closedYearSpend.remove(year);
+        }
     }
 
 
@@ -296,7 +299,16 @@ public class MaterialEntryServiceImpl implements MaterialEntryService {
     public MaterialEntryResponse deleteMaterialEntry(Long id) {
 
         MaterialEntry materialEntry = getMaterialEntryById(id);
+        // bu girişten çıkış yapıldıysa parti kaydı çıkışın maliyet geçmişidir; silinirse çıkış iptalinde stok iade edilemez
+        if (materialExitAllocationRepository.existsByMaterialEntryId(id)) {
+            throw new MaterialEntryInUseException("Bu girişten çıkış yapıldığı için silinemez: " + id);
+        }
         materialEntryRepository.delete(materialEntry);
+        materialEntryRepository.flush();
+        // silinen giriş son giriş tarihini belirliyor olabilir, ürünün özeti girişlerden yeniden hesaplanır
+        productStockService.recalculate(materialEntry.getProduct().getId());
+        stockLedgerService.removeEntry(materialEntry);
+        evictClosedYearSpend(materialEntry.getEntryDate());
         return mapToResponse(materialEntry);
 
     }
@@ -314,80 +326,22 @@ public class MaterialEntryServiceImpl implements MaterialEntryService {
 
     @Override
     public List<MaterialEntryProductsForMaterialExitResponse> getMaterialEntriesForExit() {
-        return materialEntryRepository.findAll().stream()
-                .collect(Collectors.groupingBy(
-                        me -> me.getProduct(),
-                        Collectors.summingDouble(me -> me.getRemainingQuantity())
-                ))
-                .entrySet().stream()
-                .map(entry -> new MaterialEntryProductsForMaterialExitResponse(
-                        entry.getKey().getId(),
-                        entry.getKey().getName(),
-                        entry.getKey().getCategory().getName(),
-                        entry.getKey().getMeasurementType().getName(),
-                        entry.getValue()
-                ))
-                .collect(Collectors.toList());
+        return productStockRepository.findProductsForMaterialExit();
     }
 
-    // depodan ürün çıkışı olduktan sonra depodaki kalan ürün miktarını günceller
+    // depodan ürün çıkışı olduktan sonra depodaki kalan ürün miktarını düşer.
+    // Okuyup kaydetmek yerine koşullu update yapılır, partide yeterli miktar kalmadıysa false döner
     @Override
-    public Double updateRemainingQuantity(Long materialEntryId, Double exitQuantity) {
-        MaterialEntry materialEntry = getMaterialEntryById(materialEntryId);
-        Double remainingQuantity = materialEntry.getRemainingQuantity();
-        Double newValue = remainingQuantity - exitQuantity;
-        materialEntry.setRemainingQuantity(newValue);
-        materialEntryRepository.save(materialEntry);
-        return newValue;
+    public boolean deductRemainingQuantity(Long materialEntryId, Double exitQuantity) {
+        return materialEntryRepository.deductRemainingQuantity(materialEntryId, exitQuantity) > 0;
     }
 
-    // devir işlemerini yapan metot  31 aralık ta saat 23.59 da tüm kalan ürünler devir ediyor
+    // başarısız bir çıkış denemesinde düşülmüş miktarı partiye geri ekler
     @Override
-    @Scheduled(cron = "0 59 23 31 12 ?") // Her yıl 31 Aralık 23:59'da çalışır
-    public List<MaterialEntryResponse> carryOverEntriesToNextYear() {
-
-        int currentYear = LocalDate.now().getYear();
-        LocalDate startDate = LocalDate.of(currentYear, 1, 1);
-        LocalDate endDate = LocalDate.of(currentYear, 12, 31);
-
-        List<MaterialEntry> entriesToCarryOver = materialEntryRepository.findEntriesWithinPeriod(startDate, endDate);
-
-        List<MaterialEntry> materialEntryList = new ArrayList<>();
-        LocalDate nextYearFirstDay = LocalDate.of(currentYear + 1, 1, 1);
-
-        for (MaterialEntry oldEntry : entriesToCarryOver) {
-            if (oldEntry.getRemainingQuantity() > 0) { // Sadece kalan miktarı olanları devret
-                MaterialEntry newEntry = new MaterialEntry();
-
-                Double totalPrice = oldEntry.getUnitPrice() * oldEntry.getRemainingQuantity();
-
-                newEntry.setProduct(oldEntry.getProduct());
-                newEntry.setQuantity(oldEntry.getRemainingQuantity());
-                newEntry.setRemainingQuantity(oldEntry.getRemainingQuantity());
-                newEntry.setExpiryDate(oldEntry.getExpiryDate());
-                newEntry.setEntryDate(nextYearFirstDay);
-                newEntry.setBudget(oldEntry.getBudget());
-                newEntry.setCompanyName(oldEntry.getCompanyName());
-                newEntry.setEntrySourceType(EntrySourceType.DEVIR);
-                newEntry.setTotalPriceIncludingVat(oldEntry.getTotalPriceIncludingVat());
-                newEntry.setDescription(oldEntry.getDescription());
-                newEntry.setPurchaseType(oldEntry.getPurchaseType());
-                newEntry.setPurchasedUnit(oldEntry.getPurchasedUnit());
-                newEntry.setTender(oldEntry.getTender());
-                newEntry.setTenderType(oldEntry.getTenderType());
-
-                newEntry.setUnitPrice(oldEntry.getUnitPrice());
-                newEntry.setUnitPriceIncludingVat(oldEntry.getUnitPriceIncludingVat());
-                newEntry.setTotalPrice(totalPrice);
-                materialEntryList.add(newEntry);
-                oldEntry.setRemainingQuantity(0.0);
-
-
-                materialEntryRepository.save(newEntry);
-                materialEntryRepository.save(oldEntry);
-            }
+    public void restoreRemainingQuantity(Long materialEntryId, Double quantity) {
+        if (materialEntryRepository.restoreRemainingQuantity(materialEntryId, quantity) == 0) {
+            throw new MaterialEntryNotFoundException("Material Entry Not Found");
         }
-        return mapToResponseList(materialEntryList);
     }
 
     private MaterialEntry mapToEntity(MaterialEntryCreateRequest request) {
@@ -439,62 +393,31 @@ public class MaterialEntryServiceImpl implements MaterialEntryService {
     }
 
     @Override
-    public List<Object> getAllProductDetail() {
-        try {
-            // Önce tüm ürünleri çek
-            List<Product> allProducts = productRepository.findAll();
-            
-            // Tüm malzeme girişlerini çek
-            List<MaterialEntry> allEntries = materialEntryRepository.findAll();
-            
-            // Product bazında grupla ve stok hesapla
-            Map<Long, Map<String, Object>> productStockMap = new HashMap<>();
-            
-            // Önce tüm ürünleri map'e ekle (stok 0 ile)
-            for (Product product : allProducts) {
-                Map<String, Object> productInfo = new HashMap<>();
-                productInfo.put("productId", product.getId());
-                productInfo.put("productName", product.getName());
-                productInfo.put("criticalLevel", product.getCriticalLevel());
-                productInfo.put("measurementUnitName", product.getMeasurementType() != null ? 
-                    product.getMeasurementType().getName() : "Adet");
-                productInfo.put("productCategoryName", product.getCategory() != null ? 
-                    product.getCategory().getName() : "Bilinmiyor");
-                productInfo.put("totalStockQuantity", 0.0);
-                productInfo.put("totalValue", 0.0);
-                productInfo.put("averageUnitPrice", 0.0);
-                productStockMap.put(product.getId(), productInfo);
-            }
-            
-            // Sonra malzeme girişlerini işle
-            for (MaterialEntry entry : allEntries) {
-                if (entry.getProduct() != null) {
-                    Long productId = entry.getProduct().getId();
-                    
-                    if (productStockMap.containsKey(productId)) {
-                        Map<String, Object> productInfo = productStockMap.get(productId);
-                        Double currentStock = (Double) productInfo.get("totalStockQuantity");
-                        Double currentValue = (Double) productInfo.get("totalValue");
-                        
-                        productInfo.put("totalStockQuantity", currentStock + (entry.getRemainingQuantity() != null ? entry.getRemainingQuantity() : 0));
-                        productInfo.put("totalValue", currentValue + (entry.getTotalPrice() != null ? entry.getTotalPrice() : 0));
-                        
-                        // Ortalama birim fiyat hesapla
-                        Double totalStock = (Double) productInfo.get("totalStockQuantity");
-                        Double totalValue = (Double) productInfo.get("totalValue");
-                        if (totalStock > 0) {
-                            productInfo.put("averageUnitPrice", totalValue / totalStock);
-                        }
-                    }
-                }
+    public List<ProductStockDetailResponse> getAllProductDetail() {
+        // Tüm ürünler stok özetleriyle birlikte tek sorguda, doğrudan cevap kaydına çekilir
+        return productStockRepository.findAllProductStockDetails();
+    }
+
+    // büyük katalogda liste bellekte kurulmadan satır satır yazılır, cevap RestResponse ile aynı yapıdadır
+    @Override
+    @Transactional(readOnly = true)
+    public void writeAllProductDetail(OutputStream outputStream) throws IOException {
+        try (Stream<ProductStockDetailResponse> details = productStockRepository.streamAllProductStockDetails();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("data");
+            // her satırdan sonra flush edilmez, generator tamponu doldukça yazar
+            ObjectWriter rowWriter = objectMapper.writerFor(ProductStockDetailResponse.class)
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            Iterator<ProductStockDetailResponse> iterator = details.iterator();
+            while (iterator.hasNext()) {
+                rowWriter.writeValue(generator, iterator.next());
             }
-            
-            return new ArrayList<>(productStockMap.values());
-            
-        } catch (Exception e) {
-            System.err.println("getAllProductDetail hatası: " + e.getMessage());
-            e.printStackTrace();
-            return new ArrayList<>();
+            generator.writeEndArray();
+            generator.writeStringField("responseDate", LocalDateTime.now().format(RESPONSE_DATE_FORMAT));
+            generator.writeBooleanField("success", true);
+            generator.writeStringField("message", "Operation completed successfully");
+            generator.writeEndObject();
         }
     }
 
@@ -1,51 +1,98 @@
 package com.inonu.stok_takip.Service.Impl;
 
+import com.inonu.stok_takip.Enum.ExitEngine;
+import com.inonu.stok_takip.Exception.MaterialExit.ClosedYearExitException;
 import com.inonu.stok_takip.Exception.MaterialExit.InsufficientStockException;
 import com.inonu.stok_takip.Exception.MaterialExit.MaterialExitNotFoundException;
-import com.inonu.stok_takip.Exception.Report.ReportDataNotFoundException;
+import com.inonu.stok_takip.Repositoriy.CarryOverCheckpointRepository;
+import com.inonu.stok_takip.Repositoriy.MaterialExitAllocationRepository;
+import com.inonu.stok_takip.Repositoriy.MaterialExitBatchRepository;
+import com.inonu.stok_takip.Repositoriy.MaterialExitBatchRepository.AllocationRow;
+import com.inonu.stok_takip.Repositoriy.MaterialExitBatchRepository.ConsumedLayerRow;
+import com.inonu.stok_takip.Repositoriy.MaterialExitBatchRepository.ExitRow;
+import com.inonu.stok_takip.Repositoriy.MaterialExitBatchRepository.OpenLotRow;
 import com.inonu.stok_takip.Repositoriy.MaterialExitRepository;
+import com.inonu.stok_takip.Service.DailyCostFactService;
 import com.inonu.stok_takip.Service.MaterialEntryService;
 import com.inonu.stok_takip.Service.MaterialExitService;
-import com.inonu.stok_takip.Service.ReportService;
-import com.inonu.stok_takip.Service.TicketSalesDetailService;
+import com.inonu.stok_takip.Service.ProductStockService;
+import com.inonu.stok_takip.Service.ReportRecomputeService;
+import com.inonu.stok_takip.Service.StockLedgerService;
+import com.inonu.stok_takip.Service.StockLedgerService.LotAllocation;
 import com.inonu.stok_takip.dto.Request.DateRequest;
+import com.inonu.stok_takip.dto.Request.HistoryPageRequest;
 import com.inonu.stok_takip.dto.Request.MaterialExitCreateRequest;
+import com.inonu.stok_takip.dto.Response.KeysetPageResponse;
+import com.inonu.stok_takip.dto.Response.MaterialExitAllocationResponse;
 import com.inonu.stok_takip.dto.Response.MaterialExitDetailResponse;
 import com.inonu.stok_takip.dto.Response.MaterialExitResponse;
 import com.inonu.stok_takip.dto.Response.ProductDetailResponse;
-import com.inonu.stok_takip.entitiy.MaterialEntry;
 import com.inonu.stok_takip.entitiy.MaterialExit;
+import com.inonu.stok_takip.entitiy.MaterialExitAllocation;
 import com.inonu.stok_takip.entitiy.Product;
-import org.springframework.context.annotation.Lazy;
+import com.inonu.stok_takip.util.DateRange;
+import com.inonu.stok_takip.util.KeysetCursor;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.transaction.support.TransactionSynchronizationManager;
-import org.springframework.transaction.support.TransactionSynchronization;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
-import java.util.Comparator;
 
 @Service
 @Transactional
 public class MaterialExitServiceImpl implements MaterialExitService {
 
+    private static final Logger log = LoggerFactory.getLogger(MaterialExitServiceImpl.class);
+
+    private static final double SQL_ALLOCATION_TOLERANCE = 1e-9;
+
     private final MaterialExitRepository materialExitRepository;
     private final MaterialEntryService materialEntryService;
-    private final ReportService reportService;
-    private final TicketSalesDetailService ticketSalesDetailService;
+    private final ReportRecomputeService reportRecomputeService;
+    private final StockLedgerService stockLedgerService;
+    private final MaterialExitBatchRepository materialExitBatchRepository;
+    private final ProductStockService productStockService;
+    private final MaterialExitAllocationRepository materialExitAllocationRepository;
+    private final DailyCostFactService dailyCostFactService;
+    private final CarryOverCheckpointRepository carryOverCheckpointRepository;
+    private final EntityManager entityManager;
+
+    @Value("${material-exit.engine:LEDGER}")
+    private ExitEngine exitEngine;
+
+    @Value("${material-exit.max-retries:3}")
+    private int maxRetries;
 
     public MaterialExitServiceImpl(MaterialExitRepository materialExitRepository,
                                    MaterialEntryService materialEntryService,
-                                   @Lazy ReportService reportService,
-                                   @Lazy TicketSalesDetailService ticketSalesDetailService) {
+                                   ReportRecomputeService reportRecomputeService,
+                                   StockLedgerService stockLedgerService,
+                                   MaterialExitBatchRepository materialExitBatchRepository,
+                                   ProductStockService productStockService,
+                                   MaterialExitAllocationRepository materialExitAllocationRepository,
+                                   DailyCostFactService dailyCostFactService,
+                                   CarryOverCheckpointRepository carryOverCheckpointRepository,
+                                   EntityManager entityManager) {
         this.materialExitRepository = materialExitRepository;
         this.materialEntryService = materialEntryService;
-        this.reportService = reportService;
-        this.ticketSalesDetailService = ticketSalesDetailService;
+        this.reportRecomputeService = reportRecomputeService;
+        this.stockLedgerService = stockLedgerService;
+        this.materialExitBatchRepository = materialExitBatchRepository;
+        this.productStockService = productStockService;
+        this.materialExitAllocationRepository = materialExitAllocationRepository;
+        this.dailyCostFactService = dailyCostFactService;
+        this.carryOverCheckpointRepository = carryOverCheckpointRepository;
+        this.entityManager = entityManager;
     }
 
     @Override
@@ -54,129 +101,260 @@ public class MaterialExitServiceImpl implements MaterialExitService {
         return mapToResponseList(materialExits);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPageResponse<MaterialExitResponse> getMaterialExitPage(HistoryPageRequest request) {
+        request.validate();
+        KeysetCursor cursor = request.decodedCursor();
+        List<MaterialExit> rows = materialExitRepository.findPage(
+                request.productId(),
+                request.categoryId(),
+                request.startDate(),
+                request.endDateExclusive(),
+                request.recipient(),
+                cursor != null ? cursor.date() : null,
+                cursor != null ? cursor.id() : null,
+                Limit.of(request.pageSize() + 1));
+        return KeysetPageResponse.of(rows, request.pageSize(), this::mapToResponse,
+                exit -> new KeysetCursor(exit.getExitDate(), exit.getId()));
+    }
+
     @Override
     public List<MaterialExitResponse> exitMaterials(MaterialExitCreateRequest request){
+        List<MaterialExitResponse> responses = switch (exitEngine) {
+            case BATCH -> exitMaterialsInBatch(request);
+            case SQL -> exitMaterialsInDatabase(request);
+            default -> exitMaterialsFromLedger(request);
+        };
+
+        // Tüm MaterialExit kayıtları kaydedildikten sonra flush yap
+        // Böylece transaction commit edildiğinde veriler görünür olur
+        materialExitRepository.flush();
+
+        // günlük maliyet özeti çıkışlarla aynı transaction içinde güncellenir
+        LocalDate exitDate = request.exitDate();
+        dailyCostFactService.refresh(exitDate);
+
+        // günlük rapor commit sonrası arka planda yeniden hesaplanır, istek hesaplamayı beklemez
+        reportRecomputeService.enqueue(exitDate);
+
+        return responses;
+    }
+
+    private List<MaterialExitResponse> exitMaterialsFromLedger(MaterialExitCreateRequest request) {
         Map<Long, Double> productQuantities = request.productQuantities();
         List<MaterialExitResponse> responses = new ArrayList<>();
 
+        List<MaterialExit> exits = new ArrayList<>();
+        List<List<LotAllocation>> allocationsPerExit = new ArrayList<>();
+
         checkProductsInStock(productQuantities);
 
-        for (Map.Entry<Long, Double> entry : productQuantities.entrySet()) {
-            MaterialExit materialExit = createExitForSingleProduct(entry.getKey(), entry.getValue(), request);
+        // ürünler her istekte aynı sırada işlenir, farklı sırayla satır kilitleyen iki çıkış kilitlenmez
+        for (Map.Entry<Long, Double> entry : new TreeMap<>(productQuantities).entrySet()) {
+            List<LotAllocation> allocations = deductFromLots(entry.getKey(), entry.getValue());
+            MaterialExit materialExit = createExitForSingleProduct(entry.getKey(), allocations, request);
+            exits.add(materialExit);
+            allocationsPerExit.add(allocations);
             responses.add(mapToResponse(materialExit));
         }
 
-        // Tüm MaterialExit kayıtları kaydedildikten sonra flush yap
-        // Böylece transaction commit edildiğinde veriler görünür olur
+        // çıkışlar tek insert batch'i olarak yazılır; parti kayıtları çıkış satırlarına bağlı olduğundan flush'tan sonra eklenir
         materialExitRepository.flush();
-
-        // Transaction commit edildikten sonra rapor güncellemesi yapılacak
-        // Bu işlem transaction commit edildikten sonra çalışacak
-        LocalDate exitDate = request.exitDate();
-        scheduleReportUpdateAfterCommit(exitDate);
-
+        insertExitAllocations(exits.stream().map(MaterialExit::getId).toList(), allocationsPerExit);
+        for (int i = 0; i < exits.size(); i++) {
+            MaterialExit materialExit = exits.get(i);
+            Long productId = materialExit.getProduct().getId();
+            productStockService.decrease(productId, materialExit.getQuantity(), materialExit.getTotalPrice());
+            stockLedgerService.consume(productId, allocationsPerExit.get(i));
+        }
         return responses;
     }
 
-    // Transaction commit edildikten sonra rapor güncellemesi yapmak için
-    // TransactionSynchronizationManager kullanarak commit sonrası callback kaydeder
-    private void scheduleReportUpdateAfterCommit(LocalDate exitDate) {
-        if (TransactionSynchronizationManager.isActualTransactionActive()) {
-            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
-                @Override
-                public void afterCommit() {
-                    updateReportAfterExit(exitDate);
-                }
-            });
-        } else {
-            // Eğer transaction yoksa direkt çağır
-            updateReportAfterExit(exitDate);
+    // toplu çıkış: tüm ürünlerin açık partileri tek sorguyla okunup kilitlenir, FIFO dağıtımı bellekte yapılır,
+    // kalan miktarlar ve çıkış kayıtları JDBC batch olarak yazılır
+    private List<MaterialExitResponse> exitMaterialsInBatch(MaterialExitCreateRequest request) {
+        Map<Long, Double> productQuantities = request.productQuantities();
+        Map<Long, List<OpenLotRow>> lotsByProduct = materialExitBatchRepository
+                .findOpenLotsByProductIds(productQuantities.keySet()).stream()
+                .collect(Collectors.groupingBy(OpenLotRow::productId));
+
+        // checkProductsInStock ile aynı kontrol, stok miktarı okunan partilerden hesaplanır
+        for (Map.Entry<Long, Double> entry : productQuantities.entrySet()) {
+            double stock = lotsByProduct.getOrDefault(entry.getKey(), List.of()).stream()
+                    .mapToDouble(OpenLotRow::remainingQuantity)
+                    .sum();
+            if (stock < entry.getValue()) {
+                throw new InsufficientStockException("Stok yetersiz ");
+            }
         }
-    }
 
-    // Transaction dışında çalışan, rapor güncelleme metodu
-    // Bu metod exitMaterials transaction'ı commit edildikten sonra çağrılır
-    private void updateReportAfterExit(LocalDate exitDate) {
-        try {
-            // Eğer o gün için fiş kaydı varsa, raporu mutlaka oluştur/güncelle
-            // Her çıkış yapıldığında rapor güncellenmeli
-            Integer ticketQuantity = ticketSalesDetailService.getTicketCountByDay(exitDate);
-            Integer totalPerson = ticketSalesDetailService.getTotalPersonByDay(exitDate);
-            boolean hasTicketData = (ticketQuantity != null && ticketQuantity > 0) || 
-                                   (totalPerson != null && totalPerson > 0);
-            
-            if (hasTicketData) {
-                // O gün için fiş kaydı varsa, raporu mutlaka oluştur/güncelle
-                try {
-                    reportService.calculateDailyReport(exitDate);
-                } catch (Exception e) {
-                    // Rapor oluşturma hatası malzeme çıkışını etkilemez, sadece logla
-                    System.err.println("Rapor güncellenirken hata (fiş kaydı var): " + e.getMessage());
-                    e.printStackTrace();
-                }
-            } else {
-                // Fiş kaydı yoksa, sadece malzeme çıkışı varsa rapor oluştur
-                try {
-                    reportService.calculateDailyReport(exitDate);
-                } catch (ReportDataNotFoundException e) {
-                    // Veri yeterli değilse rapor oluşturulmaz, normal durum
-                } catch (Exception e) {
-                    System.err.println("Rapor oluşturulurken hata: " + e.getMessage());
-                    e.printStackTrace();
+        Map<Long, Double> newRemainingQuantities = new LinkedHashMap<>();
+        List<ExitRow> exitRows = new ArrayList<>();
+        List<List<LotAllocation>> allocationsPerExit = new ArrayList<>();
+        List<MaterialExitResponse> responses = new ArrayList<>();
+
+        for (Map.Entry<Long, Double> entry : productQuantities.entrySet()) {
+            Long productId = entry.getKey();
+            Double quantity = entry.getValue();
+
+            List<LotAllocation> allocations = new ArrayList<>();
+            double remainingQuantityToDeduct = quantity;
+            double productCost = 0.0;
+            double productQuantity = 0.0;
+
+            for (OpenLotRow lot : lotsByProduct.getOrDefault(productId, List.of())) {
+                if (remainingQuantityToDeduct <= 0) {
+                    break;
                 }
+                double deductedQuantity = Math.min(remainingQuantityToDeduct, lot.remainingQuantity());
+                remainingQuantityToDeduct -= deductedQuantity;
+
+                productCost += deductedQuantity * lot.unitPriceIncludingVat();
+                productQuantity += deductedQuantity;
+
+                newRemainingQuantities.put(lot.entryId(), lot.remainingQuantity() - deductedQuantity);
+                allocations.add(new LotAllocation(lot.entryId(), deductedQuantity, lot.unitPriceIncludingVat()));
             }
-        } catch (Exception e) {
-            // Rapor oluşturma hatası malzeme çıkışını etkilemez, sadece logla
-            System.err.println("Rapor otomatik oluşturulurken hata: " + e.getMessage());
-            e.printStackTrace();
+
+            if (remainingQuantityToDeduct > 0) {
+                throw new InsufficientStockException("Yetersiz stok: " + productId +
+                    ". Gereken: " + quantity + ", Mevcut: " + (quantity - remainingQuantityToDeduct));
+            }
+
+            double averageUnitPrice = (productQuantity > 0) ? (productCost / productQuantity) : 0.0;
+
+            exitRows.add(new ExitRow(productId, averageUnitPrice, productQuantity, productCost,
+                    request.exitDate(), request.recipient(), request.description()));
+            allocationsPerExit.add(allocations);
+            responses.add(new MaterialExitResponse(averageUnitPrice, productQuantity, request.description(),
+                    productCost, request.exitDate(), request.recipient(), productId));
+            stockLedgerService.consume(productId, allocations);
+        }
+
+        materialExitBatchRepository.updateRemainingQuantities(newRemainingQuantities);
+        List<Long> exitIds = materialExitBatchRepository.insertMaterialExits(exitRows);
+        insertExitAllocations(exitIds, allocationsPerExit);
+        for (ExitRow exitRow : exitRows) {
+            productStockService.decrease(exitRow.productId(), exitRow.quantity(), exitRow.totalPrice());
         }
+        return responses;
     }
 
-    private MaterialExit createExitForSingleProduct(Long productId, Double quantity, MaterialExitCreateRequest request) {
-        List<MaterialEntry> materialEntries = materialEntryService.getMaterialEntryByProductId(productId);
+    // veritabanında FIFO: her ürün için dağıtım ve stok düşümü tek sorguda yapılır, entity yüklenmez.
+    // Ayrı stok kontrolü yapılmaz, stok yetmezse exception ile transaction geri alınır
+    private List<MaterialExitResponse> exitMaterialsInDatabase(MaterialExitCreateRequest request) {
+        List<ExitRow> exitRows = new ArrayList<>();
+        List<List<LotAllocation>> allocationsPerExit = new ArrayList<>();
+        List<MaterialExitResponse> responses = new ArrayList<>();
 
-        // FIFO için tarih sırasına göre sırala (en eski önce)
-        materialEntries.sort(Comparator.comparing(MaterialEntry::getCreateDate));
+        for (Map.Entry<Long, Double> entry : new TreeMap<>(request.productQuantities()).entrySet()) {
+            Long productId = entry.getKey();
+            Double quantity = entry.getValue();
 
-        List<MaterialEntry> entriesUsedForExit = new ArrayList<>();
-        double remainingQuantityToDeduct = quantity;
-        double productCost = 0.0;
-        double productQuantity = 0.0;
+            List<LotAllocation> allocations = new ArrayList<>();
+            double productCost = 0.0;
+            double productQuantity = 0.0;
 
-        for (MaterialEntry materialEntry : materialEntries) {
-            if (remainingQuantityToDeduct <= 0) {
-                break;
+            for (ConsumedLayerRow layer : materialExitBatchRepository.allocateFifo(productId, quantity)) {
+                productCost += layer.quantity() * layer.unitPriceIncludingVat();
+                productQuantity += layer.quantity();
+                allocations.add(new LotAllocation(layer.entryId(), layer.quantity(), layer.unitPriceIncludingVat()));
             }
 
-            // Sadece kalan miktarı olan entry'leri kullan
-            if (materialEntry.getRemainingQuantity() <= 0) {
-                continue;
+            // veritabanındaki kümülatif toplamın yuvarlama farkı yetersiz stok sayılmasın
+            if (quantity - productQuantity > SQL_ALLOCATION_TOLERANCE) {
+                throw new InsufficientStockException("Yetersiz stok: " + productId +
+                    ". Gereken: " + quantity + ", Mevcut: " + productQuantity);
             }
 
-            double deductedQuantity = Math.min(remainingQuantityToDeduct, materialEntry.getRemainingQuantity());
-            remainingQuantityToDeduct -= deductedQuantity;
+            double averageUnitPrice = (productQuantity > 0) ? (productCost / productQuantity) : 0.0;
 
-            productCost += deductedQuantity * materialEntry.getUnitPriceIncludingVat();
-            productQuantity += deductedQuantity;
+            exitRows.add(new ExitRow(productId, averageUnitPrice, productQuantity, productCost,
+                    request.exitDate(), request.recipient(), request.description()));
+            allocationsPerExit.add(allocations);
+            responses.add(new MaterialExitResponse(averageUnitPrice, productQuantity, request.description(),
+                    productCost, request.exitDate(), request.recipient(), productId));
+            productStockService.decrease(productId, productQuantity, productCost);
+            stockLedgerService.consume(productId, allocations);
+        }
 
-            entriesUsedForExit.add(materialEntry);
+        List<Long> exitIds = materialExitBatchRepository.insertMaterialExits(exitRows);
+        insertExitAllocations(exitIds, allocationsPerExit);
+        return responses;
+    }
+
+    // her çıkışın tükettiği partiler çıkış anındaki birim fiyatla kaydedilir, iptalde aynı partilere geri eklenir
+    private void insertExitAllocations(List<Long> exitIds, List<List<LotAllocation>> allocationsPerExit) {
+        List<AllocationRow> allocationRows = new ArrayList<>();
+        for (int i = 0; i < exitIds.size(); i++) {
+            for (LotAllocation allocation : allocationsPerExit.get(i)) {
+                allocationRows.add(new AllocationRow(exitIds.get(i), allocation.entryId(),
+                        allocation.quantity(), allocation.unitPriceIncludingVat()));
+            }
         }
+        materialExitBatchRepository.insertExitAllocations(allocationRows);
+    }
 
-        // Eğer yeterli stok yoksa exception fırlat
-        if (remainingQuantityToDeduct > 0) {
-            throw new InsufficientStockException("Yetersiz stok: " + productId + 
-                ". Gereken: " + quantity + ", Mevcut: " + (quantity - remainingQuantityToDeduct));
+    // çıkış kaydı persist edilir, insert flush'a kadar bekler.
+    // Ürün id'si bilindiği için ürün yüklenmez, sadece referansı bağlanır
+    private MaterialExit createExitForSingleProduct(Long productId, List<LotAllocation> allocations,
+                                                    MaterialExitCreateRequest request) {
+        double productCost = 0.0;
+        double productQuantity = 0.0;
+
+        for (LotAllocation allocation : allocations) {
+            productCost += allocation.quantity() * allocation.unitPriceIncludingVat();
+            productQuantity += allocation.quantity();
         }
 
         double averageUnitPrice = (productQuantity > 0) ? (productCost / productQuantity) : 0.0;
 
-        MaterialExit materialExit = buildMaterialExit(entriesUsedForExit.get(0).getProduct(), averageUnitPrice, productQuantity, productCost, request);
+        Product product = entityManager.getReference(Product.class, productId);
+        MaterialExit materialExit = buildMaterialExit(product, averageUnitPrice, productQuantity, productCost, request);
+
+        return materialExitRepository.save(materialExit);
+    }
+
+    // FIFO dağıtımı sadece açık partileri tutan defterden yapılır (en eski önce), stok her partide koşullu düşülür.
+    // Defter henüz commit edilmemiş başka bir çıkışı görmediği için bir parti yetmeyebilir; o durumda
+    // bu denemede düşülenler geri eklenir, ürün veritabanından yeniden yüklenir ve en fazla maxRetries kez denenir
+    private List<LotAllocation> deductFromLots(Long productId, Double quantity) {
+        for (int attempt = 1; ; attempt++) {
+            List<LotAllocation> allocations = stockLedgerService.allocate(productId, quantity);
+
+            double remainingQuantityToDeduct = quantity;
+            for (LotAllocation allocation : allocations) {
+                remainingQuantityToDeduct -= allocation.quantity();
+            }
 
-        MaterialExit savedExit = materialExitRepository.save(materialExit);
+            // Eğer yeterli stok yoksa exception fırlat
+            if (remainingQuantityToDeduct > 0) {
+                throw new InsufficientStockException("Yetersiz stok: " + productId +
+                    ". Gereken: " + quantity + ", Mevcut: " + (quantity - remainingQuantityToDeduct));
+            }
 
-        updateMaterialEntriesStock(entriesUsedForExit, quantity);
+            List<LotAllocation> deducted = new ArrayList<>();
+            for (LotAllocation allocation : allocations) {
+                if (!materialEntryService.deductRemainingQuantity(allocation.entryId(), allocation.quantity())) {
+                    break;
+                }
+                deducted.add(allocation);
+            }
+            if (deducted.size() == allocations.size()) {
+                return allocations;
+            }
 
-        return savedExit;
+            for (LotAllocation allocation : deducted) {
+                materialEntryService.restoreRemainingQuantity(allocation.entryId(), allocation.quantity());
+            }
+            stockLedgerService.evict(productId);
+
+            if (attempt >= maxRetries) {
+                throw new InsufficientStockException("Eşzamanlı çıkışlar nedeniyle stok ayrılamadı: " + productId +
+                    ". Deneme sayısı: " + attempt);
+            }
+        }
     }
 
     private MaterialExit buildMaterialExit(Product product, Double unitPrice, Double quantity,
@@ -191,20 +369,6 @@ public class MaterialExitServiceImpl implements MaterialExitService {
         materialExit.setDescription(request.description());
         return materialExit;
     }
-    private void updateMaterialEntriesStock(List<MaterialEntry> entriesUsedForExit, double totalQuantity) {
-        double remainingToDeduct = totalQuantity;
-
-        for (MaterialEntry materialEntry : entriesUsedForExit) {
-            if (remainingToDeduct <= 0) {
-                break;
-            }
-
-            double deducted = Math.min(materialEntry.getRemainingQuantity(), remainingToDeduct);
-            materialEntryService.updateRemainingQuantity(materialEntry.getId(), deducted);
-            remainingToDeduct -= deducted;
-        }
-    }
-
     private void checkProductsInStock(Map<Long, Double> productQuantities) {
         for (Map.Entry<Long, Double> entry : productQuantities.entrySet()) {
             Long productId = entry.getKey();
@@ -226,11 +390,58 @@ public class MaterialExitServiceImpl implements MaterialExitService {
     @Override
     public MaterialExitResponse deleteMaterialExit(Long id) {
         MaterialExit toDelete = getMaterialExitById(id);
+        Long productId = toDelete.getProduct().getId();
+
+        // devri yapılmış yılın partileri sıfırlanıp kalanları ertesi yılın DEVIR girişine taşındı; iade eski partiye
+        // yazılırsa devredilmiş miktar ikinci kez stoğa girer, DEVIR girişi de kaynak partiyi tutmadığı için
+        // iade oraya yönlendirilemez. Bu yüzden devri başlamış yılların çıkışları silinemez
+        int exitYear = toDelete.getExitDate().getYear();
+        if (carryOverCheckpointRepository.existsByCarryOverYearGreaterThanEqual(exitYear)) {
+            throw new ClosedYearExitException("Devri yapılmış yılın çıkışı silinemez: " + id + " (" + exitYear + ")");
+        }
+
+        // çıkışın tükettiği partiler kayıtlı olduğu için FIFO yeniden çalıştırılmadan aynı partilere geri eklenir
+        List<MaterialExitAllocation> allocations = materialExitAllocationRepository.findByMaterialExitId(id);
+        if (allocations.isEmpty()) {
+            // parti kaydı tutulmadan önce yapılmış çıkış, hangi partiden düştüğü bilinmediği için stok iade edilmez
+            log.warn("Parti kaydı olmayan çıkış silindi, stok iade edilmedi: {}", id);
+        } else {
+            double restoredQuantity = 0.0;
+            double restoredValue = 0.0;
+            for (MaterialExitAllocation allocation : allocations) {
+                materialEntryService.restoreRemainingQuantity(allocation.getMaterialEntry().getId(), allocation.getQuantity());
+                restoredQuantity += allocation.getQuantity();
+                restoredValue += allocation.getQuantity() * allocation.getUnitPrice();
+            }
+            productStockService.increase(productId, restoredQuantity, restoredValue, null);
+            materialExitAllocationRepository.deleteByMaterialExitId(id);
+            stockLedgerService.invalidate(productId);
+        }
+
         materialExitRepository.delete(toDelete);
+        materialExitRepository.flush();
+        dailyCostFactService.refresh(toDelete.getExitDate());
+        reportRecomputeService.enqueue(toDelete.getExitDate());
         return mapToResponse(toDelete);
 
     }
 
+    // çıkışın maliyetinin hangi girişlerden (firma, tarih, birim fiyat) geldiğini döndürür
+    @Override
+    public List<MaterialExitAllocationResponse> getMaterialExitAllocations(Long id) {
+        getMaterialExitById(id);
+        return materialExitAllocationRepository.findByMaterialExitId(id).stream()
+                .map(allocation -> new MaterialExitAllocationResponse(
+                        allocation.getMaterialEntry().getId(),
+                        allocation.getMaterialEntry().getCompanyName(),
+                        allocation.getMaterialEntry().getEntryDate(),
+                        allocation.getMaterialEntry().getEntrySourceType(),
+                        allocation.getQuantity(),
+                        allocation.getUnitPrice(),
+                        allocation.getQuantity() * allocation.getUnitPrice()))
+                .collect(Collectors.toList());
+    }
+
 
     // bundan sonrası fiş ve rapor yapısı için eklenmiştir deneme amaçlı
 
@@ -247,7 +458,7 @@ public class MaterialExitServiceImpl implements MaterialExitService {
 
     //bir haftalık depodan çıkan toplam mazlzeme tutarları
     public Double getMaterialsByWeek(LocalDate date){
-        Double totalAmount = materialExitRepository.findTotalByWeek(date);
+        Double totalAmount = findTotalBetween(DateRange.week(date));
         if (totalAmount == null) {
             return null;
         }
@@ -257,7 +468,7 @@ public class MaterialExitServiceImpl implements MaterialExitService {
     // bir aylık toplam depodan çıkan ürünlerin toplam fiyatı
     @Override
     public Double getMaterialsByMonthAndYear(LocalDate monthDate) {
-        Double totalAmount = materialExitRepository.findTotalByMonth(monthDate);;
+        Double totalAmount = findTotalBetween(DateRange.month(monthDate));
         if (totalAmount == null) {
             return null;
         }
@@ -267,7 +478,7 @@ public class MaterialExitServiceImpl implements MaterialExitService {
     // bir yıllık toplam depodan çıkan ürünlerin toplam fiyatı
     @Override
     public Double getMaterialsByYear(LocalDate yearDate) {
-        Double totalAmount = materialExitRepository.findTotalByYear(yearDate);
+        Double totalAmount = findTotalBetween(DateRange.year(yearDate));
         if (totalAmount == null) {
             return null;
         }
@@ -278,7 +489,7 @@ public class MaterialExitServiceImpl implements MaterialExitService {
 
     @Override
     public Integer numberMealsInDay(LocalDate dayDate){
-        Integer totalPerson = materialExitRepository.findTotalPersonsByDay(dayDate);
+        Integer totalPerson = findTotalPersonsBetween(DateRange.day(dayDate));
         if (totalPerson == null) {
             return 0;
         }
@@ -286,7 +497,7 @@ public class MaterialExitServiceImpl implements MaterialExitService {
     }
     @Override
     public Integer numberMealsInWeek(LocalDate weekDate){
-        Integer totalPerson = materialExitRepository.findTotalPersonsByWeek(weekDate);
+        Integer totalPerson = findTotalPersonsBetween(DateRange.week(weekDate));
         if (totalPerson == null) {
             return 0;
         }
@@ -294,7 +505,7 @@ public class MaterialExitServiceImpl implements MaterialExitService {
     }
     @Override
     public Integer numberMealsInMonth(LocalDate monthDate){
-        Integer totalPerson = materialExitRepository.findTotalPersonsByMonth(monthDate);
+        Integer totalPerson = findTotalPersonsBetween(DateRange.month(monthDate));
         if (totalPerson == null) {
             return 0;
         }
@@ -302,7 +513,7 @@ public class MaterialExitServiceImpl implements MaterialExitService {
     }
     @Override
     public Integer numberMealsInYear(LocalDate yearDate){
-        Integer totalPerson = materialExitRepository.findTotalPersonsByYear(yearDate);
+        Integer totalPerson = findTotalPersonsBetween(DateRange.year(yearDate));
         if (totalPerson == null) {
             return 0;
         }
@@ -310,6 +521,14 @@ public class MaterialExitServiceImpl implements MaterialExitService {
     }
 
 
+    private Double findTotalBetween(DateRange range) {
+        return materialExitRepository.findTotalBetween(range.startDate(), range.endDate());
+    }
+
+    private Integer findTotalPersonsBetween(DateRange range) {
+        return materialExitRepository.findTotalPersonsBetween(range.startDate(), range.endDate());
+    }
+
     @Override
     public List<MaterialExitDetailResponse> getMaterialExitBetweenDates(DateRequest dateRequest){
         List<MaterialExit> materialExits = materialExitRepository.findByExitDateBetween(
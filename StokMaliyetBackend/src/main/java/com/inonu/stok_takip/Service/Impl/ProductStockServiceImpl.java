@@ -0,0 +1,77 @@
+package com.inonu.stok_takip.Service.Impl;
+
+import com.inonu.stok_takip.Repositoriy.ProductStockRepository;
+import com.inonu.stok_takip.Service.DashboardService;
+import com.inonu.stok_takip.Service.ProductStockService;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+@Service
+@Transactional
+public class ProductStockServiceImpl implements ProductStockService {
+
+    private final ProductStockRepository productStockRepository;
+    private final DashboardService dashboardService;
+
+    public ProductStockServiceImpl(ProductStockRepository productStockRepository,
+                                   @Lazy DashboardService dashboardService) {
+        this.productStockRepository = productStockRepository;
+        this.dashboardService = dashboardService;
+    }
+
+    // tablo ilk kez oluşturulduğunda mevcut girişlerden doldurulur
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (productStockRepository.count() == 0) {
+            rebuildAll();
+        }
+    }
+
+    @Override
+    public void increase(Long productId, Double quantity, Double value, LocalDate entryDate) {
+        productStockRepository.applyChange(productId, quantity, value, entryDate);
+        dashboardService.invalidateStockStats();
+    }
+
+    @Override
+    public void decrease(Long productId, Double quantity, Double value) {
+        if (productStockRepository.decrease(productId, quantity, value) == 0) {
+            // özeti olmayan ürün (tablo dışından eklenmiş giriş) girişlerden hesaplanır, çıkış zaten düşülmüş olur
+            recalculate(productId);
+        }
+        dashboardService.invalidateStockStats();
+    }
+
+    @Override
+    public void recordEntryDate(Collection<Long> productIds, LocalDate entryDate) {
+        if (!productIds.isEmpty()) {
+            productStockRepository.updateLastEntryDate(productIds, entryDate);
+        }
+    }
+
+    @Override
+    public void recalculate(Long productId) {
+        productStockRepository.deleteByProductId(productId);
+        productStockRepository.insertFromEntries(productId);
+        dashboardService.invalidateStockStats();
+    }
+
+    @Override
+    public void rebuildAll() {
+        productStockRepository.deleteAllRows();
+        productStockRepository.insertAllFromEntries();
+        dashboardService.invalidateStockStats();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Double getOnHandQuantity(Long productId) {
+        return productStockRepository.findOnHandQuantityByProductId(productId);
+    }
+}
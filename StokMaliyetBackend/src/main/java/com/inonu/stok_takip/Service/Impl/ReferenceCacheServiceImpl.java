@@ -0,0 +1,76 @@
+package com.inonu.stok_takip.Service.Impl;
+
+import com.inonu.stok_takip.Service.ReferenceCacheService;
+import com.inonu.stok_takip.dto.Response.CacheRegionStatsResponse;
+import com.inonu.stok_takip.dto.Response.ReferenceCacheStatsResponse;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@Service
+public class ReferenceCacheServiceImpl implements ReferenceCacheService {
+
+    private final SessionFactory sessionFactory;
+
+    public ReferenceCacheServiceImpl(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    @Override
+    public ReferenceCacheStatsResponse getStats() {
+        Statistics statistics = sessionFactory.getStatistics();
+
+        List<CacheRegionStatsResponse> regions = new ArrayList<>();
+        for (String regionName : sortedRegionNames(statistics)) {
+            CacheRegionStatistics region = regionStatistics(statistics, regionName);
+            if (region != null) {
+                regions.add(new CacheRegionStatsResponse(regionName, region.getHitCount(), region.getMissCount(),
+                        region.getPutCount(), hitRatio(region.getHitCount(), region.getMissCount())));
+            }
+        }
+
+        return new ReferenceCacheStatsResponse(
+                statistics.isStatisticsEnabled(),
+                statistics.getSecondLevelCacheHitCount(),
+                statistics.getSecondLevelCacheMissCount(),
+                statistics.getSecondLevelCachePutCount(),
+                hitRatio(statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount()),
+                statistics.getQueryCacheHitCount(),
+                statistics.getQueryCacheMissCount(),
+                statistics.getQueryCachePutCount(),
+                hitRatio(statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount()),
+                regions);
+    }
+
+    // sadece önbellek boşaltılır; isabet sayaçları uygulama açıldığından beri birikmeye devam eder
+    @Override
+    public void evictAll() {
+        sessionFactory.getCache().evictAllRegions();
+    }
+
+    // istatistiği tutulmayan bölgeler (tablo zaman damgaları) listeye alınmaz
+    private CacheRegionStatistics regionStatistics(Statistics statistics, String regionName) {
+        try {
+            return statistics.getCacheRegionStatistics(regionName);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private List<String> sortedRegionNames(Statistics statistics) {
+        String[] names = statistics.getSecondLevelCacheRegionNames();
+        Arrays.sort(names);
+        return Arrays.asList(names);
+    }
+
+    private Double hitRatio(long hits, long misses) {
+        long total = hits + misses;
+        return total > 0 ? (double) hits / total : 0.0;
+    }
+}
@@ -0,0 +1,175 @@
+package com.inonu.stok_takip.Service.Impl;
+
+import com.inonu.stok_takip.Enum.BackfillDateStatus;
+import com.inonu.stok_takip.Enum.BackfillStatus;
+import com.inonu.stok_takip.Exception.MaterialEntry.InvalidDateRangeException;
+import com.inonu.stok_takip.Exception.Report.ReportBackfillNotFoundException;
+import com.inonu.stok_takip.Repositoriy.ReportRepository;
+import com.inonu.stok_takip.Service.ReportBackfillService;
+import com.inonu.stok_takip.Service.ReportService;
+import com.inonu.stok_takip.dto.Response.ReportBackfillDateResponse;
+import com.inonu.stok_takip.dto.Response.ReportBackfillResponse;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+@Service
+public class ReportBackfillServiceImpl implements ReportBackfillService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportBackfillServiceImpl.class);
+
+    private static final int MAX_RANGE_DAYS = 3660;
+    private static final int KEPT_JOBS = 20;
+
+    private final ReportRepository reportRepository;
+    private final ReportService reportService;
+    private final ExecutorService executor;
+
+    // son işler başlangıç sırasıyla tutulur, en eskisi sınır aşılınca düşer
+    private final Map<String, BackfillJob> jobs = Collections.synchronizedMap(new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, BackfillJob> eldest) {
+            return size() > KEPT_JOBS;
+        }
+    });
+
+    // her gün kendi transaction'ında hesaplanır; thread sayısı bağlantı havuzunun altında tutulmalı
+    public ReportBackfillServiceImpl(ReportRepository reportRepository,
+                                     @Lazy ReportService reportService,
+                                     @Value("${report.backfill-threads:4}") int threads) {
+        this.reportRepository = reportRepository;
+        this.reportService = reportService;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "report-backfill-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public ReportBackfillResponse startBackfill(LocalDate startDate, LocalDate endDate, boolean force) {
+        if (startDate == null || endDate == null || startDate.isAfter(endDate)
+                || startDate.plusDays(MAX_RANGE_DAYS).isBefore(endDate)) {
+            throw new InvalidDateRangeException("Geçersiz tarih aralığı: " + startDate + " - " + endDate);
+        }
+
+        List<LocalDate> dates = reportRepository.findDatesNeedingDailyReport(startDate, endDate, force);
+        BackfillJob job = new BackfillJob(UUID.randomUUID().toString(), startDate, endDate, force, dates);
+        jobs.put(job.id, job);
+
+        List<CompletableFuture<Void>> futures = dates.stream()
+                .map(date -> CompletableFuture.runAsync(() -> job.run(date, reportService), executor))
+                .collect(Collectors.toList());
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .whenComplete((ignored, error) -> job.finish());
+        return job.toResponse(false);
+    }
+
+    @Override
+    public ReportBackfillResponse getBackfill(String jobId) {
+        BackfillJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new ReportBackfillNotFoundException("Rapor yeniden hesaplama işi bulunamadı: " + jobId);
+        }
+        return job.toResponse(true);
+    }
+
+    @Override
+    public List<ReportBackfillResponse> getRecentBackfills() {
+        synchronized (jobs) {
+            return jobs.values().stream()
+                    .map(job -> job.toResponse(false))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static final class BackfillJob {
+
+        private final String id;
+        private final LocalDate startDate;
+        private final LocalDate endDate;
+        private final boolean force;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final long startedNanos = System.nanoTime();
+        // günlerin sonuçları tarih sırasıyla, her gün bittiğinde kendi kaydının yerine yazılır
+        private final ConcurrentSkipListMap<LocalDate, ReportBackfillDateResponse> results = new ConcurrentSkipListMap<>();
+        private final AtomicInteger updated = new AtomicInteger();
+        private final AtomicInteger empty = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private volatile LocalDateTime finishedAt;
+        private volatile long elapsedMillis;
+
+        private BackfillJob(String id, LocalDate startDate, LocalDate endDate, boolean force, List<LocalDate> dates) {
+            this.id = id;
+            this.startDate = startDate;
+            this.endDate = endDate;
+            this.force = force;
+            for (LocalDate date : dates) {
+                results.put(date, new ReportBackfillDateResponse(date, BackfillDateStatus.PENDING, null, null));
+            }
+        }
+
+        private void run(LocalDate date, ReportService reportService) {
+            long start = System.nanoTime();
+            BackfillDateStatus status;
+            String error = null;
+            try {
+                status = reportService.refreshDailyReport(date) ? BackfillDateStatus.UPDATED : BackfillDateStatus.EMPTY;
+            } catch (Exception e) {
+                status = BackfillDateStatus.FAILED;
+                error = e.getMessage();
+                log.error("Günlük rapor yeniden hesaplanamadı ({})", date, e);
+            }
+            switch (status) {
+                case UPDATED -> updated.incrementAndGet();
+                case EMPTY -> empty.incrementAndGet();
+                default -> failed.incrementAndGet();
+            }
+            results.put(date, new ReportBackfillDateResponse(date, status,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), error));
+        }
+
+        private void finish() {
+            elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedNanos);
+            finishedAt = LocalDateTime.now();
+            log.info("Günlük rapor yeniden hesaplama tamamlandı {} - {}: {} gün, {} güncellendi, {} verisiz, {} hatalı, {} ms",
+                    startDate, endDate, results.size(), updated.get(), empty.get(), failed.get(), elapsedMillis);
+        }
+
+        // gün listesi sadece tek iş sorgulanırken döner, listelemede özet yeterli
+        private ReportBackfillResponse toResponse(boolean withDates) {
+            LocalDateTime finished = finishedAt;
+            return new ReportBackfillResponse(
+                    id,
+                    startDate,
+                    endDate,
+                    force,
+                    finished != null ? BackfillStatus.COMPLETED : BackfillStatus.RUNNING,
+                    results.size(),
+                    updated.get() + empty.get() + failed.get(),
+                    updated.get(),
+                    empty.get(),
+                    failed.get(),
+                    startedAt,
+                    finished,
+                    finished != null ? elapsedMillis : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedNanos),
+                    withDates ? new ArrayList<>(results.values()) : null);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.inonu.stok_takip.Service.Impl;
+
+import com.inonu.stok_takip.Service.ReportBackfillService;
+import com.inonu.stok_takip.Service.ReportRecomputeService;
+import com.inonu.stok_takip.Service.ReportService;
+import com.inonu.stok_takip.dto.Response.ReportRecomputeStatsResponse;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class ReportRecomputeServiceImpl implements ReportRecomputeService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportRecomputeServiceImpl.class);
+
+    private final ReportService reportService;
+    private final ReportBackfillService reportBackfillService;
+
+    // gün başına en fazla bir bekleyen kayıt; kuyruktaki kayıt bu haritadakiyle aynı nesnedir
+    private final ConcurrentHashMap<LocalDate, PendingDate> pending = new ConcurrentHashMap<>();
+    private final DelayQueue<PendingDate> queue = new DelayQueue<>();
+
+    private final AtomicLong enqueuedCount = new AtomicLong();
+    private final AtomicLong coalescedCount = new AtomicLong();
+    private final AtomicLong processedCount = new AtomicLong();
+    private final AtomicLong emptyDayCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong lastLagMillis = new AtomicLong();
+    private final AtomicLong maxLagMillis = new AtomicLong();
+    private volatile LocalDate lastProcessedDate;
+    private volatile LocalDateTime lastProcessedAt;
+    private volatile String lastError;
+
+    private ExecutorService worker;
+
+    // ilk değişiklikten sonra bu kadar beklenir, aradaki değişiklikler aynı hesaplamaya dahil olur
+    @Value("${report.recompute-delay-ms:2000}")
+    private long recomputeDelayMillis;
+
+    // kapanışta kuyrukta kalan günlerin açılışta yakalanacağı geriye dönük gün sayısı; 0 ise tarama yapılmaz
+    @Value("${report.startup-backfill-days:366}")
+    private int startupBackfillDays;
+
+    public ReportRecomputeServiceImpl(@Lazy ReportService reportService, ReportBackfillService reportBackfillService) {
+        this.reportService = reportService;
+        this.reportBackfillService = reportBackfillService;
+    }
+
+    // önceki kapanışta hesaplanmadan kalan günler raporu günlük özetinden eski kalan günler olarak bulunur
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        worker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "report-recompute");
+            thread.setDaemon(true);
+            return thread;
+        });
+        worker.execute(this::runWorker);
+        if (startupBackfillDays > 0) {
+            LocalDate today = LocalDate.now();
+            reportBackfillService.startBackfill(today.minusDays(startupBackfillDays), today, false);
+        }
+    }
+
+    // kapanışta bekleyen günler hesaplanmaz; veritabanı bağlantıları kapanırken rapor yazılmaya çalışılmaz.
+    // Bu günlerin raporları günlük özetten eski kaldığı için sonraki açılıştaki taramada yeniden hesaplanır
+    @PreDestroy
+    public void stop() {
+        if (worker != null) {
+            worker.shutdownNow();
+        }
+        int dropped = pending.size();
+        pending.clear();
+        queue.clear();
+        if (dropped > 0) {
+            log.info("Kapanışta hesaplanmayan günlük rapor sayısı: {}", dropped);
+        }
+    }
+
+    @Override
+    public void enqueue(LocalDate date) {
+        if (date == null) {
+            return;
+        }
+        runAfterCommit(() -> {
+            enqueuedCount.incrementAndGet();
+            long now = System.nanoTime();
+            PendingDate created = new PendingDate(date, now, now + TimeUnit.MILLISECONDS.toNanos(recomputeDelayMillis));
+            if (pending.putIfAbsent(date, created) == null) {
+                queue.offer(created);
+            } else {
+                coalescedCount.incrementAndGet();
+            }
+        });
+    }
+
+    @Override
+    public ReportRecomputeStatsResponse getStats() {
+        long now = System.nanoTime();
+        long oldest = pending.values().stream()
+                .mapToLong(item -> now - item.enqueuedAt)
+                .max()
+                .orElse(0L);
+        return new ReportRecomputeStatsResponse(
+                pending.size(),
+                TimeUnit.NANOSECONDS.toMillis(oldest),
+                enqueuedCount.get(),
+                coalescedCount.get(),
+                processedCount.get(),
+                emptyDayCount.get(),
+                failedCount.get(),
+                lastLagMillis.get(),
+                maxLagMillis.get(),
+                lastProcessedDate,
+                lastProcessedAt,
+                lastError);
+    }
+
+    private void runWorker() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                PendingDate item = queue.take();
+                // hesaplama başlamadan önce kayıt düşülür; hesaplama sırasında gelen değişiklik yeni bir kayıt açar
+                if (pending.remove(item.date, item)) {
+                    process(item);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void process(PendingDate item) {
+        try {
+            if (!reportService.refreshDailyReport(item.date)) {
+                emptyDayCount.incrementAndGet();
+            }
+            processedCount.incrementAndGet();
+        } catch (Exception e) {
+            // rapor hatası bir sonraki değişiklikte veya gece çalışan görevde yeniden denenir
+            failedCount.incrementAndGet();
+            lastError = item.date + ": " + e.getMessage();
+            log.error("Günlük rapor yeniden hesaplanamadı ({})", item.date, e);
+        }
+        long lag = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - item.enqueuedAt);
+        lastLagMillis.set(lag);
+        maxLagMillis.accumulateAndGet(lag, Math::max);
+        lastProcessedDate = item.date;
+        lastProcessedAt = LocalDateTime.now();
+    }
+
+    private void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static final class PendingDate implements Delayed {
+
+        private final LocalDate date;
+        private final long enqueuedAt;
+        private final long dueAt;
+
+        private PendingDate(LocalDate date, long enqueuedAt, long dueAt) {
+            this.date = date;
+            this.enqueuedAt = enqueuedAt;
+            this.dueAt = dueAt;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueAt - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(dueAt, ((PendingDate) other).dueAt);
+        }
+    }
+}
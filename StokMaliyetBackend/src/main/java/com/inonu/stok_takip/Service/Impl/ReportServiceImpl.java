@@ -2,19 +2,30 @@ package com.inonu.stok_takip.Service.Impl;
 
 import com.inonu.stok_takip.Enum.ReportType;
 import com.inonu.stok_takip.Exception.Report.ReportDataNotFoundException;
+import com.inonu.stok_takip.Repositoriy.CarryOverCheckpointRepository;
 import com.inonu.stok_takip.Repositoriy.ReportRepository;
-import com.inonu.stok_takip.Service.MaterialExitService;
+import com.inonu.stok_takip.Service.DailyCostFactService;
 import com.inonu.stok_takip.Service.ReportService;
-import com.inonu.stok_takip.Service.TicketSalesDetailService;
+import com.inonu.stok_takip.dto.Response.PeriodCostTotals;
+import com.inonu.stok_takip.dto.Response.ReportBundlePeriodResponse;
+import com.inonu.stok_takip.dto.Response.ReportBundleResponse;
 import com.inonu.stok_takip.dto.Response.ReportResponse;
+import com.inonu.stok_takip.entitiy.DailyCostFact;
 import com.inonu.stok_takip.entitiy.Report;
+import com.inonu.stok_takip.util.DateRange;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,15 +33,24 @@ public class ReportServiceImpl implements ReportService {
 
 
     private final ReportRepository reportRepository;
-    private final TicketSalesDetailService ticketSalesDetailService;
-    private final MaterialExitService materialExitService;
+    private final DailyCostFactService dailyCostFactService;
+    private final CarryOverCheckpointRepository carryOverCheckpointRepository;
+
+    // dönem raporları (tür, dönem başı) anahtarıyla tutulur ve sadece dönemdeki bir çıkış veya fiş değişince düşer.
+    // Kapanmış yıllardaki dönemler veritabanına da yazılır, yeniden başlatmadan sonra da hesaplanmaz
+    private final ConcurrentHashMap<PeriodCacheKey, ReportResponse> periodReports = new ConcurrentHashMap<>();
+    // hesaplama sürerken gelen değişiklik, eski sonucun önbelleğe yazılmasını engeller
+    private final AtomicLong periodGeneration = new AtomicLong();
+    // son tamamlanan devir yılı (hiç devir yoksa null); ilk kullanımda okunur, devir tamamlanınca closeYear ile ilerler
+    private volatile Integer lastClosedYear;
+    private volatile boolean lastClosedYearLoaded;
 
     public ReportServiceImpl(ReportRepository reportRepository,
-                             TicketSalesDetailService ticketSalesDetailService,
-                             MaterialExitService materialExitService) {
+                             DailyCostFactService dailyCostFactService,
+                             CarryOverCheckpointRepository carryOverCheckpointRepository) {
         this.reportRepository = reportRepository;
-        this.ticketSalesDetailService = ticketSalesDetailService;
-        this.materialExitService = materialExitService;
+        this.dailyCostFactService = dailyCostFactService;
+        this.carryOverCheckpointRepository = carryOverCheckpointRepository;
     }
 
 
@@ -62,19 +82,59 @@ public class ReportServiceImpl implements ReportService {
     @Override
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public ReportResponse calculateDailyReport(LocalDate date) {
-        // totalPerson artık TicketSalesDetail'den alınıyor, MaterialExit'ten değil
-        Integer totalPerson = ticketSalesDetailService.getTotalPersonByDay(date);
-        Integer ticketQuantity = ticketSalesDetailService.getTicketCountByDay(date);
-        Double totalAmount = materialExitService.getNonCleaningMaterialExitsByDate(date);
-        Double totalTicketAmount = ticketSalesDetailService.getTicketAmountByDay(date);
+        ReportResponse response = saveDailyReport(date);
+        if (response == null) {
+            throw new ReportDataNotFoundException("Daily Report Error: No data available for date " + date);
+        }
+        return response;
+    }
 
+    // arka plan kuyruğundan çağrılır; verisi olmayan gün normal durumdur, exception fırlatılmaz
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean refreshDailyReport(LocalDate date) {
+        return saveDailyReport(date) != null;
+    }
+
+    // verisi olmayan gün için rapor oluşturulmaz, varsa eski raporu silinir ve null döner
+    private ReportResponse saveDailyReport(LocalDate date) {
+        // değerler dönem raporlarının toplandığı günlük özet satırından alınır, böylece günlük ve dönem raporları
+        // aynı kurala göre hesaplanır: kişi sayısı fişlerden, malzeme tutarı temizlik hariç
+        DailyCostFact fact = dailyCostFactService.findByDate(date);
+        LocalDateTime factUpdateDate = fact != null
+                ? (fact.getUpdateDate() != null ? fact.getUpdateDate() : fact.getCreateDate())
+                : null;
+
+        Report report = fact != null
+                ? buildDailyReport(date, fact.getTotalPerson(), fact.getTicketQuantity(), fact.getMaterialCost(), fact.getTicketRevenue())
+                : null;
+        if (report == null) {
+            // günün kayıtları silindiyse eski rapor listelerde kalmasın
+            reportRepository.deleteDailyReport(date, factUpdateDate);
+            return null;
+        }
+        // eskimiş rapor taraması bu damgayı günlük özet satırınınkiyle karşılaştırır
+        report.setFactUpdateDate(factUpdateDate);
+
+        // Sadece günlük raporlar veritabanına kaydedilir; varsa mevcut satır güncellenir.
+        // Paralel hesaplamada daha yeni özetten yazılmış rapor korunur, dönen değer kayıttaki rapordur
+        reportRepository.upsert(report);
+        return reportRepository.findByReportCreateDateAndReportType(date, ReportType.DAILY)
+                .map(this::mapToResponse)
+                .orElse(null);
+    }
+
+    // günün özet değerlerinden rapor; verisi olmayan gün için null döner. Veritabanına yazılmaz
+    private Report buildDailyReport(LocalDate date, Integer totalPerson, Integer ticketQuantity,
+                                    Double totalAmount, Double totalTicketAmount) {
+        // totalPerson artık TicketSalesDetail'den alınıyor, MaterialExit'ten değil
         // Rapor için gerekli verilerden en az 1'i geldiğinde hesaplansın
         boolean hasData = (totalPerson != null && totalPerson > 0) || 
                          (ticketQuantity != null && ticketQuantity > 0) || 
                          (totalAmount != null && totalAmount > 0);
 
         if (!hasData) {
-            throw new ReportDataNotFoundException("Daily Report Error: No data available for date " + date);
+            return null;
         }
 
         // Null değerleri 0 olarak kabul et
@@ -88,10 +148,7 @@ public class ReportServiceImpl implements ReportService {
         Double ticketCost = (safeTicketQuantity > 0) ? safeTotalAmount / safeTicketQuantity : 0.0;
         int leftoverMealCount = safeTotalPerson - safeTicketQuantity;
 
-        // Mevcut raporu kontrol et, varsa güncelle, yoksa yeni oluştur
-        Report report = reportRepository.findByReportCreateDateAndReportType(date, ReportType.DAILY)
-                .orElse(new Report());
-
+        Report report = new Report();
         report.setReportType(ReportType.DAILY);
         report.setTicketQuantity(safeTicketQuantity);
         report.setReportCreateDate(date); // Rapor tarihi, oluşturulma tarihi değil
@@ -102,121 +159,180 @@ public class ReportServiceImpl implements ReportService {
         report.setAverageTicketCost(ticketCost);
         report.setLeftoverMealCount(leftoverMealCount);
         report.setTotalTicketPrice(safeTotalTicketAmount);
-
-        // Sadece günlük raporlar veritabanına kaydedilir
-        Report savedReport = reportRepository.save(report);
-        return mapToResponse(savedReport);
+        return report;
     }
     
+    // Haftalık, aylık ve yıllık raporlar günlük maliyet özetlerinin toplamından hesaplanır ve bellekte tutulur
     @Override
     public ReportResponse calculateWeeklyReport(LocalDate date){
-        // Haftalık rapor sadece hesaplanır, veritabanına kaydedilmez
-        // Frontend'de günlük raporlardan hesaplanacak
-        Integer totalPerson = materialExitService.numberMealsInWeek(date);
-        Integer ticketCount = ticketSalesDetailService.getTicketCountByWeek(date);
-        Double totalMaterialPrice = materialExitService.getMaterialsByWeek(date);
-        Double totalTicketPrice = ticketSalesDetailService.getTicketAmountByWeek(date);
-
-        // Null değerleri 0 olarak kabul et
-        int safeTotalPerson = (totalPerson != null) ? totalPerson : 0;
-        int safeTicketCount = (ticketCount != null) ? ticketCount : 0;
-        double safeTotalMaterialPrice = (totalMaterialPrice != null) ? totalMaterialPrice : 0.0;
-        double safeTotalTicketPrice = (totalTicketPrice != null) ? totalTicketPrice : 0.0;
+        return calculatePeriodReport(ReportType.WEEKLY, DateRange.week(date), date);
+    }
 
-        // Hesaplamalar - sıfıra bölme kontrolü
-        Double personCost = (safeTotalPerson > 0) ? safeTotalMaterialPrice / safeTotalPerson : 0.0;
-        Double ticketCost = (safeTicketCount > 0) ? safeTotalMaterialPrice / safeTicketCount : 0.0;
-        int leftoverMealCount = safeTotalPerson - safeTicketCount;
+    @Override
+    public ReportResponse calculateMonthlyReport(LocalDate date){
+        return calculatePeriodReport(ReportType.MONTHLY, DateRange.month(date), date);
+    }
 
-        // Rapor oluştur ama veritabanına kaydetme
-        Report report = new Report();
-        report.setReportType(ReportType.WEEKLY);
-        report.setTicketQuantity(safeTicketCount);
-        report.setReportCreateDate(date);
-        report.setTotalPersonQuantity(safeTotalPerson);
-        report.setTotalMaterialPrice(safeTotalMaterialPrice);
-        report.setTotalCleanPrice(0.0);
-        report.setLeftoverMealCount(leftoverMealCount);
-        report.setAveragePersonCost(personCost);
-        report.setAverageTicketCost(ticketCost);
-        report.setTotalTicketPrice(safeTotalTicketPrice);
+    @Override
+    public ReportResponse calculateYearlyReport(LocalDate date) {
+        return calculatePeriodReport(ReportType.YEARLY, DateRange.year(date), date);
+    }
 
-        // Veritabanına kaydetmeden response döndür
-        return mapToResponse(report);
+    // günün dahil olduğu hafta, ay ve yılın raporları düşürülür. Kapanmış dönemlerin dondurulmuş kayıtları
+    // çağıran transaction içinde silinir; bellekteki kayıtlar commit sonrası düşer, yoksa araya giren okuma
+    // eski toplamları yeniden önbelleğe yazabilir
+    @Override
+    public void invalidatePeriodReports(LocalDate date) {
+        periodGeneration.incrementAndGet();
+        List<PeriodKey> keys = periodKeys(date);
+        for (PeriodKey key : keys) {
+            if (isClosedPeriod(key.range())) {
+                reportRepository.deletePeriodReports(key.key().startDate(), key.key().reportType());
+            }
+        }
+        runAfterCommit(() -> {
+            periodGeneration.incrementAndGet();
+            keys.forEach(key -> periodReports.remove(key.key()));
+        });
     }
 
     @Override
-    public ReportResponse calculateMonthlyReport(LocalDate date){
-        // Aylık rapor sadece hesaplanır, veritabanına kaydedilmez
-        // Frontend'de günlük raporlardan hesaplanacak
-        Integer totalPerson = materialExitService.numberMealsInMonth(date);
-        Integer ticketCount = ticketSalesDetailService.getTicketCountByMonth(date);
-        Double totalMaterialPrice = materialExitService.getMaterialsByMonthAndYear(date);
-        Double totalTicketPrice = ticketSalesDetailService.getTicketAmountByMonth(date);
+    public synchronized void closeYear(int year) {
+        Integer current = lastClosedYear();
+        if (current == null || current < year) {
+            lastClosedYear = year;
+        }
+    }
 
-        // Null değerleri 0 olarak kabul et
-        int safeTotalPerson = (totalPerson != null) ? totalPerson : 0;
-        int safeTicketCount = (ticketCount != null) ? ticketCount : 0;
-        double safeTotalMaterialPrice = (totalMaterialPrice != null) ? totalMaterialPrice : 0.0;
-        double safeTotalTicketPrice = (totalTicketPrice != null) ? totalTicketPrice : 0.0;
+    private ReportResponse calculatePeriodReport(ReportType reportType, DateRange range, LocalDate date) {
+        return periodReport(reportType, range, date, periodGeneration.get(), () -> dailyCostFactService.getTotals(range));
+    }
+
+    // toplamlar sadece önbellekte ve dondurulmuş kayıtlarda yoksa okunur. generation toplamlar okunmadan önce
+    // alınmış olmalı; arada gelen değişiklik eski toplamın önbelleğe yazılmasını engeller
+    private ReportResponse periodReport(ReportType reportType, DateRange range, LocalDate date, long generation,
+                                        Supplier<PeriodCostTotals> totals) {
+        PeriodCacheKey key = new PeriodCacheKey(reportType, range.startDate());
+        ReportResponse cached = periodReports.get(key);
+        if (cached == null) {
+            boolean frozen = isClosedPeriod(range);
+            cached = frozen ? findFrozenPeriodReport(key) : null;
+            if (cached == null) {
+                Report report = buildPeriodReport(reportType, range, totals.get());
+                if (frozen) {
+                    reportRepository.upsert(report);
+                }
+                cached = mapToResponse(report);
+            }
+            if (periodGeneration.get() == generation) {
+                periodReports.put(key, cached);
+            } else if (frozen) {
+                // hesaplama sırasında dönemde değişiklik oldu, yazılan kayıt eskimiş olabilir
+                reportRepository.deletePeriodReports(key.startDate(), key.reportType());
+            }
+        }
+        // önbellekteki nesne paylaşıldığı için her istekte istenen tarihle yeni bir cevap oluşturulur
+        return new ReportResponse(null, cached.getReportType(), date, cached.getTicketQuantity(),
+                cached.getTotalTicketPrice(), cached.getTotalPersonQuantity(), cached.getTotalMaterialPrice(),
+                cached.getAveragePersonCost(), cached.getAverageTicketCost(), cached.getLeftoverMealCount());
+    }
+
+    private Report buildPeriodReport(ReportType reportType, DateRange range, PeriodCostTotals totals) {
+        int totalPerson = totals.totalPerson().intValue();
+        int ticketCount = totals.ticketQuantity().intValue();
+        // dönem raporlarında malzeme tutarı temizlik malzemeleri dahil toplam çıkıştır
+        double totalMaterialPrice = totals.materialCost() + totals.cleaningCost();
 
         // Hesaplamalar - sıfıra bölme kontrolü
-        Double personCost = (safeTotalPerson > 0) ? safeTotalMaterialPrice / safeTotalPerson : 0.0;
-        Double ticketCost = (safeTicketCount > 0) ? safeTotalMaterialPrice / safeTicketCount : 0.0;
-        int leftoverMealCount = safeTotalPerson - safeTicketCount;
+        Double personCost = (totalPerson > 0) ? totalMaterialPrice / totalPerson : 0.0;
+        Double ticketCost = (ticketCount > 0) ? totalMaterialPrice / ticketCount : 0.0;
+        int leftoverMealCount = totalPerson - ticketCount;
 
-        // Rapor oluştur ama veritabanına kaydetme
+        // rapor tarihi dönemin ilk günüdür, dondurulan dönemler bu tarihle saklanır
         Report report = new Report();
-        report.setReportType(ReportType.MONTHLY);
-        report.setTicketQuantity(safeTicketCount);
-        report.setReportCreateDate(date);
-        report.setTotalPersonQuantity(safeTotalPerson);
-        report.setTotalMaterialPrice(safeTotalMaterialPrice);
-        report.setTotalCleanPrice(0.0);
+        report.setReportType(reportType);
+        report.setTicketQuantity(ticketCount);
+        report.setReportCreateDate(range.startDate());
+        report.setTotalPersonQuantity(totalPerson);
+        report.setTotalMaterialPrice(totalMaterialPrice);
+        report.setTotalCleanPrice(totals.cleaningCost());
         report.setLeftoverMealCount(leftoverMealCount);
         report.setAveragePersonCost(personCost);
         report.setAverageTicketCost(ticketCost);
-        report.setTotalTicketPrice(safeTotalTicketPrice);
-
-        // Veritabanına kaydetmeden response döndür
-        return mapToResponse(report);
+        report.setTotalTicketPrice(totals.ticketRevenue());
+        return report;
     }
 
+    // rapor ekranının gün/hafta/ay/yıl için ayrı ayrı yaptığı rapor ve istatistik çağrılarının yerine geçer.
+    // Dört dönemi kapsayan günlük maliyet satırları bir kez okunur; tutarlar, yemek sayıları ve önbellekte
+    // olmayan dönem raporları bu satırlardan toplanır, hesaplanan dönem raporları önbelleğe yazılır.
+    // Günlük rapor kaydedilmişse kayıttan, değilse aynı satırdan yazılmadan hesaplanır
     @Override
-    public ReportResponse calculateYearlyReport(LocalDate date) {
-        // Yıllık rapor sadece hesaplanır, veritabanına kaydedilmez
-        // Frontend'de günlük raporlardan hesaplanacak
-        Integer totalPerson = materialExitService.numberMealsInYear(date);
-        Integer ticketCount = ticketSalesDetailService.getTicketCountByYear(date);
-        Double totalMaterialPrice = materialExitService.getMaterialsByYear(date);
-        Double totalTicketAmount = ticketSalesDetailService.getTicketAmountByYear(date);
+    public ReportBundleResponse getReportBundle(LocalDate date) {
+        List<DateRange> ranges = List.of(DateRange.day(date), DateRange.week(date), DateRange.month(date), DateRange.year(date));
+        long generation = periodGeneration.get();
+        List<PeriodCostTotals> totals = dailyCostFactService.getTotals(ranges);
 
-        // Null değerleri 0 olarak kabul et
-        int safeTotalPerson = (totalPerson != null) ? totalPerson : 0;
-        int safeTicketCount = (ticketCount != null) ? ticketCount : 0;
-        double safeTotalMaterialPrice = (totalMaterialPrice != null) ? totalMaterialPrice : 0.0;
-        double safeTotalTicketAmount = (totalTicketAmount != null) ? totalTicketAmount : 0.0;
+        PeriodCostTotals day = totals.get(0);
+        ReportResponse dailyReport = reportRepository.findByReportCreateDateAndReportType(date, ReportType.DAILY)
+                .map(this::mapToResponse)
+                .orElseGet(() -> {
+                    Report report = buildDailyReport(date, day.totalPerson().intValue(), day.ticketQuantity().intValue(),
+                            day.materialCost(), day.ticketRevenue());
+                    return report != null ? mapToResponse(report) : null;
+                });
+
+        return new ReportBundleResponse(date,
+                toBundlePeriod(ReportType.DAILY, ranges.get(0), day, dailyReport),
+                toBundlePeriod(ReportType.WEEKLY, ranges.get(1), totals.get(1),
+                        periodReport(ReportType.WEEKLY, ranges.get(1), date, generation, () -> totals.get(1))),
+                toBundlePeriod(ReportType.MONTHLY, ranges.get(2), totals.get(2),
+                        periodReport(ReportType.MONTHLY, ranges.get(2), date, generation, () -> totals.get(2))),
+                toBundlePeriod(ReportType.YEARLY, ranges.get(3), totals.get(3),
+                        periodReport(ReportType.YEARLY, ranges.get(3), date, generation, () -> totals.get(3))));
+    }
 
-        // Hesaplamalar - sıfıra bölme kontrolü
-        Double personCost = (safeTotalPerson > 0) ? safeTotalMaterialPrice / safeTotalPerson : 0.0;
-        Double ticketCost = (safeTicketCount > 0) ? safeTotalMaterialPrice / safeTicketCount : 0.0;
-        int leftoverMealCount = safeTotalPerson - safeTicketCount;
+    // verisi olmayan günün raporu null döner
+    private ReportBundlePeriodResponse toBundlePeriod(ReportType reportType, DateRange range, PeriodCostTotals totals,
+                                                      ReportResponse report) {
+        return new ReportBundlePeriodResponse(reportType, range.startDate(), range.endDate().minusDays(1), report,
+                totals.mealCount(), totals.materialCost(), totals.cleaningCost(),
+                totals.materialCost() + totals.cleaningCost());
+    }
 
-        // Rapor oluştur ama veritabanına kaydetme
-        Report report = new Report();
-        report.setReportType(ReportType.YEARLY);
-        report.setTicketQuantity(safeTicketCount);
-        report.setReportCreateDate(date);
-        report.setTotalPersonQuantity(safeTotalPerson);
-        report.setTotalMaterialPrice(safeTotalMaterialPrice);
-        report.setTotalCleanPrice(0.0);
-        report.setLeftoverMealCount(leftoverMealCount);
-        report.setAveragePersonCost(personCost);
-        report.setAverageTicketCost(ticketCost);
-        report.setTotalTicketPrice(safeTotalTicketAmount);
+    // son tamamlanan yıl sonu devrinden önce biten dönemler kapanmıştır, verileri artık değişmez
+    private boolean isClosedPeriod(DateRange range) {
+        Integer closedYear = lastClosedYear();
+        return closedYear != null && !range.endDate().isAfter(LocalDate.of(closedYear + 1, 1, 1));
+    }
 
-        // Veritabanına kaydetmeden response döndür
-        return mapToResponse(report);
+    private Integer lastClosedYear() {
+        if (!lastClosedYearLoaded) {
+            synchronized (this) {
+                if (!lastClosedYearLoaded) {
+                    lastClosedYear = carryOverCheckpointRepository.findLastCompletedYear();
+                    lastClosedYearLoaded = true;
+                }
+            }
+        }
+        return lastClosedYear;
+    }
+
+    private ReportResponse findFrozenPeriodReport(PeriodCacheKey key) {
+        return reportRepository.findByReportCreateDateAndReportType(key.startDate(), key.reportType())
+                .map(this::mapToResponse)
+                .orElse(null);
+    }
+
+    private List<PeriodKey> periodKeys(LocalDate date) {
+        return List.of(
+                periodKey(ReportType.WEEKLY, DateRange.week(date)),
+                periodKey(ReportType.MONTHLY, DateRange.month(date)),
+                periodKey(ReportType.YEARLY, DateRange.year(date)));
+    }
+
+    private PeriodKey periodKey(ReportType reportType, DateRange range) {
+        return new PeriodKey(new PeriodCacheKey(reportType, range.startDate()), range);
     }
 
 
@@ -283,4 +399,23 @@ public class ReportServiceImpl implements ReportService {
                 .collect(Collectors.toList());
         return responseList;
     }
+
+    private void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private record PeriodCacheKey(ReportType reportType, LocalDate startDate) {
+    }
+
+    private record PeriodKey(PeriodCacheKey key, DateRange range) {
+    }
 }
@@ -0,0 +1,212 @@
+package com.inonu.stok_takip.Service.Impl;
+
+import com.inonu.stok_takip.Repositoriy.MaterialEntryRepository;
+import com.inonu.stok_takip.Service.StockLedgerService;
+import com.inonu.stok_takip.entitiy.MaterialEntry;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+@Service
+public class StockLedgerServiceImpl implements StockLedgerService {
+
+    // FIFO sırası eski çıkış yapısındaki gibi createDate'e göre, aynı anda girilenlerde id'ye göre
+    private static final Comparator<OpenLot> LOT_ORDER = Comparator
+            .comparing((OpenLot lot) -> lot.createDate, Comparator.nullsFirst(Comparator.<LocalDateTime>naturalOrder()))
+            .thenComparing(lot -> lot.entryId);
+
+    private final MaterialEntryRepository materialEntryRepository;
+    private final Map<Long, Deque<OpenLot>> ledger = new ConcurrentHashMap<>();
+
+    public StockLedgerServiceImpl(MaterialEntryRepository materialEntryRepository) {
+        this.materialEntryRepository = materialEntryRepository;
+    }
+
+    // uygulama ayağa kalktığında defter sadece açık partilerle doldurulur
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        reloadAll();
+    }
+
+    @Override
+    public List<LotAllocation> allocate(Long productId, Double quantity) {
+        Deque<OpenLot> lots = lotsOf(productId);
+        List<LotAllocation> allocations = new ArrayList<>();
+        double remainingQuantityToDeduct = quantity;
+
+        synchronized (lots) {
+            for (OpenLot lot : lots) {
+                if (remainingQuantityToDeduct <= 0) {
+                    break;
+                }
+                double deductedQuantity = Math.min(remainingQuantityToDeduct, lot.remainingQuantity);
+                remainingQuantityToDeduct -= deductedQuantity;
+                allocations.add(new LotAllocation(lot.entryId, deductedQuantity, lot.unitPriceIncludingVat));
+            }
+        }
+        return allocations;
+    }
+
+    @Override
+    public void consume(Long productId, List<LotAllocation> allocations) {
+        runAfterCommit(() -> {
+            Deque<OpenLot> lots = ledger.get(productId);
+            if (lots == null) {
+                return; // defterde yoksa ilk kullanımda veritabanından yüklenecek
+            }
+            synchronized (lots) {
+                for (LotAllocation allocation : allocations) {
+                    if (!deduct(lots, allocation)) {
+                        // defter veritabanından sapmış, ürün bir sonraki kullanımda yeniden yüklensin
+                        ledger.remove(productId);
+                        return;
+                    }
+                }
+            }
+        });
+    }
+
+    // yeni giriş ve güncellenen giriş aynı şekilde işlenir, parti varsa yerine yenisi konur
+    @Override
+    public void refreshEntry(MaterialEntry materialEntry) {
+        OpenLot lot = toLot(materialEntry);
+        Long productId = materialEntry.getProduct().getId();
+        runAfterCommit(() -> {
+            Deque<OpenLot> lots = ledger.get(productId);
+            if (lots == null) {
+                return;
+            }
+            synchronized (lots) {
+                lots.removeIf(existing -> existing.entryId.equals(lot.entryId));
+                if (lot.remainingQuantity > 0) {
+                    insertInOrder(lots, lot);
+                }
+            }
+        });
+    }
+
+    @Override
+    public void removeEntry(MaterialEntry materialEntry) {
+        Long entryId = materialEntry.getId();
+        Long productId = materialEntry.getProduct().getId();
+        runAfterCommit(() -> {
+            Deque<OpenLot> lots = ledger.get(productId);
+            if (lots == null) {
+                return;
+            }
+            synchronized (lots) {
+                lots.removeIf(existing -> existing.entryId.equals(entryId));
+            }
+        });
+    }
+
+    @Override
+    public void reloadAll() {
+        runAfterCommit(() -> {
+            Map<Long, Deque<OpenLot>> loaded = materialEntryRepository.findNonZeroRemainingQuantityEntries().stream()
+                    .map(this::toLot)
+                    .sorted(LOT_ORDER)
+                    .collect(Collectors.groupingBy(
+                            lot -> lot.productId,
+                            Collectors.toCollection(ArrayDeque::new)
+                    ));
+            ledger.clear();
+            ledger.putAll(loaded);
+        });
+    }
+
+    // commit beklenmez: çakışma anında defterdeki bilgi zaten geçersizdir
+    @Override
+    public void evict(Long productId) {
+        ledger.remove(productId);
+    }
+
+    @Override
+    public void invalidate(Long productId) {
+        runAfterCommit(() -> ledger.remove(productId));
+    }
+
+    // defterde olmayan ürün (yeni ürün veya sapma sonrası silinmiş) sadece kendi açık partileriyle yüklenir
+    private Deque<OpenLot> lotsOf(Long productId) {
+        return ledger.computeIfAbsent(productId, id -> materialEntryRepository.findOpenEntriesByProductId(id).stream()
+                .map(this::toLot)
+                .sorted(LOT_ORDER)
+                .collect(Collectors.toCollection(ArrayDeque::new)));
+    }
+
+    private boolean deduct(Deque<OpenLot> lots, LotAllocation allocation) {
+        Iterator<OpenLot> iterator = lots.iterator();
+        while (iterator.hasNext()) {
+            OpenLot lot = iterator.next();
+            if (lot.entryId.equals(allocation.entryId())) {
+                lot.remainingQuantity -= allocation.quantity();
+                if (lot.remainingQuantity <= 0) {
+                    iterator.remove();
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void insertInOrder(Deque<OpenLot> lots, OpenLot lot) {
+        // yeni girişler her zaman en sona düşer, sadece geriye dönük güncellemelerde sıralama gerekir
+        if (lots.isEmpty() || LOT_ORDER.compare(lots.peekLast(), lot) <= 0) {
+            lots.addLast(lot);
+            return;
+        }
+        List<OpenLot> ordered = new ArrayList<>(lots);
+        ordered.add(lot);
+        ordered.sort(LOT_ORDER);
+        lots.clear();
+        lots.addAll(ordered);
+    }
+
+    private OpenLot toLot(MaterialEntry materialEntry) {
+        return new OpenLot(
+                materialEntry.getId(),
+                materialEntry.getProduct().getId(),
+                materialEntry.getRemainingQuantity() != null ? materialEntry.getRemainingQuantity() : 0.0,
+                materialEntry.getUnitPriceIncludingVat() != null ? materialEntry.getUnitPriceIncludingVat() : 0.0,
+                materialEntry.getCreateDate()
+        );
+    }
+
+    // defter sadece commit edilmiş veriyi yansıtır, rollback olan işlemler deftere hiç yansımaz
+    private void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static final class OpenLot {
+        private final Long entryId;
+        private final Long productId;
+        private double remainingQuantity;
+        private final double unitPriceIncludingVat;
+        private final LocalDateTime createDate;
+
+        private OpenLot(Long entryId, Long productId, double remainingQuantity,
+                        double unitPriceIncludingVat, LocalDateTime createDate) {
+            this.entryId = entryId;
+            this.productId = productId;
+            this.remainingQuantity = remainingQuantity;
+            this.unitPriceIncludingVat = unitPriceIncludingVat;
+            this.createDate = createDate;
+        }
+    }
+}
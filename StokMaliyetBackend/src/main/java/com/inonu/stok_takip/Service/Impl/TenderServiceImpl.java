@@ -3,22 +3,26 @@ package com.inonu.stok_takip.Service.Impl;
 import com.inonu.stok_takip.Enum.TenderType;
 import com.inonu.stok_takip.Exception.Tender.TenderNotFoundException;
 import com.inonu.stok_takip.Repositoriy.TenderRepository;
+import com.inonu.stok_takip.Service.ContractExpiryService;
 import com.inonu.stok_takip.Service.ProductService;
 import com.inonu.stok_takip.Service.PurchaseTypeService;
 import com.inonu.stok_takip.Service.PurchasedUnitService;
 import com.inonu.stok_takip.Service.TenderService;
+import com.inonu.stok_takip.dto.Request.HistoryPageRequest;
 import com.inonu.stok_takip.dto.Request.TenderCreateRequest;
+import com.inonu.stok_takip.dto.Response.KeysetPageResponse;
 import com.inonu.stok_takip.dto.Response.TenderResponse;
 import com.inonu.stok_takip.entitiy.Product;
 import com.inonu.stok_takip.entitiy.PurchaseType;
 import com.inonu.stok_takip.entitiy.PurchasedUnit;
 import com.inonu.stok_takip.entitiy.Tender;
-import org.springframework.scheduling.annotation.Scheduled;
+import com.inonu.stok_takip.util.KeysetCursor;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -29,15 +33,18 @@ public class TenderServiceImpl implements TenderService {
     private final PurchasedUnitService purchasedUnitService;
     private final PurchaseTypeService purchaseTypeService;
     private final ProductService productService;
+    private final ContractExpiryService contractExpiryService;
 
     public TenderServiceImpl(TenderRepository tenderRepository,
                              PurchasedUnitService purchasedUnitService,
                              PurchaseTypeService purchaseTypeService,
-                             ProductService productService) {
+                             ProductService productService,
+                             @Lazy ContractExpiryService contractExpiryService) {
         this.tenderRepository = tenderRepository;
         this.purchasedUnitService = purchasedUnitService;
         this.purchaseTypeService = purchaseTypeService;
         this.productService = productService;
+        this.contractExpiryService = contractExpiryService;
     }
 
     @Override
@@ -58,6 +65,7 @@ public class TenderServiceImpl implements TenderService {
         tender.setTenderType(TenderType.OPEN_TENDER);
 
         Tender savedTender = tenderRepository.save(tender);
+        contractExpiryService.rescheduleExpiry();
 
         return mapToResponse(savedTender);
     }
@@ -81,35 +89,41 @@ public class TenderServiceImpl implements TenderService {
         return mapToResponseList(tenders);
     }
 
+    // ihaleler başlangıç tarihine göre sayfalanır, alıcı filtresi ihalelerde yoktur
+    @Override
+    public KeysetPageResponse<TenderResponse> getTenderPage(HistoryPageRequest request) {
+        request.validate();
+        KeysetCursor cursor = request.decodedCursor();
+        List<Tender> rows = tenderRepository.findPage(
+                request.productId(),
+                request.categoryId(),
+                request.startDate(),
+                request.endDateExclusive(),
+                cursor != null ? cursor.date() : null,
+                cursor != null ? cursor.id() : null,
+                Limit.of(request.pageSize() + 1));
+        return KeysetPageResponse.of(rows, request.pageSize(), this::mapToResponse,
+                tender -> new KeysetCursor(tender.getStartDate(), tender.getId()));
+    }
+
 
-    //yıl bittiği için veya ihale süresi dolmuş bütün ihaleleri silen kod yapısı bu kod her saate bir tetikleniyor
+    //yıl bittiği için veya ihale süresi dolmuş bütün ihaleleri pasife çeken kod yapısı.
+    // Saatlik tarama yerine ContractExpiryService tarafından bir sonraki bitiş tarihinde tetikleniyor
     @Override
-    @Scheduled(cron = "0 0 * * * ?")
+    @Transactional
     public void handleTendersAtYearEnd() {
-        LocalDateTime now = LocalDateTime.now();
-        LocalDate today = now.toLocalDate();
+        LocalDate today = LocalDate.now();
 
         // 31 Aralık kontrolü
         boolean isYearEnd = today.getMonthValue() == 12 && today.getDayOfMonth() == 31;
 
-        List<Tender> tenders = tenderRepository.findAll();
-
-        for (Tender tender : tenders) {
-            // endDate null kontrolü
-            boolean isExpired = false;
-            if (tender.getEndDate() != null) {
-                isExpired = tender.getEndDate().isBefore(today);
-            }
-
-            // Eğer ihale süresi dolmuşsa veya yılın son günündeysek
-            if ((isExpired || isYearEnd) && tender.isActive()) {
-                tender.setActive(false);
-                tenderRepository.save(tender);
-            }
+        if (isYearEnd) {
+            tenderRepository.deactivateAllActive();
+        } else {
+            tenderRepository.deactivateExpired(today);
         }
     }
 
-
     //ihaleyi arttıran metot - ilk arttırma veya arttırma miktarını güncelleme (0 = arttırma iptal)
     @Transactional
     @Override
@@ -228,6 +242,7 @@ public class TenderServiceImpl implements TenderService {
         }
         tender.setTotalAmount(tender.getUnitPrice() * tender.getTenderQuantity());
         Tender saved = tenderRepository.save(tender);
+        contractExpiryService.rescheduleExpiry();
         return mapToResponse(saved);
     }
 
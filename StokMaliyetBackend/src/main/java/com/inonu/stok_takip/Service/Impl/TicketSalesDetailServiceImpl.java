@@ -1,20 +1,27 @@
 package com.inonu.stok_takip.Service.Impl;
 
 import com.inonu.stok_takip.Enum.ReportType;
-import com.inonu.stok_takip.Exception.Report.ReportDataNotFoundException;
 import com.inonu.stok_takip.Exception.TicketSalesDetails.TicketDetailsNotFoundException;
 import com.inonu.stok_takip.Repositoriy.TicketSalesDetailRepository;
-import com.inonu.stok_takip.Service.ReportService;
+import com.inonu.stok_takip.Service.DailyCostFactService;
+import com.inonu.stok_takip.Service.DashboardService;
+import com.inonu.stok_takip.Service.ReportRecomputeService;
 import com.inonu.stok_takip.Service.TicketSalesDetailService;
 import com.inonu.stok_takip.Service.TicketTypeService;
 import com.inonu.stok_takip.dto.Request.DateRequest;
+import com.inonu.stok_takip.dto.Request.HistoryPageRequest;
 import com.inonu.stok_takip.dto.Request.TicketSalesDetailCreateRequest;
+import com.inonu.stok_takip.dto.Response.KeysetPageResponse;
 import com.inonu.stok_takip.dto.Response.TicketSalesDetailResponse;
 import com.inonu.stok_takip.dto.Response.TicketSalesResponse;
 import com.inonu.stok_takip.entitiy.TicketSalesDetail;
 import com.inonu.stok_takip.entitiy.TicketType;
+import com.inonu.stok_takip.util.DateRange;
+import com.inonu.stok_takip.util.KeysetCursor;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
@@ -28,14 +35,20 @@ public class TicketSalesDetailServiceImpl implements TicketSalesDetailService {
 
     private final TicketSalesDetailRepository ticketSalesDetailRepository;
     private final TicketTypeService ticketTypeService;
-    private final ReportService reportService;
+    private final ReportRecomputeService reportRecomputeService;
+    private final DashboardService dashboardService;
+    private final DailyCostFactService dailyCostFactService;
 
     public TicketSalesDetailServiceImpl(TicketSalesDetailRepository ticketSalesDetailRepository,
                                         TicketTypeService ticketTypeService,
-                                        @Lazy ReportService reportService) {
+                                        ReportRecomputeService reportRecomputeService,
+                                        @Lazy DashboardService dashboardService,
+                                        DailyCostFactService dailyCostFactService) {
         this.ticketSalesDetailRepository = ticketSalesDetailRepository;
         this.ticketTypeService = ticketTypeService;
-        this.reportService = reportService;
+        this.reportRecomputeService = reportRecomputeService;
+        this.dashboardService = dashboardService;
+        this.dailyCostFactService = dailyCostFactService;
     }
 
 
@@ -45,18 +58,36 @@ public class TicketSalesDetailServiceImpl implements TicketSalesDetailService {
         return mapToResponseList(ticketSalesDetails);
     }
 
+    // fiş kayıtlarında ürün, kategori ve alıcı yoktur, sadece tarih aralığı filtresi uygulanır
     @Override
+    public KeysetPageResponse<TicketSalesDetailResponse> getTicketSalesDetailPage(HistoryPageRequest request) {
+        request.validate();
+        KeysetCursor cursor = request.decodedCursor();
+        List<TicketSalesDetail> rows = ticketSalesDetailRepository.findPage(
+                request.startDate(),
+                request.endDateExclusive(),
+                cursor != null ? cursor.date() : null,
+                cursor != null ? cursor.id() : null,
+                Limit.of(request.pageSize() + 1));
+        return KeysetPageResponse.of(rows, request.pageSize(), this::mapToResponse,
+                ticket -> new KeysetCursor(ticket.getTicketDate(), ticket.getId()));
+    }
+
+    // fiş kayıtları ve günlük özet tek transaction'da yazılır, kayıtlar flush'ta tek insert batch'i olarak gider
+    @Override
+    @Transactional
     public List<TicketSalesDetailResponse> addTicket(TicketSalesDetailCreateRequest request) {
 
         double totalAmount = 0;
 
         ArrayList<TicketSalesDetail> ticketSalesDetails = new ArrayList<>();
+        Map<Long, TicketType> ticketTypes = ticketTypeService.getTicketTypesByIds(request.ticketMap().keySet());
 
         for (Map.Entry<Long, Integer> entry : request.ticketMap().entrySet()) {
             Long ticketTypeId = entry.getKey();
             Integer quantity = entry.getValue();
 
-            TicketType ticketType = ticketTypeService.getTicketTypeById(ticketTypeId);
+            TicketType ticketType = ticketTypes.get(ticketTypeId);
 
             TicketSalesDetail ticketSalesDetail = new TicketSalesDetail();
             ticketSalesDetail.setQuantity(quantity);
@@ -73,20 +104,11 @@ public class TicketSalesDetailServiceImpl implements TicketSalesDetailService {
 
         // Tüm fiş kayıtları kaydedildikten sonra flush yap
         ticketSalesDetailRepository.flush();
+        dailyCostFactService.refresh(request.ticketDate());
+        dashboardService.invalidateTicketStats();
 
-        // Fiş kaydı yapıldıktan sonra, o tarih için raporu güncelle veya oluştur
-        try {
-            LocalDate ticketDate = request.ticketDate();
-            // Raporu güncelle veya oluştur (veri yeterli değilse exception fırlatır, sessizce geç)
-            try {
-                reportService.calculateDailyReport(ticketDate);
-            } catch (ReportDataNotFoundException e) {
-                // Veri yeterli değilse rapor oluşturulmaz, normal durum
-            }
-        } catch (Exception e) {
-            // Rapor oluşturma hatası fiş kaydını etkilemez, sadece logla
-            System.err.println("Rapor otomatik oluşturulurken hata: " + e.getMessage());
-        }
+        // Fiş kaydı yapıldıktan sonra o tarihin raporu arka planda güncellenir veya oluşturulur
+        reportRecomputeService.enqueue(request.ticketDate());
 
         return mapToResponseList(ticketSalesDetails);
     }
@@ -154,7 +176,7 @@ public class TicketSalesDetailServiceImpl implements TicketSalesDetailService {
     }
     @Override
     public Integer getTicketCountByWeek(LocalDate weekDate){
-        Integer ticketCount = ticketSalesDetailRepository.findTotalTicketSalesByWeek(weekDate);
+        Integer ticketCount = findTotalTicketSalesBetween(DateRange.week(weekDate));
         if (ticketCount == null) {
             return 0;
         }
@@ -162,7 +184,7 @@ public class TicketSalesDetailServiceImpl implements TicketSalesDetailService {
     }
     @Override
     public Integer getTicketCountByMonth(LocalDate monthDate) {
-        Integer ticketCount = ticketSalesDetailRepository.findTotalTicketSalesByMonth(monthDate);
+        Integer ticketCount = findTotalTicketSalesBetween(DateRange.month(monthDate));
         if(ticketCount == null){
             return 0;
         }
@@ -170,7 +192,7 @@ public class TicketSalesDetailServiceImpl implements TicketSalesDetailService {
     }
     @Override
     public Integer getTicketCountByYear(LocalDate yearDate) {
-        Integer ticketCount = ticketSalesDetailRepository.findTotalTicketSalesByYear(yearDate);
+        Integer ticketCount = findTotalTicketSalesBetween(DateRange.year(yearDate));
         if(ticketCount == null){
             return 0;
         }
@@ -188,7 +210,7 @@ public class TicketSalesDetailServiceImpl implements TicketSalesDetailService {
     }
     @Override
     public Double getTicketAmountByWeek(LocalDate weekDate){
-        Double ticketCount = ticketSalesDetailRepository.findTotalTicketSalesAmountByWeek(weekDate);
+        Double ticketCount = findTotalTicketSalesAmountBetween(DateRange.week(weekDate));
 
         if(ticketCount == null){
             return null;
@@ -197,7 +219,7 @@ public class TicketSalesDetailServiceImpl implements TicketSalesDetailService {
     }
     @Override
     public Double getTicketAmountByMonth(LocalDate monthDate){
-        Double ticketCount = ticketSalesDetailRepository.findTotalTicketSalesAmountByMonth(monthDate);
+        Double ticketCount = findTotalTicketSalesAmountBetween(DateRange.month(monthDate));
 
         if(ticketCount == null){
             return null;
@@ -207,13 +229,21 @@ public class TicketSalesDetailServiceImpl implements TicketSalesDetailService {
 
     @Override
     public Double getTicketAmountByYear(LocalDate yearDate){
-        Double ticketCount = ticketSalesDetailRepository.findTotalTicketSalesAmountByYear(yearDate);
+        Double ticketCount = findTotalTicketSalesAmountBetween(DateRange.year(yearDate));
         if(ticketCount == null){
             return null;
         }
         return ticketCount;
     }
 
+    private Integer findTotalTicketSalesBetween(DateRange range) {
+        return ticketSalesDetailRepository.findTotalTicketSalesBetween(range.startDate(), range.endDate());
+    }
+
+    private Double findTotalTicketSalesAmountBetween(DateRange range) {
+        return ticketSalesDetailRepository.findTotalTicketSalesAmountBetween(range.startDate(), range.endDate());
+    }
+
     @Override
     public void deleteTicketsByDate(LocalDate ticketDate) {
         // Önce o tarih için raporu güncelle veya sil
@@ -221,13 +251,11 @@ public class TicketSalesDetailServiceImpl implements TicketSalesDetailService {
             // Raporu güncelle (fiş kayıtları silindikten sonra)
             ticketSalesDetailRepository.deleteByTicketDate(ticketDate);
             ticketSalesDetailRepository.flush();
-            
-            // Raporu güncelle veya oluştur
-            try {
-                reportService.calculateDailyReport(ticketDate);
-            } catch (ReportDataNotFoundException e) {
-                // Veri yeterli değilse rapor oluşturulmaz, normal durum
-            }
+            dailyCostFactService.refresh(ticketDate);
+            dashboardService.invalidateTicketStats();
+
+            // Raporu arka planda güncelle veya oluştur
+            reportRecomputeService.enqueue(ticketDate);
         } catch (Exception e) {
             System.err.println("Fiş kayıtları silinirken hata: " + e.getMessage());
             throw e;
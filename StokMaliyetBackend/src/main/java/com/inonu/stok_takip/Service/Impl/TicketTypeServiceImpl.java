@@ -9,7 +9,10 @@ import com.inonu.stok_takip.dto.Response.TicketTypeResponse;
 import com.inonu.stok_takip.entitiy.TicketType;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -39,6 +42,16 @@ public class TicketTypeServiceImpl implements TicketTypeService {
         return ticketTypeRepository.findById(id).orElseThrow(()-> new TicketTypeNotFoundException("Ticket Type Not Found"));
     }
 
+    @Override
+    public Map<Long, TicketType> getTicketTypesByIds(Collection<Long> ids) {
+        Map<Long, TicketType> ticketTypes = ticketTypeRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(TicketType::getId, Function.identity()));
+        if (ticketTypes.size() != ids.size()) {
+            throw new TicketTypeNotFoundException("Ticket Type Not Found");
+        }
+        return ticketTypes;
+    }
+
     @Override
     public TicketTypeResponse updateTicketType(TicketTypeUpdateRequest request) {
 
@@ -1,22 +1,27 @@
 package com.inonu.stok_takip.Service;
 
+import com.inonu.stok_takip.dto.Request.HistoryPageRequest;
 import com.inonu.stok_takip.dto.Request.MaterialEntryCreateRequest;
 import com.inonu.stok_takip.dto.Request.MaterialEntryUpdateRequest;
 import com.inonu.stok_takip.dto.Response.*;
 import com.inonu.stok_takip.entitiy.MaterialEntry;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
 import java.util.List;
 
 public interface MaterialEntryService {
 
     List<MaterialEntryResponse> getAllMaterialEntryList();
+    KeysetPageResponse<MaterialEntryResponse> getMaterialEntryPage(HistoryPageRequest request);
     MaterialEntryResponse createMaterialEntry(MaterialEntryCreateRequest request);
     MaterialEntryResponse updateMaterialEntry(MaterialEntryUpdateRequest request);
     MaterialEntry getMaterialEntryById(Long id);
     MaterialEntryResponse deleteMaterialEntry(Long id);
     List<MaterialEntry> getMaterialEntryByProductId(Long productId);
-    Double updateRemainingQuantity(Long materialEntryId, Double exitQuantity);
-    List<MaterialEntryResponse> carryOverEntriesToNextYear();
+    boolean deductRemainingQuantity(Long materialEntryId, Double exitQuantity);
+    void restoreRemainingQuantity(Long materialEntryId, Double quantity);
 
     // bundan sonrası stok çıkışı için yazılmış
     Double getTotalRemainingQuantity(Long productId);
@@ -25,10 +30,13 @@ public interface MaterialEntryService {
 
     List<GroupMaterialEntryResponse> getGroupedMaterialEntries();
     List<MaterialEntrySpendResponse> getTotalSpentGroupedByBudget();
+    List<MaterialEntrySpendResponse> getTotalSpentGroupedByBudget(Integer year);
+    List<MaterialEntrySpendResponse> getTotalSpentGroupedByBudget(LocalDate startDate, LocalDate endDate);
     List<MaterialEntryProductsForMaterialExitResponse> getMaterialEntriesForExit();
     
     // HomePage için ek metodlar
-    List<Object> getAllProductDetail();
+    List<ProductStockDetailResponse> getAllProductDetail();
+    void writeAllProductDetail(OutputStream outputStream) throws IOException;
     List<Object> getBudgetsGroup();
 }
 
@@ -1,7 +1,10 @@
 package com.inonu.stok_takip.Service;
 
 import com.inonu.stok_takip.dto.Request.DateRequest;
+import com.inonu.stok_takip.dto.Request.HistoryPageRequest;
 import com.inonu.stok_takip.dto.Request.MaterialExitCreateRequest;
+import com.inonu.stok_takip.dto.Response.KeysetPageResponse;
+import com.inonu.stok_takip.dto.Response.MaterialExitAllocationResponse;
 import com.inonu.stok_takip.dto.Response.MaterialExitDetailResponse;
 import com.inonu.stok_takip.dto.Response.MaterialExitResponse;
 import com.inonu.stok_takip.entitiy.MaterialExit;
@@ -12,9 +15,11 @@ import java.util.List;
 public interface MaterialExitService {
 
     List<MaterialExitResponse> getAllMaterialExits();
+    KeysetPageResponse<MaterialExitResponse> getMaterialExitPage(HistoryPageRequest request);
    // List<MaterialExitResponse> createMaterialExit(MaterialExitCreateRequest request);
     MaterialExitResponse updateMaterialExit(MaterialExitCreateRequest request);
     MaterialExitResponse deleteMaterialExit(Long id);
+    List<MaterialExitAllocationResponse> getMaterialExitAllocations(Long id);
     MaterialExit getMaterialExitById(Long id);
 
     // bundan sonrası rapor ve fiş yapısını kntrol etmek ve denemek için eklnmiştir
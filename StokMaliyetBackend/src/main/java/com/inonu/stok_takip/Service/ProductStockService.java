@@ -0,0 +1,20 @@
+package com.inonu.stok_takip.Service;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+// ürün başına stok özeti (product_stock), çağıran işlemin transaction'ı içinde güncellenir
+public interface ProductStockService {
+
+    void increase(Long productId, Double quantity, Double value, LocalDate entryDate);
+    void decrease(Long productId, Double quantity, Double value);
+
+    // devirde miktar ve tutar değişmez, sadece son giriş tarihi ilerler
+    void recordEntryDate(Collection<Long> productIds, LocalDate entryDate);
+
+    // silme gibi fark olarak hesaplanamayan değişikliklerde ürünün özeti girişlerden yeniden oluşturulur
+    void recalculate(Long productId);
+    void rebuildAll();
+
+    Double getOnHandQuantity(Long productId);
+}
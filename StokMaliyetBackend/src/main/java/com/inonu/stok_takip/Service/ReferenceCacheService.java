@@ -0,0 +1,13 @@
+package com.inonu.stok_takip.Service;
+
+import com.inonu.stok_takip.dto.Response.ReferenceCacheStatsResponse;
+
+// referans entity'lerin (kategori, ölçü birimi, alım tipi/birimi, fiş tipi, yemekhane, bütçe) ikinci seviye önbelleği.
+// Kayıt, güncelleme ve silme servisleri entity'yi Hibernate üzerinden yazdığı için önbellek commit'te kendiliğinden güncellenir
+public interface ReferenceCacheService {
+
+    ReferenceCacheStatsResponse getStats();
+
+    // veritabanı uygulama dışından değiştirildiğinde önbellek ve sayaçlar sıfırlanır
+    void evictAll();
+}
@@ -0,0 +1,17 @@
+package com.inonu.stok_takip.Service;
+
+import com.inonu.stok_takip.dto.Response.ReportBackfillResponse;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// eksik veya eskimiş günlük raporların tarih aralığında paralel olarak yeniden hesaplanması
+public interface ReportBackfillService {
+
+    // iş arka planda başlatılır, dönen kimlikle ilerleme sorgulanır
+    ReportBackfillResponse startBackfill(LocalDate startDate, LocalDate endDate, boolean force);
+
+    ReportBackfillResponse getBackfill(String jobId);
+
+    List<ReportBackfillResponse> getRecentBackfills();
+}
@@ -0,0 +1,14 @@
+package com.inonu.stok_takip.Service;
+
+import com.inonu.stok_takip.dto.Response.ReportRecomputeStatsResponse;
+
+import java.time.LocalDate;
+
+// günlük raporların arka planda yeniden hesaplanma kuyruğu; aynı gün için bekleyen istekler tek hesaplamada birleşir
+public interface ReportRecomputeService {
+
+    // transaction varsa commit sonrası kuyruğa eklenir, istek thread'i hesaplamayı beklemez
+    void enqueue(LocalDate date);
+
+    ReportRecomputeStatsResponse getStats();
+}
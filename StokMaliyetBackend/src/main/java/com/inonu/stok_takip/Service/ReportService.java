@@ -1,6 +1,7 @@
 package com.inonu.stok_takip.Service;
 
 import com.inonu.stok_takip.Enum.ReportType;
+import com.inonu.stok_takip.dto.Response.ReportBundleResponse;
 import com.inonu.stok_takip.dto.Response.ReportResponse;
 
 import java.time.LocalDate;
@@ -11,9 +12,17 @@ public interface ReportService {
     ReportResponse createReport(LocalDate date,ReportType reportType);
     List<ReportResponse> getAllReports();
     ReportResponse calculateDailyReport(LocalDate date);
+    // günlük raporu yeniden hesaplar, gün için veri yoksa false döner
+    boolean refreshDailyReport(LocalDate date);
     ReportResponse calculateWeeklyReport(LocalDate date);
     ReportResponse calculateMonthlyReport(LocalDate date);
     ReportResponse calculateYearlyReport(LocalDate date);
+    // tarihin dahil olduğu hafta, ay ve yıl raporları önbellekten düşürülür; çağıran transaction içinde çağrılır
+    void invalidatePeriodReports(LocalDate date);
+    // yıl sonu devri tamamlanan yılın dönemleri kapanmış sayılır
+    void closeYear(int year);
+    // gün, hafta, ay ve yıl raporları ile yemek ve maliyet istatistikleri günlük özet satırlarının tek okumasından döner
+    ReportBundleResponse getReportBundle(LocalDate date);
     ReportResponse getReportByDate(LocalDate date,ReportType reportType);
     List<ReportResponse> getReportsBetweenDate(LocalDate startDate, LocalDate endDate);
 
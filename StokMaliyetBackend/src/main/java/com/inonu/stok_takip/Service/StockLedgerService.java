@@ -0,0 +1,34 @@
+package com.inonu.stok_takip.Service;
+
+import com.inonu.stok_takip.entitiy.MaterialEntry;
+
+import java.util.List;
+
+// ürün bazında stokta kalan miktarı olan girişlerin (açık partilerin) FIFO sırasıyla bellekte tutulduğu defter
+public interface StockLedgerService {
+
+    // istenen miktarı en eski partiden başlayarak dağıtır, defteri değiştirmez
+    List<LotAllocation> allocate(Long productId, Double quantity);
+
+    // çıkışta tüketilen partileri transaction commit edildikten sonra defterden düşer
+    void consume(Long productId, List<LotAllocation> allocations);
+
+    void refreshEntry(MaterialEntry materialEntry);
+    void removeEntry(MaterialEntry materialEntry);
+
+    // defteri veritabanındaki açık partilerden yeniden oluşturur
+    void reloadAll();
+
+    // veritabanıyla çakışma görülen ürünü hemen düşürür, bir sonraki dağıtımda yeniden yüklenir
+    void evict(Long productId);
+
+    // partilere miktar geri eklendiğinde (çıkış iptali) ürün commit sonrası yeniden yüklenmek üzere düşürülür
+    void invalidate(Long productId);
+
+    record LotAllocation(
+            Long entryId,
+            double quantity,
+            double unitPriceIncludingVat
+    ) {
+    }
+}
@@ -1,6 +1,8 @@
 package com.inonu.stok_takip.Service;
 
+import com.inonu.stok_takip.dto.Request.HistoryPageRequest;
 import com.inonu.stok_takip.dto.Request.TenderCreateRequest;
+import com.inonu.stok_takip.dto.Response.KeysetPageResponse;
 import com.inonu.stok_takip.dto.Response.TenderResponse;
 import com.inonu.stok_takip.entitiy.Tender;
 
@@ -10,6 +12,7 @@ public interface TenderService {
 
     TenderResponse createTender(TenderCreateRequest request);
     List<TenderResponse> getAllTenders();
+    KeysetPageResponse<TenderResponse> getTenderPage(HistoryPageRequest request);
     List<TenderResponse> getAllActiveTenders();
     TenderResponse updateTenderRemainingQuantity(Long tenderId, Double quantity);
     Tender getTenderById(Long id);
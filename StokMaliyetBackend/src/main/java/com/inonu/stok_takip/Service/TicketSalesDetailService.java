@@ -1,7 +1,9 @@
 package com.inonu.stok_takip.Service;
 
 import com.inonu.stok_takip.dto.Request.DateRequest;
+import com.inonu.stok_takip.dto.Request.HistoryPageRequest;
 import com.inonu.stok_takip.dto.Request.TicketSalesDetailCreateRequest;
+import com.inonu.stok_takip.dto.Response.KeysetPageResponse;
 import com.inonu.stok_takip.dto.Response.TicketSalesDetailResponse;
 import com.inonu.stok_takip.dto.Response.TicketSalesResponse;
 import com.inonu.stok_takip.entitiy.TicketSalesDetail;
@@ -13,6 +15,7 @@ public interface TicketSalesDetailService {
 
 
     List<TicketSalesDetailResponse> getAll();
+    KeysetPageResponse<TicketSalesDetailResponse> getTicketSalesDetailPage(HistoryPageRequest request);
     List<TicketSalesDetailResponse> addTicket(TicketSalesDetailCreateRequest request);
     TicketSalesDetail getTicketSalesDetailById(Long id);
     List<TicketSalesResponse> getTicketByDate(DateRequest dateRequest);
@@ -5,13 +5,17 @@ import com.inonu.stok_takip.dto.Request.TicketTypeUpdateRequest;
 import com.inonu.stok_takip.dto.Response.TicketTypeResponse;
 import com.inonu.stok_takip.entitiy.TicketType;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface TicketTypeService {
 
     List<TicketTypeResponse> getAllTicketTypes();
     TicketTypeResponse createTicketType(TicketTypeCreateRequest request);
     TicketType getTicketTypeById(Long id);
+    // fiş türleri tek sorguyla yüklenir, bulunamayan id varsa exception fırlatılır
+    Map<Long, TicketType> getTicketTypesByIds(Collection<Long> ids);
     TicketTypeResponse updateTicketType(TicketTypeUpdateRequest request);
     TicketTypeResponse deleteTicketType(Long id);
 }
@@ -0,0 +1,45 @@
+package com.inonu.stok_takip.dto.Request;
+
+import com.inonu.stok_takip.Exception.MaterialEntry.InvalidDateRangeException;
+import com.inonu.stok_takip.util.KeysetCursor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+// geçmiş listeleri için sayfa isteği, filtrelerin hepsi isteğe bağlıdır; bitiş tarihi dahildir
+public record HistoryPageRequest(
+        Long productId,
+        Long categoryId,
+        @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate startDate,
+        @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate endDate,
+        String recipient,
+        String cursor,
+        Integer size
+) {
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+
+    // istek parametrelerden bağlandıktan sonra servis tarafında çağrılır
+    public void validate() {
+        if (startDate != null && endDate != null && startDate.isAfter(endDate)) {
+            throw new InvalidDateRangeException("Geçersiz tarih aralığı: " + startDate + " - " + endDate);
+        }
+    }
+
+    public int pageSize() {
+        if (size == null || size <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+
+    // sorgular [startDate, endDateExclusive) aralığıyla çalışır
+    public LocalDate endDateExclusive() {
+        return endDate != null ? endDate.plusDays(1) : null;
+    }
+
+    public KeysetCursor decodedCursor() {
+        return KeysetCursor.decode(cursor);
+    }
+}
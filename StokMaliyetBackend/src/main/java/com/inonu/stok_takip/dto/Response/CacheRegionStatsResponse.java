@@ -0,0 +1,10 @@
+package com.inonu.stok_takip.dto.Response;
+
+public record CacheRegionStatsResponse(
+        String regionName,
+        Long hitCount,
+        Long missCount,
+        Long putCount,
+        Double hitRatio
+) {
+}
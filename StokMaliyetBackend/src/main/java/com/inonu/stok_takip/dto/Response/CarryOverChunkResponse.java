@@ -0,0 +1,10 @@
+package com.inonu.stok_takip.dto.Response;
+
+public record CarryOverChunkResponse(
+        Integer chunkNumber,
+        Integer lotCount,
+        Long firstEntryId,
+        Long lastEntryId,
+        Long elapsedMillis
+) {
+}
@@ -0,0 +1,10 @@
+package com.inonu.stok_takip.dto.Response;
+
+public record CarryOverLotResponse(
+        Long materialEntryId,
+        Long productId,
+        Double remainingQuantity,
+        Double unitPriceIncludingVat,
+        Double value
+) {
+}
@@ -0,0 +1,15 @@
+package com.inonu.stok_takip.dto.Response;
+
+import java.util.List;
+
+public record CarryOverResponse(
+        Integer year,
+        Boolean dryRun,
+        Integer lotCount,
+        Double totalQuantity,
+        Double totalValue,
+        Long elapsedMillis,
+        List<CarryOverChunkResponse> chunks,
+        List<CarryOverLotResponse> lots // sadece deneme (dry-run) modunda doldurulur
+) {
+}
@@ -0,0 +1,7 @@
+package com.inonu.stok_takip.dto.Response;
+
+public record DailyTicketTotals(
+        Long ticketCount,
+        Double totalPrice
+) {
+}
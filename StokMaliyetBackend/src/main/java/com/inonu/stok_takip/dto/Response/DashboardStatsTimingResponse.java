@@ -0,0 +1,11 @@
+package com.inonu.stok_takip.dto.Response;
+
+import java.time.LocalDateTime;
+
+public record DashboardStatsTimingResponse(
+        String name,
+        LocalDateTime computedAt,
+        Long computeMillis,
+        Boolean expired
+) {
+}
@@ -0,0 +1,10 @@
+package com.inonu.stok_takip.dto.Response;
+
+// dashboard stok kartları için tek aggregate sorgunun sonucu
+public record DashboardStockStats(
+        Long entryCount,
+        Long lowStockCount,
+        Long criticalCount,
+        Double totalValue
+) {
+}
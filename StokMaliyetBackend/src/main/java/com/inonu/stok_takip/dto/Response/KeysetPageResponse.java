@@ -0,0 +1,23 @@
+package com.inonu.stok_takip.dto.Response;
+
+import com.inonu.stok_takip.util.KeysetCursor;
+
+import java.util.List;
+import java.util.function.Function;
+
+// bir sonraki sayfa nextCursor ile istenir, son sayfada nextCursor null döner
+public record KeysetPageResponse<T>(
+        List<T> content,
+        String nextCursor,
+        boolean hasNext
+) {
+
+    // sorgu pageSize + 1 satır getirir, fazladan gelen satır sonraki sayfanın varlığını gösterir
+    public static <E, T> KeysetPageResponse<T> of(List<E> rows, int pageSize,
+                                                  Function<E, T> mapper, Function<E, KeysetCursor> cursorOf) {
+        boolean hasNext = rows.size() > pageSize;
+        List<E> pageRows = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasNext ? cursorOf.apply(pageRows.get(pageRows.size() - 1)).encode() : null;
+        return new KeysetPageResponse<>(pageRows.stream().map(mapper).toList(), nextCursor, hasNext);
+    }
+}
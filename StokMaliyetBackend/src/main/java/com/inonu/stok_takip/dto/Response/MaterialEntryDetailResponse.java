@@ -8,4 +8,19 @@ public record MaterialEntryDetailResponse(
         Double totalExit,
         Double remainingQuantity
 ) {
+
+    // JPQL constructor ifadesi iç içe nesne kuramadığı için ürün bilgileri düz kolonlar olarak gelir
+    public MaterialEntryDetailResponse(String productName,
+                                       Double vatAmount,
+                                       Double criticalLevel,
+                                       String measurementType,
+                                       String category,
+                                       Double totalCarryOver,
+                                       Double totalTender,
+                                       Double totalDirectProcurement,
+                                       Double totalExit,
+                                       Double remainingQuantity) {
+        this(new ProductDetailResponse(productName, vatAmount, criticalLevel, measurementType, category),
+                totalCarryOver, totalTender, totalDirectProcurement, totalExit, remainingQuantity);
+    }
 }
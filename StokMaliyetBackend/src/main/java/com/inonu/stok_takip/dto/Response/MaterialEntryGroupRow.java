@@ -0,0 +1,21 @@
+package com.inonu.stok_takip.dto.Response;
+
+import com.inonu.stok_takip.Enum.TenderType;
+
+import java.time.LocalDate;
+
+// alım şekli + ürün bazında veritabanında toplanmış giriş satırı, dashboard gruplaması için
+public record MaterialEntryGroupRow(
+        TenderType tenderType,
+        Long productId,
+        String productName,
+        String categoryName,
+        String measurementTypeName,
+        Double criticalLevel,
+        Double vatAmount,
+        Long entryCount,
+        Double totalQuantity,
+        Double totalPrice,
+        LocalDate lastEntryDate
+) {
+}
@@ -0,0 +1,16 @@
+package com.inonu.stok_takip.dto.Response;
+
+import com.inonu.stok_takip.Enum.EntrySourceType;
+
+import java.time.LocalDate;
+
+public record MaterialExitAllocationResponse(
+        Long materialEntryId,
+        String companyName,
+        LocalDate entryDate,
+        EntrySourceType entrySourceType,
+        Double quantity,
+        Double unitPrice,
+        Double totalPrice
+) {
+}
@@ -0,0 +1,11 @@
+package com.inonu.stok_takip.dto.Response;
+
+public record PeriodCostTotals(
+        Long totalPerson,
+        Long ticketQuantity,
+        Double ticketRevenue,
+        Double materialCost,
+        Double cleaningCost,
+        Long mealCount // çıkışlara girilen mevcutlardan, meals-per-* istatistikleriyle aynı
+) {
+}
@@ -0,0 +1,17 @@
+package com.inonu.stok_takip.dto.Response;
+
+import java.time.LocalDate;
+
+// depodaki her ürün için stok özeti, alan adları eski Map tabanlı cevapla aynı tutuldu
+public record ProductStockDetailResponse(
+        Long productId,
+        String productName,
+        Double criticalLevel,
+        String measurementUnitName,
+        String productCategoryName,
+        Double totalStockQuantity,
+        Double totalValue,
+        Double averageUnitPrice,
+        LocalDate lastEntryDate
+) {
+}
@@ -0,0 +1,18 @@
+package com.inonu.stok_takip.dto.Response;
+
+import java.util.List;
+
+// entity bölgelerinin toplamı ve sorgu önbelleği ayrı verilir; sayaçlar uygulama açılışından veya son temizlemeden beri birikir
+public record ReferenceCacheStatsResponse(
+        Boolean statisticsEnabled,
+        Long entityHitCount,
+        Long entityMissCount,
+        Long entityPutCount,
+        Double entityHitRatio,
+        Long queryHitCount,
+        Long queryMissCount,
+        Long queryPutCount,
+        Double queryHitRatio,
+        List<CacheRegionStatsResponse> regions
+) {
+}
@@ -0,0 +1,13 @@
+package com.inonu.stok_takip.dto.Response;
+
+import com.inonu.stok_takip.Enum.BackfillDateStatus;
+
+import java.time.LocalDate;
+
+public record ReportBackfillDateResponse(
+        LocalDate date,
+        BackfillDateStatus status,
+        Long durationMillis,
+        String error
+) {
+}
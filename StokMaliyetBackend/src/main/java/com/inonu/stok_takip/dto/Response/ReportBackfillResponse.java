@@ -0,0 +1,25 @@
+package com.inonu.stok_takip.dto.Response;
+
+import com.inonu.stok_takip.Enum.BackfillStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record ReportBackfillResponse(
+        String jobId,
+        LocalDate startDate,
+        LocalDate endDate,
+        Boolean force,
+        BackfillStatus status,
+        Integer totalDates,
+        Integer completedDates,
+        Integer updatedDates,
+        Integer emptyDates,
+        Integer failedDates,
+        LocalDateTime startedAt,
+        LocalDateTime finishedAt,
+        Long elapsedMillis,
+        List<ReportBackfillDateResponse> dates
+) {
+}
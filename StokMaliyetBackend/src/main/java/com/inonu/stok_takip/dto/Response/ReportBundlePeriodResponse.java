@@ -0,0 +1,18 @@
+package com.inonu.stok_takip.dto.Response;
+
+import com.inonu.stok_takip.Enum.ReportType;
+
+import java.time.LocalDate;
+
+// endDate dönemin son günüdür (dahil). mealCount meals-per-* uçlarıyla aynı kuraldır (günlük özet satırlarından). materialCost temizlik dışı çıkışlar (daily-stats), totalMaterialCost temizlik dahil tüm çıkışlardır (weekly/monthly/yearly-stats)
+public record ReportBundlePeriodResponse(
+        ReportType reportType,
+        LocalDate startDate,
+        LocalDate endDate,
+        ReportResponse report,
+        Long mealCount,
+        Double materialCost,
+        Double cleaningCost,
+        Double totalMaterialCost
+) {
+}
@@ -0,0 +1,12 @@
+package com.inonu.stok_takip.dto.Response;
+
+import java.time.LocalDate;
+
+public record ReportBundleResponse(
+        LocalDate date,
+        ReportBundlePeriodResponse daily,
+        ReportBundlePeriodResponse weekly,
+        ReportBundlePeriodResponse monthly,
+        ReportBundlePeriodResponse yearly
+) {
+}
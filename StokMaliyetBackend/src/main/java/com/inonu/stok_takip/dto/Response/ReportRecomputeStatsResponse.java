@@ -0,0 +1,20 @@
+package com.inonu.stok_takip.dto.Response;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public record ReportRecomputeStatsResponse(
+        Integer queueDepth,
+        Long oldestPendingMillis,
+        Long enqueuedCount,
+        Long coalescedCount,
+        Long processedCount,
+        Long emptyDayCount,
+        Long failedCount,
+        Long lastLagMillis,
+        Long maxLagMillis,
+        LocalDate lastProcessedDate,
+        LocalDateTime lastProcessedAt,
+        String lastError
+) {
+}
@@ -8,8 +8,10 @@ import java.time.LocalDateTime;
 @MappedSuperclass
 public abstract class BaseEntity implements Serializable, Cloneable {
 
+    // her entity kendi sekansından (<entity>_seq) 50'şer id ayırır; IDENTITY'de Hibernate insert batch'ini kapatıyordu.
+    // Mevcut tablolar açılışta Config/SequenceMigration ile sekansa taşınır
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
     @Column(name = "ID", nullable = false)
     protected Long id;
 
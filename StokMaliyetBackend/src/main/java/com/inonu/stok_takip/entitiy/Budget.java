@@ -1,12 +1,17 @@
 package com.inonu.stok_takip.entitiy;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.OneToMany;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDate;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Budget extends BaseEntity{
 
     private String budgetName;  // bütçe adı ( 2025 yemek bütçesi vb.) sorulacak
@@ -0,0 +1,68 @@
+package com.inonu.stok_takip.entitiy;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+
+// yıl sonu devir işinin kaldığı yer, her parça (chunk) commit edildiğinde ilerler; çökme sonrası buradan devam edilir
+@Entity
+@Table(name = "carry_over_checkpoint")
+public class CarryOverCheckpoint extends BaseEntity {
+
+    @Column(nullable = false, unique = true)
+    private Integer carryOverYear; // devredilen yıl
+
+    private Long lastEntryId; // en son devredilen girişin id'si, sonraki parça bundan büyüklerden başlar
+    private Integer carriedLotCount;
+    private Double carriedQuantity;
+    private Double carriedValue; // kdv dahil birim fiyatlarla devredilen toplam tutar
+    private Boolean completed;
+
+    public Integer getCarryOverYear() {
+        return carryOverYear;
+    }
+
+    public void setCarryOverYear(Integer carryOverYear) {
+        this.carryOverYear = carryOverYear;
+    }
+
+    public Long getLastEntryId() {
+        return lastEntryId;
+    }
+
+    public void setLastEntryId(Long lastEntryId) {
+        this.lastEntryId = lastEntryId;
+    }
+
+    public Integer getCarriedLotCount() {
+        return carriedLotCount;
+    }
+
+    public void setCarriedLotCount(Integer carriedLotCount) {
+        this.carriedLotCount = carriedLotCount;
+    }
+
+    public Double getCarriedQuantity() {
+        return carriedQuantity;
+    }
+
+    public void setCarriedQuantity(Double carriedQuantity) {
+        this.carriedQuantity = carriedQuantity;
+    }
+
+    public Double getCarriedValue() {
+        return carriedValue;
+    }
+
+    public void setCarriedValue(Double carriedValue) {
+        this.carriedValue = carriedValue;
+    }
+
+    public Boolean getCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(Boolean completed) {
+        this.completed = completed;
+    }
+}
@@ -1,11 +1,17 @@
 package com.inonu.stok_takip.entitiy;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.OneToMany;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.List;
 
+// yılda birkaç kez değişen referans verisi; ikinci seviye önbellekte tutulur, kayıt/güncelleme/silme önbelleği de günceller
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Category extends BaseEntity{
 
     private String name;
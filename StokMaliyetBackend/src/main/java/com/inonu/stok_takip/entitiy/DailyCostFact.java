@@ -0,0 +1,78 @@
+package com.inonu.stok_takip.entitiy;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+// gün başına yemekhane maliyet özeti; haftalık, aylık ve yıllık raporlar bu satırların toplamından hesaplanır.
+// Çıkış ve fiş değişiklikleriyle aynı transaction içinde ham kayıtlardan yeniden hesaplanır
+@Entity
+@Table(name = "daily_cost_fact")
+public class DailyCostFact extends BaseEntity {
+
+    @Column(nullable = false, unique = true)
+    private LocalDate factDate;
+
+    private int totalPerson; // o gün yapılan yemek sayısı
+    private int ticketQuantity; // satılan fiş sayısı
+    private Double ticketRevenue; // satılan fişlerin toplam tutarı
+    private Double materialCost; // temizlik dışındaki malzeme çıkışlarının tutarı
+    private Double cleaningCost; // temizlik malzemesi çıkışlarının tutarı
+    private Integer mealCount; // çıkışlara girilen yemek sayısı (günün ilk çıkışındaki mevcut)
+
+    public LocalDate getFactDate() {
+        return factDate;
+    }
+
+    public void setFactDate(LocalDate factDate) {
+        this.factDate = factDate;
+    }
+
+    public int getTotalPerson() {
+        return totalPerson;
+    }
+
+    public void setTotalPerson(int totalPerson) {
+        this.totalPerson = totalPerson;
+    }
+
+    public int getTicketQuantity() {
+        return ticketQuantity;
+    }
+
+    public void setTicketQuantity(int ticketQuantity) {
+        this.ticketQuantity = ticketQuantity;
+    }
+
+    public Double getTicketRevenue() {
+        return ticketRevenue;
+    }
+
+    public void setTicketRevenue(Double ticketRevenue) {
+        this.ticketRevenue = ticketRevenue;
+    }
+
+    public Double getMaterialCost() {
+        return materialCost;
+    }
+
+    public void setMaterialCost(Double materialCost) {
+        this.materialCost = materialCost;
+    }
+
+    public Integer getMealCount() {
+        return mealCount;
+    }
+
+    public void setMealCount(Integer mealCount) {
+        this.mealCount = mealCount;
+    }
+
+    public Double getCleaningCost() {
+        return cleaningCost;
+    }
+
+    public void setCleaningCost(Double cleaningCost) {
+        this.cleaningCost = cleaningCost;
+    }
+}
@@ -8,6 +8,7 @@ import java.time.LocalDate;
 import java.util.List;
 
 @Entity
+@Table(indexes = @Index(name = "idx_direct_procurement_active_end_date", columnList = "active, end_date"))
 public class DirectProcurement extends BaseEntity{ // dpğrudan Temin tablosu
 
     private Double Quantity; // doğrudan temin  miktarı
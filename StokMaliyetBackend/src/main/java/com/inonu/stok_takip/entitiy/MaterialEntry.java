@@ -8,6 +8,12 @@ import jakarta.persistence.*;
 import java.time.LocalDate;
 
 @Entity
+@Table(indexes = {
+        // yıl/tarih aralığıyla sınırlanan bütçe harcaması sorgusu için
+        @Index(name = "idx_material_entry_entry_date_budget", columnList = "entry_date, budget_id"),
+        // keyset sayfalama (entry_date, id) sırasıyla ilerler
+        @Index(name = "idx_material_entry_entry_date_id", columnList = "entry_date, id")
+})
 public class MaterialEntry extends BaseEntity {
 
 
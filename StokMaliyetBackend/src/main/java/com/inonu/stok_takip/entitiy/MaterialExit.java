@@ -1,12 +1,15 @@
 package com.inonu.stok_takip.entitiy;
 
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
 
 import java.time.LocalDate;
 
 @Entity
+@Table(indexes = @Index(name = "idx_material_exit_exit_date_id", columnList = "exit_date, id"))
 public class MaterialExit extends BaseEntity{
 
 
@@ -0,0 +1,55 @@
+package com.inonu.stok_takip.entitiy;
+
+import jakarta.persistence.*;
+
+// bir malzeme çıkışının hangi girişten (partiden) ne kadar ve hangi birim fiyatla tükettiğini tutar
+@Entity
+@Table(name = "material_exit_allocation", indexes = {
+        @Index(name = "idx_material_exit_allocation_exit", columnList = "material_exit_id"),
+        @Index(name = "idx_material_exit_allocation_entry", columnList = "material_entry_id")
+})
+public class MaterialExitAllocation extends BaseEntity {
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "material_exit_id", nullable = false)
+    private MaterialExit materialExit;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "material_entry_id", nullable = false)
+    private MaterialEntry materialEntry;
+
+    private Double quantity; // partiden tüketilen miktar
+    private Double unitPrice; // çıkış anındaki kdv dahil birim fiyat
+
+    public MaterialExit getMaterialExit() {
+        return materialExit;
+    }
+
+    public void setMaterialExit(MaterialExit materialExit) {
+        this.materialExit = materialExit;
+    }
+
+    public MaterialEntry getMaterialEntry() {
+        return materialEntry;
+    }
+
+    public void setMaterialEntry(MaterialEntry materialEntry) {
+        this.materialEntry = materialEntry;
+    }
+
+    public Double getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Double quantity) {
+        this.quantity = quantity;
+    }
+
+    public Double getUnitPrice() {
+        return unitPrice;
+    }
+
+    public void setUnitPrice(Double unitPrice) {
+        this.unitPrice = unitPrice;
+    }
+}
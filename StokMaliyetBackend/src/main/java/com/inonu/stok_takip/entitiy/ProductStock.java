@@ -0,0 +1,51 @@
+package com.inonu.stok_takip.entitiy;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+// ürün başına depodaki güncel stok özeti, giriş/çıkış/devir/silme işlemleriyle aynı transaction içinde güncellenir
+@Entity
+@Table(name = "product_stock")
+public class ProductStock extends BaseEntity {
+
+    @OneToOne
+    @JoinColumn(name = "product_id", nullable = false, unique = true)
+    private Product product;
+
+    private Double onHandQuantity; // depoda kalan toplam miktar
+    private Double onHandValue; // kalan miktarın kdv dahil birim fiyatlarla toplam tutarı
+    private LocalDate lastEntryDate; // ürünün son giriş tarihi
+
+    public Product getProduct() {
+        return product;
+    }
+
+    public void setProduct(Product product) {
+        this.product = product;
+    }
+
+    public Double getOnHandQuantity() {
+        return onHandQuantity;
+    }
+
+    public void setOnHandQuantity(Double onHandQuantity) {
+        this.onHandQuantity = onHandQuantity;
+    }
+
+    public Double getOnHandValue() {
+        return onHandValue;
+    }
+
+    public void setOnHandValue(Double onHandValue) {
+        this.onHandValue = onHandValue;
+    }
+
+    public LocalDate getLastEntryDate() {
+        return lastEntryDate;
+    }
+
+    public void setLastEntryDate(LocalDate lastEntryDate) {
+        this.lastEntryDate = lastEntryDate;
+    }
+}
@@ -1,11 +1,16 @@
 package com.inonu.stok_takip.entitiy;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.OneToMany;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class PurchaseType extends BaseEntity {  //alım tipi mal hizmet bakım onarım vb
 
     private String name;
@@ -1,8 +1,13 @@
 package com.inonu.stok_takip.entitiy;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Refectory extends BaseEntity{
 
     private String name;
@@ -1,13 +1,15 @@
 package com.inonu.stok_takip.entitiy;
 
 import com.inonu.stok_takip.Enum.ReportType;
-import jakarta.persistence.Entity;
-import jakarta.persistence.EnumType;
-import jakarta.persistence.Enumerated;
+import jakarta.persistence.*;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
+// her tür ve tarih için tek rapor satırı tutulur; mevcut tablolar açılışta Config/ReportUniqueMigration ile tekilleştirilir
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_report_type_report_create_date",
+        columnNames = {"report_type", "report_create_date"}))
 public class Report extends BaseEntity{
 
 
@@ -21,6 +23,7 @@ public class Report extends BaseEntity{
     private Double averagePersonCost; // mevcuda göre ortalama bir tabak yemek maliyeti
     private Double averageTicketCost; // satılan bilete göre ortalama 1 tabak yemek maliyeti
     private int leftoverMealCount; // artan yemek sayısı
+    private LocalDateTime factUpdateDate; // günlük raporun hesaplandığı günlük özet satırının güncellenme zamanı
 
 
 
@@ -99,6 +102,14 @@ public class Report extends BaseEntity{
         this.reportType = reportType;
     }
 
+    public LocalDateTime getFactUpdateDate() {
+        return factUpdateDate;
+    }
+
+    public void setFactUpdateDate(LocalDateTime factUpdateDate) {
+        this.factUpdateDate = factUpdateDate;
+    }
+
     public int getLeftoverMealCount() {
         return leftoverMealCount;
     }
@@ -8,6 +8,11 @@ import java.time.LocalDate;
 import java.util.List;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_tender_active_end_date", columnList = "active, end_date"),
+        // keyset sayfalama (start_date, id) sırasıyla ilerler
+        @Index(name = "idx_tender_start_date_id", columnList = "start_date, id")
+})
 public class Tender extends BaseEntity { // ihalelerin eklendiği tablo
 
     private Double tenderQuantity; // İhale tutarı
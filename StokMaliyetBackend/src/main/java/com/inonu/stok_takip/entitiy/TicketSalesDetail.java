@@ -1,13 +1,16 @@
 package com.inonu.stok_takip.entitiy;
 
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.Table;
 
 import java.time.LocalDate;
 
 @Entity
+@Table(indexes = @Index(name = "idx_ticket_sales_detail_ticket_date_id", columnList = "ticket_date, id"))
 public class TicketSalesDetail extends BaseEntity{
 
     private int quantity; // satılan fiş sayısı
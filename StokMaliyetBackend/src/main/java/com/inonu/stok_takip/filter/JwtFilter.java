@@ -1,9 +1,12 @@
 package com.inonu.stok_takip.filter;
 
 import com.inonu.stok_takip.util.JwtUtil;
+import com.inonu.stok_takip.util.JwtUtil.TokenClaims;
 import io.jsonwebtoken.ExpiredJwtException;
 import jakarta.servlet.*;
 import jakarta.servlet.http.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -16,41 +19,47 @@ import java.util.List;
 @Component
 public class JwtFilter extends OncePerRequestFilter {
 
+    private static final Logger log = LoggerFactory.getLogger(JwtFilter.class);
+
     private final JwtUtil jwtUtil;
 
     public JwtFilter(JwtUtil jwtUtil) {
         this.jwtUtil = jwtUtil;
     }
 
+    // daha önce doğrulanmış token için maliyet bir özet hesabı ve önbellek okumasıdır; loglar sadece debug açıkken yazılır
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
             throws ServletException, IOException {
 
         String header = request.getHeader("Authorization");
-        System.out.println("JWT Filter - Request: " + request.getRequestURI() + " | Auth Header: " + (header != null ? "Present" : "Missing"));
-        
+        if (log.isDebugEnabled()) {
+            log.debug("JWT Filter - Request: {} | Auth Header: {}", request.getRequestURI(), header != null ? "Present" : "Missing");
+        }
+
         if (header != null && header.startsWith("Bearer ")) {
             String token = header.substring(7);
             try {
-                String username = jwtUtil.extractUsername(token);
-                String role = jwtUtil.extractRole(token);
-                
-                System.out.println("JWT Filter - Username: " + username + " | Role: " + role);
+                TokenClaims claims = jwtUtil.parseToken(token);
+
+                if (log.isDebugEnabled()) {
+                    log.debug("JWT Filter - Username: {} | Role: {}", claims.username(), claims.role());
+                }
 
                 var auth = new UsernamePasswordAuthenticationToken(
-                        username,
+                        claims.username(),
                         null,
-                        List.of(new SimpleGrantedAuthority("ROLE_" + role))
+                        List.of(new SimpleGrantedAuthority("ROLE_" + claims.role()))
                 );
                 SecurityContextHolder.getContext().setAuthentication(auth);
 
             } catch (ExpiredJwtException e) {
-                System.out.println("JWT Filter - Token expired");
+                log.debug("JWT Filter - Token expired");
                 response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                 return;
             }
         } else {
-            System.out.println("JWT Filter - No valid Authorization header");
+            log.debug("JWT Filter - No valid Authorization header");
         }
 
         chain.doFilter(request, response);
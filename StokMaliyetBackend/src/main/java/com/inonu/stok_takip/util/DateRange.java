@@ -0,0 +1,30 @@
+package com.inonu.stok_takip.util;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+// raporlama sorgularının [startDate, endDate) sınırları; tarih sütununa fonksiyon uygulanmadan
+// aralık karşılaştırması yapıldığı için (tarih, id) indeksleri kullanılabilir
+public record DateRange(LocalDate startDate, LocalDate endDate) {
+
+    public static DateRange day(LocalDate date) {
+        return new DateRange(date, date.plusDays(1));
+    }
+
+    // tarihin içinde bulunduğu pazartesi-pazar haftası; yıl başını kesen hafta bölünmez
+    public static DateRange week(LocalDate date) {
+        LocalDate monday = date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        return new DateRange(monday, monday.plusWeeks(1));
+    }
+
+    public static DateRange month(LocalDate date) {
+        LocalDate first = date.withDayOfMonth(1);
+        return new DateRange(first, first.plusMonths(1));
+    }
+
+    public static DateRange year(LocalDate date) {
+        LocalDate first = date.withDayOfYear(1);
+        return new DateRange(first, first.plusYears(1));
+    }
+}
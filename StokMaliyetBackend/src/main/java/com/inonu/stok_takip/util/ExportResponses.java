@@ -0,0 +1,42 @@
+package com.inonu.stok_takip.util;
+
+import com.inonu.stok_takip.Enum.ExportFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.util.zip.GZIPOutputStream;
+
+// dışa aktarım cevabının başlıkları ve istemci destekliyorsa gzip sıkıştırması
+public final class ExportResponses {
+
+    private ExportResponses() {
+    }
+
+    public static ResponseEntity<StreamingResponseBody> of(String baseName, LocalDate startDate, LocalDate endDate,
+                                                           ExportFormat format, String acceptEncoding,
+                                                           StreamingResponseBody body) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+        String fileName = baseName + "_" + startDate + "_" + endDate + "." + format.getExtension();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(format.getContentType() + ";charset=UTF-8"));
+        headers.setContentDisposition(ContentDisposition.attachment().filename(fileName).build());
+        headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (!gzip) {
+            return ResponseEntity.ok().headers(headers).body(body);
+        }
+
+        headers.add(HttpHeaders.CONTENT_ENCODING, "gzip");
+        // syncFlush: yazıcının flush çağrıları sıkıştırılmış veriyi de hemen istemciye gönderir
+        StreamingResponseBody gzipBody = outputStream -> {
+            GZIPOutputStream gzipStream = new GZIPOutputStream(outputStream, 8192, true);
+            body.writeTo(gzipStream);
+            gzipStream.finish();
+        };
+        return ResponseEntity.ok().headers(headers).body(gzipBody);
+    }
+}
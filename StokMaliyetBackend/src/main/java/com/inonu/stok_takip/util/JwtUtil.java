@@ -3,25 +3,59 @@ package com.inonu.stok_takip.util;
 import com.inonu.stok_takip.Enum.Role;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Component
 public class JwtUtil {
 
     @Value("${jwt.secret:default-secret-key-for-development-only-change-in-production}")
     private String SECRET;
-    
+
     @Value("${jwt.expiration:3600000}") // 1 saat default
     private long EXPIRATION_TIME;
 
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(SECRET.getBytes());
+    // doğrulanmış token'ların en fazla kaç tanesinin bilgisi bellekte tutulur
+    @Value("${jwt.claims-cache-size:10000}")
+    private int claimsCacheSize;
+
+    // anahtar ve parser değişmez, thread-safe oldukları için açılışta bir kez oluşturulur
+    private Key signingKey;
+    private JwtParser parser;
+
+    // token'ın SHA-256 özeti -> doğrulanmış bilgiler; token'ın kendisi bellekte tutulmaz.
+    // İmza bir kez doğrulandıktan sonra aynı token süresi dolana kadar sadece özetle bulunur.
+    // Okumalar kilitsizdir; boyut sınırı aşıldığında ekleyen thread'lerden biri süresi dolanları ve
+    // sınırın %10'u kadar en erken dolacak token'ı düşürür, böylece tarama her eklemede değil toplu yapılır
+    private final ConcurrentHashMap<String, TokenClaims> claimsCache = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(SECRET.getBytes());
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
     }
 
     public String generateToken(String username, Role role) {
@@ -30,16 +64,63 @@ public class JwtUtil {
                 .addClaims(Map.of("role", role.name()))
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    // token bir kez çözülür; süresi dolmuşsa ExpiredJwtException, imza veya biçim hatalıysa JwtException fırlatılır
+    public TokenClaims parseToken(String token) {
+        String tokenHash = hash(token);
+        long now = System.currentTimeMillis();
+
+        TokenClaims cached = claimsCache.get(tokenHash);
+        if (cached != null) {
+            if (now < cached.expiresAtMillis()) {
+                return cached;
+            }
+            // süresi dolan kayıt düşülür, parser ExpiredJwtException fırlatır
+            claimsCache.remove(tokenHash, cached);
+        }
+
+        Claims claims = extractAllClaims(token);
+        TokenClaims tokenClaims = new TokenClaims(claims.getSubject(), claims.get("role", String.class),
+                claims.getExpiration() != null ? claims.getExpiration().getTime() : now);
+        if (tokenClaims.expiresAtMillis() > now) {
+            claimsCache.put(tokenHash, tokenClaims);
+            if (claimsCache.size() > claimsCacheSize) {
+                evict(now);
+            }
+        }
+        return tokenClaims;
+    }
+
+    // aynı anda sınırı aşan thread'lerden sadece biri temizler, diğerleri beklemeden devam eder
+    private void evict(long now) {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            claimsCache.values().removeIf(claims -> claims.expiresAtMillis() <= now);
+            int excess = claimsCache.size() - (claimsCacheSize - claimsCacheSize / 10);
+            if (excess > 0) {
+                claimsCache.entrySet().stream()
+                        .sorted(Comparator.comparingLong(entry -> entry.getValue().expiresAtMillis()))
+                        .limit(excess)
+                        .map(Map.Entry::getKey)
+                        .toList()
+                        .forEach(claimsCache::remove);
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return parseToken(token).username();
     }
 
     public String extractRole(String token) {
-        return extractAllClaims(token).get("role", String.class);
+        return parseToken(token).role();
     }
 
     public boolean validateToken(String token, String username) {
@@ -47,18 +128,23 @@ public class JwtUtil {
     }
 
     private boolean isExpired(String token) {
-        return extractAllClaims(token).getExpiration().before(new Date());
+        return parseToken(token).expiresAtMillis() <= System.currentTimeMillis();
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    private String hash(String token) {
+        MessageDigest digest = SHA_256.get();
+        digest.reset();
+        return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
     }
 
-    private <T> T extractClaim(String token, Function<Claims, T> resolver) {
-        return resolver.apply(extractAllClaims(token));
+    public record TokenClaims(
+            String username,
+            String role,
+            long expiresAtMillis
+    ) {
     }
 }
@@ -0,0 +1,34 @@
+package com.inonu.stok_takip.util;
+
+import com.inonu.stok_takip.Exception.Pagination.InvalidPageCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// keyset sayfalamada bir sayfanın son satırının (tarih, id) değeri, istemciye opak bir metin olarak verilir
+public record KeysetCursor(LocalDate date, Long id) {
+
+    public String encode() {
+        String raw = date + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // ilk sayfa için imleç boş gelir
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            if (separator < 0) {
+                throw new InvalidPageCursorException("Geçersiz sayfa imleci: " + cursor);
+            }
+            return new KeysetCursor(LocalDate.parse(raw.substring(0, separator)), Long.valueOf(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidPageCursorException("Geçersiz sayfa imleci: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.inonu.stok_takip;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Hibernate'in repository metotları için ürettiği SQL'i yakalar; sadece capture içinde aynı thread'de hazırlanan
+// sorgular kaydedilir. hibernate.session_factory.statement_inspector ile kaydedilir, Hibernate yansımayla oluşturur
+public class CapturingStatementInspector implements StatementInspector {
+
+	private static final ThreadLocal<List<String>> CAPTURED = new ThreadLocal<>();
+
+	static List<String> capture(Runnable action) {
+		List<String> statements = new ArrayList<>();
+		CAPTURED.set(statements);
+		try {
+			action.run();
+		} finally {
+			CAPTURED.remove();
+		}
+		return statements;
+	}
+
+	@Override
+	public String inspect(String sql) {
+		List<String> statements = CAPTURED.get();
+		if (statements != null) {
+			statements.add(sql);
+		}
+		return sql;
+	}
+}
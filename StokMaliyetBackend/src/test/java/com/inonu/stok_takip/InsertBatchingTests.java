@@ -0,0 +1,247 @@
+package com.inonu.stok_takip;
+
+import com.inonu.stok_takip.Repositoriy.TicketTypeRepository;
+import com.inonu.stok_takip.Service.MaterialExitService;
+import com.inonu.stok_takip.Service.ProductStockService;
+import com.inonu.stok_takip.Service.TicketSalesDetailService;
+import com.inonu.stok_takip.dto.Request.MaterialExitCreateRequest;
+import com.inonu.stok_takip.dto.Request.TicketSalesDetailCreateRequest;
+import com.inonu.stok_takip.entitiy.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// sekans id'leriyle fiş ve çıkış kayıtları satır başına ayrı insert yerine tek batch olarak gitmeli.
+// Aynı işlem batch kapalıyken (IDENTITY'deki davranış) ve açıkken çalıştırılır, veritabanına giden
+// statement sayılarındaki fark doğrulanır
+@SpringBootTest(properties = "material-exit.engine=LEDGER")
+@Import(InsertBatchingTests.RoundTripCounterConfig.class)
+class InsertBatchingTests {
+
+	private static final int TICKET_TYPE_COUNT = 10;
+	private static final int PRODUCT_COUNT = 40;
+	private static final LocalDate TEST_DATE = LocalDate.of(2001, 1, 1);
+
+	@Autowired
+	private TicketSalesDetailService ticketSalesDetailService;
+	@Autowired
+	private MaterialExitService materialExitService;
+	@Autowired
+	private ProductStockService productStockService;
+	@Autowired
+	private TicketTypeRepository ticketTypeRepository;
+	@Autowired
+	private TestFixtures fixtures;
+	@Autowired
+	private NamedParameterJdbcTemplate jdbcTemplate;
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	private final List<TicketType> ticketTypes = new ArrayList<>();
+	private final List<Product> products = new ArrayList<>();
+	private Category category;
+	private MeasurementType measurementType;
+	private Budget budget;
+
+	@BeforeEach
+	void setUp() {
+		category = fixtures.category("Batch Test Kategorisi");
+		measurementType = fixtures.measurementType("Adet");
+		budget = fixtures.budget("Batch Test Bütçesi");
+
+		for (int i = 0; i < TICKET_TYPE_COUNT; i++) {
+			TicketType ticketType = new TicketType();
+			ticketType.setName("Batch Test Fişi " + i);
+			ticketType.setUnitPrice(10.0 + i);
+			ticketTypes.add(ticketTypeRepository.save(ticketType));
+		}
+
+		for (int i = 0; i < PRODUCT_COUNT; i++) {
+			Product product = fixtures.product("Batch Test Ürünü " + i, category, measurementType);
+			products.add(product);
+			fixtures.materialEntry(product, budget, 100.0, 5.0, TEST_DATE);
+			productStockService.recalculate(product.getId());
+		}
+	}
+
+	@AfterEach
+	void tearDown() {
+		fixtures.deleteProducts(products);
+		jdbcTemplate.update("DELETE FROM ticket_sales_detail WHERE ticket_type_id IN (:ticketTypeIds)",
+				new MapSqlParameterSource("ticketTypeIds", ticketTypes.stream().map(TicketType::getId).toList()));
+		fixtures.deleteReports(TEST_DATE);
+		ticketTypeRepository.deleteAll(ticketTypes);
+		fixtures.delete(budget);
+		fixtures.delete(measurementType);
+		fixtures.delete(category);
+	}
+
+	@Test
+	void ticketPostIsWrittenAsOneInsertBatch() {
+		Map<Long, Integer> ticketMap = new LinkedHashMap<>();
+		for (TicketType ticketType : ticketTypes) {
+			ticketMap.put(ticketType.getId(), 3);
+		}
+		TicketSalesDetailCreateRequest request = new TicketSalesDetailCreateRequest(ticketMap, TEST_DATE, 500);
+
+		int unbatched = countRoundTrips(1, () -> ticketSalesDetailService.addTicket(request));
+		int batched = countRoundTrips(null, () -> ticketSalesDetailService.addTicket(request));
+
+		assertTrue(batched <= unbatched - (TICKET_TYPE_COUNT - 1),
+				"Fiş kayıtları tek batch olarak gönderilmedi: " + unbatched + " -> " + batched);
+	}
+
+	@Test
+	void materialExitIsWrittenAsOneInsertBatch() {
+		Map<Long, Double> productQuantities = new LinkedHashMap<>();
+		for (Product product : products) {
+			productQuantities.put(product.getId(), 1.0);
+		}
+		MaterialExitCreateRequest request = new MaterialExitCreateRequest(productQuantities, "test", TEST_DATE, "batch testi");
+
+		int unbatched = countRoundTrips(1, () -> materialExitService.exitMaterials(request));
+		int batched = countRoundTrips(null, () -> materialExitService.exitMaterials(request));
+
+		assertTrue(batched <= unbatched - (PRODUCT_COUNT - 1),
+				"Çıkış kayıtları tek batch olarak gönderilmedi: " + unbatched + " -> " + batched);
+		assertEquals(2 * PRODUCT_COUNT, jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM material_exit_allocation a JOIN material_exit e ON e.id = a.material_exit_id " +
+						"WHERE e.product_id IN (:productIds)",
+				new MapSqlParameterSource("productIds", products.stream().map(Product::getId).toList()), Integer.class));
+	}
+
+	// işlem dış transaction'a katılır; batchSize verilirse oturumun batch boyutu o transaction için değiştirilir
+	private int countRoundTrips(Integer batchSize, Runnable action) {
+		return new TransactionTemplate(transactionManager).execute(status -> {
+			if (batchSize != null) {
+				entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+			}
+			RoundTripCounter.start();
+			try {
+				action.run();
+				entityManager.flush();
+			} finally {
+				RoundTripCounter.stop();
+			}
+			return RoundTripCounter.count();
+		});
+	}
+
+	// sadece ölçüm yapan thread'in statement çalıştırmaları sayılır; executeBatch tek gidiş dönüştür
+	static final class RoundTripCounter {
+
+		private static final AtomicInteger COUNT = new AtomicInteger();
+		private static volatile Thread measuringThread;
+
+		static void start() {
+			COUNT.set(0);
+			measuringThread = Thread.currentThread();
+		}
+
+		static void stop() {
+			measuringThread = null;
+		}
+
+		static int count() {
+			return COUNT.get();
+		}
+
+		static void record(String methodName) {
+			if (measuringThread == Thread.currentThread() && methodName.startsWith("execute")) {
+				COUNT.incrementAndGet();
+			}
+		}
+	}
+
+	@TestConfiguration
+	static class RoundTripCounterConfig {
+
+		@Bean
+		static BeanPostProcessor roundTripCountingDataSource() {
+			return new BeanPostProcessor() {
+				@Override
+				public Object postProcessAfterInitialization(Object bean, String beanName) {
+					if (bean instanceof DataSource dataSource && !Proxy.isProxyClass(bean.getClass())) {
+						return proxy(DataSource.class, dataSource, (target, method, args) -> {
+							Object result = invoke(target, method, args);
+							return result instanceof Connection connection
+									? proxy(Connection.class, connection, RoundTripCounterConfig::invokeOnConnection)
+									: result;
+						});
+					}
+					return bean;
+				}
+			};
+		}
+
+		private static Object invokeOnConnection(Object target, Method method, Object[] args) throws Throwable {
+			Object result = invoke(target, method, args);
+			if (result instanceof CallableStatement statement) {
+				return proxy(CallableStatement.class, statement, RoundTripCounterConfig::invokeOnStatement);
+			}
+			if (result instanceof PreparedStatement statement) {
+				return proxy(PreparedStatement.class, statement, RoundTripCounterConfig::invokeOnStatement);
+			}
+			if (result instanceof Statement statement) {
+				return proxy(Statement.class, statement, RoundTripCounterConfig::invokeOnStatement);
+			}
+			return result;
+		}
+
+		private static Object invokeOnStatement(Object target, Method method, Object[] args) throws Throwable {
+			RoundTripCounter.record(method.getName());
+			return invoke(target, method, args);
+		}
+
+		private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+			try {
+				return method.invoke(target, args);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+		}
+
+		private static <T> T proxy(Class<T> type, T target, TargetInvocation invocation) {
+			InvocationHandler handler = (proxy, method, args) -> invocation.invoke(target, method, args);
+			return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler));
+		}
+
+		@FunctionalInterface
+		private interface TargetInvocation {
+			Object invoke(Object target, Method method, Object[] args) throws Throwable;
+		}
+	}
+}
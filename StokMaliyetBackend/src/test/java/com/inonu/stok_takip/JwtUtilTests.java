@@ -0,0 +1,81 @@
+package com.inonu.stok_takip;
+
+import com.inonu.stok_takip.Enum.Role;
+import com.inonu.stok_takip.util.JwtUtil;
+import com.inonu.stok_takip.util.JwtUtil.TokenClaims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// önbellekten dönen token bilgisi ilk doğrulamayla aynı olmalı, süresi dolan veya imzası bozuk token önbellekten geçmemeli
+class JwtUtilTests {
+
+	private JwtUtil jwtUtil(long expirationMillis) {
+		return jwtUtil(expirationMillis, 100);
+	}
+
+	private JwtUtil jwtUtil(long expirationMillis, int claimsCacheSize) {
+		JwtUtil jwtUtil = new JwtUtil();
+		ReflectionTestUtils.setField(jwtUtil, "SECRET", "test-secret-key-for-jwt-util-tests-0123456789");
+		ReflectionTestUtils.setField(jwtUtil, "EXPIRATION_TIME", expirationMillis);
+		ReflectionTestUtils.setField(jwtUtil, "claimsCacheSize", claimsCacheSize);
+		jwtUtil.init();
+		return jwtUtil;
+	}
+
+	@Test
+	void cachedClaimsMatchFirstVerification() {
+		JwtUtil jwtUtil = jwtUtil(3_600_000L);
+		String token = jwtUtil.generateToken("depo", Role.DEPO);
+
+		TokenClaims first = jwtUtil.parseToken(token);
+		TokenClaims second = jwtUtil.parseToken(token);
+
+		assertEquals("depo", first.username());
+		assertEquals("DEPO", first.role());
+		assertSame(first, second);
+		assertTrue(jwtUtil.validateToken(token, "depo"));
+	}
+
+	@Test
+	void fullCacheEvictsSoonestExpiringToken() {
+		JwtUtil jwtUtil = jwtUtil(7_200_000L, 2);
+		String depo = jwtUtil.generateToken("depo", Role.DEPO);
+		ReflectionTestUtils.setField(jwtUtil, "EXPIRATION_TIME", 3_600_000L);
+		String admin = jwtUtil.generateToken("admin", Role.ADMIN);
+		ReflectionTestUtils.setField(jwtUtil, "EXPIRATION_TIME", 7_200_000L);
+		TokenClaims depoClaims = jwtUtil.parseToken(depo);
+		TokenClaims adminClaims = jwtUtil.parseToken(admin);
+
+		// admin'in süresi en erken dolacağı için üçüncü token onu düşürür
+		jwtUtil.parseToken(jwtUtil.generateToken("yemekhane", Role.YEMEKHANE));
+
+		assertSame(depoClaims, jwtUtil.parseToken(depo));
+		assertNotSame(adminClaims, jwtUtil.parseToken(admin));
+	}
+
+	@Test
+	void tamperedTokenIsRejected() {
+		JwtUtil jwtUtil = jwtUtil(3_600_000L);
+		String token = jwtUtil.generateToken("depo", Role.DEPO);
+		jwtUtil.parseToken(token);
+
+		String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+		assertThrows(JwtException.class, () -> jwtUtil.parseToken(tampered));
+	}
+
+	@Test
+	void cachedTokenExpires() throws InterruptedException {
+		// exp saniye hassasiyetinde yazıldığı için süre en az bir saniye ileride olmalı
+		JwtUtil jwtUtil = jwtUtil(1_500L);
+		String token = jwtUtil.generateToken("depo", Role.DEPO);
+		jwtUtil.parseToken(token);
+
+		Thread.sleep(2_600L);
+
+		assertThrows(ExpiredJwtException.class, () -> jwtUtil.parseToken(token));
+	}
+}
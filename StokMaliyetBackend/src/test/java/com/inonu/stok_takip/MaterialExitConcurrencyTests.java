@@ -0,0 +1,113 @@
+package com.inonu.stok_takip;
+
+import com.inonu.stok_takip.Exception.MaterialExit.InsufficientStockException;
+import com.inonu.stok_takip.Service.MaterialExitService;
+import com.inonu.stok_takip.Service.ProductStockService;
+import com.inonu.stok_takip.dto.Request.MaterialExitCreateRequest;
+import com.inonu.stok_takip.entitiy.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// aynı ürüne paralel çıkışlarda stok eksiye düşmemeli ve düşülen miktar çıkış kayıtlarıyla birebir tutmalı
+@SpringBootTest
+class MaterialExitConcurrencyTests {
+
+	private static final int LOT_COUNT = 3;
+	private static final double LOT_QUANTITY = 100.0;
+	private static final int EXIT_COUNT = 2000;
+	private static final int THREAD_COUNT = 16;
+	private static final LocalDate EXIT_DATE = LocalDate.of(2000, 1, 1);
+
+	@Autowired
+	private MaterialExitService materialExitService;
+	@Autowired
+	private ProductStockService productStockService;
+	@Autowired
+	private TestFixtures fixtures;
+	@Autowired
+	private NamedParameterJdbcTemplate jdbcTemplate;
+
+	private Product product;
+	private Category category;
+	private MeasurementType measurementType;
+	private Budget budget;
+
+	@BeforeEach
+	void setUp() {
+		category = fixtures.category("Eşzamanlılık Test Kategorisi");
+		measurementType = fixtures.measurementType("Adet");
+		budget = fixtures.budget("Eşzamanlılık Test Bütçesi");
+		product = fixtures.product("Eşzamanlılık Test Ürünü", category, measurementType);
+		for (int i = 0; i < LOT_COUNT; i++) {
+			fixtures.materialEntry(product, budget, LOT_QUANTITY, 10.0 + i, EXIT_DATE);
+		}
+		productStockService.recalculate(product.getId());
+	}
+
+	@AfterEach
+	void tearDown() {
+		fixtures.deleteProducts(List.of(product));
+		fixtures.deleteReports(EXIT_DATE);
+		fixtures.delete(budget);
+		fixtures.delete(measurementType);
+		fixtures.delete(category);
+	}
+
+	@Test
+	void parallelExitsNeverOversellStock() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicInteger succeeded = new AtomicInteger();
+		List<Future<?>> futures = new ArrayList<>();
+
+		for (int i = 0; i < EXIT_COUNT; i++) {
+			futures.add(executor.submit(() -> {
+				start.await();
+				try {
+					materialExitService.exitMaterials(new MaterialExitCreateRequest(
+							Map.of(product.getId(), 1.0), "test", EXIT_DATE, "eşzamanlılık testi"));
+					succeeded.incrementAndGet();
+				} catch (InsufficientStockException e) {
+					// stok bittiğinde veya deneme hakkı tükendiğinde beklenen durum
+				}
+				return null;
+			}));
+		}
+
+		start.countDown();
+		for (Future<?> future : futures) {
+			future.get(5, TimeUnit.MINUTES);
+		}
+		executor.shutdown();
+
+		MapSqlParameterSource params = new MapSqlParameterSource("productId", product.getId());
+		Double minRemaining = jdbcTemplate.queryForObject(
+				"SELECT MIN(remaining_quantity) FROM material_entry WHERE product_id = :productId", params, Double.class);
+		Double totalRemaining = jdbcTemplate.queryForObject(
+				"SELECT SUM(remaining_quantity) FROM material_entry WHERE product_id = :productId", params, Double.class);
+		Double totalExited = jdbcTemplate.queryForObject(
+				"SELECT COALESCE(SUM(quantity), 0) FROM material_exit WHERE product_id = :productId", params, Double.class);
+
+		Double onHandQuantity = productStockService.getOnHandQuantity(product.getId());
+
+		assertTrue(minRemaining >= 0, "Kalan miktar eksiye düştü: " + minRemaining);
+		assertEquals(totalRemaining, onHandQuantity, 1e-6);
+		assertEquals(LOT_COUNT * LOT_QUANTITY, totalRemaining + totalExited, 1e-6);
+		assertEquals(succeeded.get(), totalExited, 1e-6);
+		assertTrue(succeeded.get() <= LOT_COUNT * LOT_QUANTITY);
+	}
+}
@@ -0,0 +1,173 @@
+package com.inonu.stok_takip;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inonu.stok_takip.Repositoriy.MaterialExitRepository;
+import com.inonu.stok_takip.Repositoriy.TicketSalesDetailRepository;
+import com.inonu.stok_takip.Repositoriy.TicketTypeRepository;
+import com.inonu.stok_takip.Service.MaterialExitService;
+import com.inonu.stok_takip.Service.TicketSalesDetailService;
+import com.inonu.stok_takip.entitiy.Category;
+import com.inonu.stok_takip.entitiy.MeasurementType;
+import com.inonu.stok_takip.entitiy.Product;
+import com.inonu.stok_takip.entitiy.TicketType;
+import com.inonu.stok_takip.util.DateRange;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// haftalık/aylık/yıllık rapor sorguları tarih aralığıyla indeksten okunduğu için tablo yıllarca büyüse de
+// okunan satır sayısı sorgulanan dönemin boyutuna bağlı kalmalı; süre yerine plan ve okunan satırlar doğrulanır.
+// Planı alınan SQL, repository metotları çağrılırken Hibernate'in ürettiği sorgudur (statement inspector ile yakalanır).
+// Veritabanına on binlerce satır eklediği için varsayılan test çalıştırmasına girmez: mvn test -Pbenchmark
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+		+ "com.inonu.stok_takip.CapturingStatementInspector")
+class ReportRangeQueryBenchmarkTests {
+
+	private static final LocalDate FIRST_DAY = LocalDate.of(1990, 1, 1);
+	private static final int TOTAL_YEARS = 6;
+	private static final int EXITS_PER_DAY = 20;
+	private static final int TICKETS_PER_DAY = 5;
+	private static final LocalDate QUERY_DATE = LocalDate.of(1990, 6, 13);
+
+	@Autowired
+	private MaterialExitService materialExitService;
+	@Autowired
+	private TicketSalesDetailService ticketSalesDetailService;
+	@Autowired
+	private MaterialExitRepository materialExitRepository;
+	@Autowired
+	private TicketSalesDetailRepository ticketSalesDetailRepository;
+	@Autowired
+	private TestFixtures fixtures;
+	@Autowired
+	private TicketTypeRepository ticketTypeRepository;
+	@Autowired
+	private NamedParameterJdbcTemplate jdbcTemplate;
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private Product product;
+	private Category category;
+	private MeasurementType measurementType;
+	private TicketType ticketType;
+
+	@BeforeEach
+	void setUp() {
+		category = fixtures.category("Rapor Ölçüm Kategorisi");
+		measurementType = fixtures.measurementType("Kg");
+		product = fixtures.product("Rapor Ölçüm Ürünü", category, measurementType);
+
+		ticketType = new TicketType();
+		ticketType.setName("Rapor Ölçüm Fişi");
+		ticketType.setUnitPrice(20.0);
+		ticketType = ticketTypeRepository.save(ticketType);
+	}
+
+	@AfterEach
+	void tearDown() {
+		fixtures.deleteProducts(List.of(product));
+		jdbcTemplate.update("DELETE FROM ticket_sales_detail WHERE ticket_type_id = :ticketTypeId",
+				new MapSqlParameterSource("ticketTypeId", ticketType.getId()));
+		ticketTypeRepository.delete(ticketType);
+		fixtures.delete(measurementType);
+		fixtures.delete(category);
+	}
+
+	@Test
+	void periodQueriesReadOnlyThePeriodRows() throws Exception {
+		seed(FIRST_DAY, FIRST_DAY.plusYears(TOTAL_YEARS));
+
+		// tablo altı yıllık veri tutuyor; tam tarama olsaydı okunan satır sayısı dönemden bağımsız olarak tüm tablo olurdu
+		for (DateRange range : List.of(DateRange.week(QUERY_DATE), DateRange.month(QUERY_DATE))) {
+			long days = ChronoUnit.DAYS.between(range.startDate(), range.endDate());
+			assertReadsOnlyRange(() -> materialExitRepository.findTotalBetween(range.startDate(), range.endDate()),
+					range, "material_exit", "idx_material_exit_exit_date_id", days * EXITS_PER_DAY);
+			assertReadsOnlyRange(() -> materialExitRepository.findTotalPersonsBetween(range.startDate(), range.endDate()),
+					range, "material_exit", "idx_material_exit_exit_date_id", days * EXITS_PER_DAY);
+			assertReadsOnlyRange(() -> ticketSalesDetailRepository.findTotalTicketSalesBetween(range.startDate(), range.endDate()),
+					range, "ticket_sales_detail", "idx_ticket_sales_detail_ticket_date_id", days * TICKETS_PER_DAY);
+		}
+
+		// yıl sorgusu komşu yıllardan satır almaz
+		assertEquals(365 * EXITS_PER_DAY * 10.0, materialExitService.getMaterialsByYear(QUERY_DATE), 1e-6);
+		assertEquals(365 * TICKETS_PER_DAY * 3, ticketSalesDetailService.getTicketCountByYear(QUERY_DATE));
+
+		// ocak başını kesen hafta iki yıla bölünmeden pazartesiden pazartesiye toplanır
+		LocalDate crossYearDay = LocalDate.of(1991, 1, 1);
+		double expectedWeek = 7 * EXITS_PER_DAY * 10.0;
+		assertEquals(expectedWeek, materialExitService.getMaterialsByWeek(crossYearDay), 1e-6);
+		assertEquals(7 * TICKETS_PER_DAY * 3, ticketSalesDetailService.getTicketCountByWeek(crossYearDay));
+	}
+
+	// her gün için EXITS_PER_DAY çıkış ve TICKETS_PER_DAY fiş kaydı, planlayıcı istatistikleri yenilenir
+	private void seed(LocalDate startDate, LocalDate endDate) {
+		MapSqlParameterSource params = new MapSqlParameterSource()
+				.addValue("startDate", startDate)
+				.addValue("endDate", endDate.minusDays(1))
+				.addValue("productId", product.getId())
+				.addValue("ticketTypeId", ticketType.getId())
+				.addValue("exitsPerDay", EXITS_PER_DAY)
+				.addValue("ticketsPerDay", TICKETS_PER_DAY);
+		jdbcTemplate.update("""
+				INSERT INTO material_exit (exit_date, product_id, quantity, unit_price, total_price, total_person, recipient)
+				SELECT d::date, :productId, 1.0, 10.0, 10.0, 500, 'ölçüm'
+				FROM generate_series(CAST(:startDate AS DATE), CAST(:endDate AS DATE), INTERVAL '1 day') AS d,
+				     generate_series(1, :exitsPerDay) AS n
+				""", params);
+		jdbcTemplate.update("""
+				INSERT INTO ticket_sales_detail (ticket_date, ticket_type_id, quantity, total_price, total_person)
+				SELECT d::date, :ticketTypeId, 3, 60.0, 500
+				FROM generate_series(CAST(:startDate AS DATE), CAST(:endDate AS DATE), INTERVAL '1 day') AS d,
+				     generate_series(1, :ticketsPerDay) AS n
+				""", params);
+		jdbcTemplate.getJdbcTemplate().execute("ANALYZE material_exit");
+		jdbcTemplate.getJdbcTemplate().execute("ANALYZE ticket_sales_detail");
+	}
+
+	// repository çağrısının ürettiği SQL yakalanıp aynı parametrelerle EXPLAIN ANALYZE ile çalıştırılır; indeks
+	// kullanılmalı ve tablodan okunan satırlar (dönen ve filtrede elenenler) sadece dönemin satırları olmalı.
+	// Üç sorgu da parametre olarak sırasıyla startDate ve endDate alır
+	private void assertReadsOnlyRange(Runnable repositoryCall, DateRange range, String tableName, String indexName,
+									  long expectedRows) throws Exception {
+		List<String> statements = CapturingStatementInspector.capture(repositoryCall);
+		assertEquals(1, statements.size(), "Tek sorgu bekleniyordu: " + statements);
+		String sql = statements.get(0);
+		String plan = jdbcTemplate.getJdbcTemplate().queryForObject("EXPLAIN (ANALYZE, FORMAT JSON) " + sql,
+				String.class, range.startDate(), range.endDate());
+
+		List<JsonNode> nodes = new ArrayList<>();
+		collectPlanNodes(objectMapper.readTree(plan).get(0).get("Plan"), nodes);
+
+		assertTrue(nodes.stream().anyMatch(node -> indexName.equals(node.path("Index Name").asText())),
+				"Aralık sorgusu indeksi kullanmadı:\n" + sql + "\n" + plan);
+		long rowsRead = nodes.stream()
+				.filter(node -> tableName.equals(node.path("Relation Name").asText()))
+				.mapToLong(node -> (node.path("Actual Rows").asLong()
+						+ node.path("Rows Removed by Filter").asLong()
+						+ node.path("Rows Removed by Index Recheck").asLong())
+						* Math.max(1, node.path("Actual Loops").asLong()))
+				.sum();
+		assertEquals(expectedRows, rowsRead, range + " için okunan satır sayısı dönemden fazla:\n" + sql + "\n" + plan);
+	}
+
+	private void collectPlanNodes(JsonNode node, List<JsonNode> nodes) {
+		nodes.add(node);
+		for (JsonNode child : node.path("Plans")) {
+			collectPlanNodes(child, nodes);
+		}
+	}
+}
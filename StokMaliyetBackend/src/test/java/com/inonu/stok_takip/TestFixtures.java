@@ -0,0 +1,112 @@
+package com.inonu.stok_takip;
+
+import com.inonu.stok_takip.Enum.EntrySourceType;
+import com.inonu.stok_takip.Repositoriy.*;
+import com.inonu.stok_takip.entitiy.*;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// veritabanına karşı çalışan testlerin ortak kayıtları: kategori, ölçü birimi, bütçe, ürün ve malzeme girişi.
+// Testler oluşturduklarını tearDown'da deleteProducts ve delete ile geri siler
+@Component
+class TestFixtures {
+
+	private final CategoryRepository categoryRepository;
+	private final MeasurementTypeRepository measurementTypeRepository;
+	private final BudgetRepository budgetRepository;
+	private final ProductRepository productRepository;
+	private final MaterialEntryRepository materialEntryRepository;
+	private final NamedParameterJdbcTemplate jdbcTemplate;
+
+	TestFixtures(CategoryRepository categoryRepository,
+				 MeasurementTypeRepository measurementTypeRepository,
+				 BudgetRepository budgetRepository,
+				 ProductRepository productRepository,
+				 MaterialEntryRepository materialEntryRepository,
+				 NamedParameterJdbcTemplate jdbcTemplate) {
+		this.categoryRepository = categoryRepository;
+		this.measurementTypeRepository = measurementTypeRepository;
+		this.budgetRepository = budgetRepository;
+		this.productRepository = productRepository;
+		this.materialEntryRepository = materialEntryRepository;
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	Category category(String name) {
+		Category category = new Category();
+		category.setName(name);
+		return categoryRepository.save(category);
+	}
+
+	MeasurementType measurementType(String name) {
+		MeasurementType measurementType = new MeasurementType();
+		measurementType.setName(name);
+		return measurementTypeRepository.save(measurementType);
+	}
+
+	Budget budget(String name) {
+		Budget budget = new Budget();
+		budget.setBudgetName(name);
+		budget.setBudgetAmount(1_000_000.0);
+		return budgetRepository.save(budget);
+	}
+
+	Product product(String name, Category category, MeasurementType measurementType) {
+		Product product = new Product();
+		product.setName(name);
+		product.setVatAmount(0.0);
+		product.setCriticalLevel(0.0);
+		product.setCategory(category);
+		product.setMeasurementType(measurementType);
+		return productRepository.save(product);
+	}
+
+	// KDV'siz, doğrudan temin girişi; ürünün stok satırı çağıran tarafından yeniden hesaplanır
+	MaterialEntry materialEntry(Product product, Budget budget, double quantity, double unitPrice, LocalDate entryDate) {
+		MaterialEntry entry = new MaterialEntry();
+		entry.setProduct(product);
+		entry.setBudget(budget);
+		entry.setQuantity(quantity);
+		entry.setRemainingQuantity(quantity);
+		entry.setUnitPrice(unitPrice);
+		entry.setUnitPriceIncludingVat(unitPrice);
+		entry.setEntryDate(entryDate);
+		entry.setEntrySourceType(EntrySourceType.DOGRUDAN_TEMIN);
+		return materialEntryRepository.save(entry);
+	}
+
+	// ürünlerin çıkış, tahsis, giriş ve stok kayıtlarıyla birlikte ürünler silinir
+	void deleteProducts(List<Product> products) {
+		MapSqlParameterSource params = new MapSqlParameterSource("productIds",
+				products.stream().map(Product::getId).toList());
+		jdbcTemplate.update("DELETE FROM material_exit_allocation WHERE material_exit_id IN " +
+				"(SELECT id FROM material_exit WHERE product_id IN (:productIds))", params);
+		jdbcTemplate.update("DELETE FROM material_exit WHERE product_id IN (:productIds)", params);
+		jdbcTemplate.update("DELETE FROM material_entry WHERE product_id IN (:productIds)", params);
+		jdbcTemplate.update("DELETE FROM product_stock WHERE product_id IN (:productIds)", params);
+		productRepository.deleteAll(products);
+	}
+
+	// testin yazdığı günün rapor ve günlük maliyet satırları
+	void deleteReports(LocalDate date) {
+		MapSqlParameterSource params = new MapSqlParameterSource("date", date);
+		jdbcTemplate.update("DELETE FROM report WHERE report_create_date = :date", params);
+		jdbcTemplate.update("DELETE FROM daily_cost_fact WHERE fact_date = :date", params);
+	}
+
+	void delete(Budget budget) {
+		budgetRepository.delete(budget);
+	}
+
+	void delete(MeasurementType measurementType) {
+		measurementTypeRepository.delete(measurementType);
+	}
+
+	void delete(Category category) {
+		categoryRepository.delete(category);
+	}
+}